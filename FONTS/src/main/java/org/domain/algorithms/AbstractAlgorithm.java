@@ -13,33 +13,113 @@ import java.util.Map;
 /**
  * AbstractAlgorithm serves as the base class for implementing various product arrangement algorithms.
  * It provides shared utility methods and an abstract method for defining the main ordering logic.
- * Subclasses should implement the orderProductList method to define specific algorithms.
+ * Subclasses should implement the order method, which works over the dense ids of a SimilarityMatrix,
+ * to define specific algorithms. Every algorithm is anytime: it reports its improvements to the SolverControl
+ * and, when the control asks it to stop, it returns the best ordering found so far.
  * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
  * @version 1.0
  */
 
 public abstract class AbstractAlgorithm {
     /**
-     * A matrix that stores similarity scores between products.
-     * The outer map's key is the product name, and the inner map's key is the name of another product.
-     * The value is the similarity score between the two products.
+     * The compiled similarity matrix used to get the similarity scores between products.
      */
-    protected Map<String, Map<String, Double>> similarityMatrix;
+    protected SimilarityMatrix similarityMatrix;
 
     /**
-     * Constructs an `AbstractAlgorithm` with the specified similarity matrix.
+     * The control of the run, which the order method checks to stop early and notifies of every improvement.
+     */
+    protected SolverControl control = new SolverControl();
+
+    /**
+     * The score that the arrangement maximizes.
+     */
+    protected Objective objective = Objective.SEQUENCE;
+
+    /**
+     * The ordering the next runs start from instead of a greedy ordering, or null.
+     */
+    protected int[] startOrder;
+
+    /**
+     * Constructs an `AbstractAlgorithm` with the specified compiled similarity matrix.
+     *
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public AbstractAlgorithm(SimilarityMatrix similarityMatrix) {
+        this.similarityMatrix = similarityMatrix;
+    }
+
+    /**
+     * Constructs an `AbstractAlgorithm` with the specified similarity map, compiling it into a SimilarityMatrix.
      *
      * @param similarityMatrix A matrix that stores similarity scores between products.
      *                         The outer map's key is the product name, and the inner map's key is the name of another product.
      *                         The value is the similarity score between the two products.
      */
     public AbstractAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
-        this.similarityMatrix = similarityMatrix;
+        this(new SimilarityMatrix(similarityMatrix));
+    }
+
+    /**
+     * Sets the control of the next runs of the algorithm.
+     *
+     * @param control The deadline, cancellation flag and progress listener of the run.
+     */
+    public void setControl(SolverControl control) {
+        this.control = control;
+    }
+
+    /**
+     * Retrieves the control of the runs of the algorithm.
+     *
+     * @return The control of the run.
+     */
+    public SolverControl getControl() {
+        return control;
+    }
+
+    /**
+     * Sets the score that the next arrangements maximize.
+     *
+     * @param objective The objective of the arrangement.
+     */
+    public void setObjective(Objective objective) {
+        this.objective = objective;
+    }
+
+    /**
+     * Retrieves the score that the arrangements maximize.
+     *
+     * @return The objective of the arrangement.
+     */
+    public Objective getObjective() {
+        return objective;
+    }
+
+    /**
+     * Sets the ordering the next runs of the order method start from, if the algorithm supports it.
+     * The ordering is ignored if its length is not the number of products the run arranges.
+     *
+     * @param startOrder The ids of the products in the order to start from, or null to build the greedy ordering.
+     */
+    public void setStartOrder(int[] startOrder) {
+        this.startOrder = startOrder == null ? null : startOrder.clone();
+    }
+
+    /**
+     * Indicates if the order method starts from the ordering given with setStartOrder.
+     *
+     * @return True if the algorithm improves a start ordering, false by default.
+     */
+    public boolean supportsStartOrder() {
+        return false;
     }
 
     /**
      * Arranges a given product list into an optimized distribution.
-     * Subclasses must override this method to provide specific implementations.
+     * The similarity matrix is restricted to the products of the list. With the sequence objective the ordering computed by
+     * the order method is adapted to the shelf, and with the grid objective the grid computed by the orderGrid method is used.
      *
      * @param list        The product list to be arranged.
      * @param xsize       Represents the number of columns of the distribution
@@ -47,10 +127,60 @@ public abstract class AbstractAlgorithm {
      * @param limit       Serves to limit the depth we want to search for the solution. If limit is less than 0, the code ignores the limit
      * @param coordinates Contains the coordinates of the products in the distribution.
      * @return A matrix that represent the arranged distribution of the list.
-     * @throws DistributionException If the ProductList is empty.
+     * @throws DistributionException If the ProductList is empty or the size of the distribution is not valid.
      */
 
-    public abstract ArrayList<ArrayList<Product>> orderProductList(ProductList list, int xsize, int ysize, int limit, HashMap<String, Pair<Integer, Integer>> coordinates);
+    public ArrayList<ArrayList<Product>> orderProductList(ProductList list, int xsize, int ysize, int limit, HashMap<String, Pair<Integer, Integer>> coordinates) {
+        List<Product> allP = new ArrayList<>(list.getProducts());
+        if (allP.isEmpty()) throw new DistributionException("Empty list");
+        if (xsize <= 0 || ysize <= 0) throw new DistributionException("Invalid distribution size");
+        SimilarityMatrix matrix = similarityMatrix.restrictTo(allP);
+        if (objective == Objective.GRID) {
+            return gridToShelf(orderGrid(matrix, xsize, ysize, limit), allP, xsize, ysize, coordinates);
+        }
+        int[] order = order(matrix, xsize*ysize, limit);
+        return adaptToShelf(toProducts(order, allP), xsize, ysize, coordinates);
+    }
+
+    /**
+     * Computes the grid of the products that maximizes the similarity between adjacent cells.
+     * By default the ordering of the order method is folded into the grid and improved with GridLocalSearch,
+     * so every algorithm can be used as the construction of a grid arrangement.
+     * The order method runs with a control nested in the one of the run and without listener, so only grid scores,
+     * and not the scores of the cyclic ordering, are reported.
+     *
+     * @param matrix The similarity matrix of the products to arrange, the id of each product is its position in the list.
+     * @param xsize  Represents the number of columns of the distribution
+     * @param ysize  Represents the number of rows of the distribution
+     * @param limit  The limit of the order method. If limit is less than 0, the code ignores the limit
+     * @return The row-major grid of product ids, with GridObjective.EMPTY in the empty cells.
+     */
+    protected int[] orderGrid(SimilarityMatrix matrix, int xsize, int ysize, int limit) {
+        SolverControl outer = control;
+        control = new SolverControl(outer, -1, null);
+        int[] sequence;
+        try {
+            sequence = order(matrix, xsize*ysize, limit);
+        }
+        finally {
+            control = outer;
+        }
+        int[] cells = GridObjective.fromSequence(sequence, xsize, ysize);
+        control.reportImprovement(GridObjective.score(matrix, cells, xsize, ysize), 0);
+        new GridLocalSearch(matrix).optimize(cells, xsize, ysize, -1, control);
+        return cells;
+    }
+
+    /**
+     * Computes the ordering of the products over their dense ids.
+     * Subclasses must override this method to provide specific implementations.
+     *
+     * @param matrix  The similarity matrix of the products to arrange, the id of each product is its position in the list.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Serves to limit the depth we want to search for the solution. If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the order they must be placed, the best found so far if the control stopped the run.
+     */
+    protected abstract int[] order(SimilarityMatrix matrix, int maxsize, int limit);
 
     /**
      * Retrieves the name of the algorithm.
@@ -120,6 +250,33 @@ public abstract class AbstractAlgorithm {
     }
 
 
+    /**
+     * Builds the shelf from a row-major grid of product ids.
+     *
+     * @param cells       The row-major grid, with GridObjective.EMPTY in the empty cells.
+     * @param products    The products, indexed by id.
+     * @param xsize       Represents the number of columns of the distribution
+     * @param ysize       Represents the number of rows of the distribution
+     * @param coordinates Contains the coordinates of the products in the distribution
+     * @return A matrix that represent the arranged distribution of the list.
+     */
+    public ArrayList<ArrayList<Product>> gridToShelf(int[] cells, List<Product> products, int xsize, int ysize, HashMap<String, Pair<Integer, Integer>> coordinates) {
+        ArrayList<ArrayList<Product>> distribution = new ArrayList<>();
+        for (int i = 0; i < ysize; i++) {
+            ArrayList<Product> row = new ArrayList<>();
+            for (int j = 0; j < xsize; j++) {
+                int id = cells[i * xsize + j];
+                if (id == GridObjective.EMPTY) row.add(null);
+                else {
+                    row.add(products.get(id));
+                    coordinates.put(products.get(id).getName(), new Pair<>(i, j));
+                }
+            }
+            distribution.add(row);
+        }
+        return distribution;
+    }
+
     /**
      * Calculates the sum of similarities between consecutive products in a combination.
      * This method iterates through the list and computes the total similarity between
@@ -133,7 +290,7 @@ public abstract class AbstractAlgorithm {
         double sum = 0;
         for (int i = 0; i < combination.size() - 1; i++) {
             Product p1 = combination.get(i);
-            Product p2 = combination. get(i+1);
+            Product p2 = combination.get(i+1);
             sum = sum + getSimilarityScore(p1, p2);
         }
         Product p1 = combination.getFirst();
@@ -154,8 +311,28 @@ public abstract class AbstractAlgorithm {
         double maxSimilarity = -1;
         Product mostSimilar = null;
         for (Product candidate : candidates) {
-            double similarity = similarityMatrix.getOrDefault(product.getName(), new HashMap<>())
-                    .getOrDefault(candidate.getName(), 0.0);
+            double similarity = getSimilarityScore(product, candidate);
+            if (similarity > maxSimilarity) {
+                maxSimilarity = similarity;
+                mostSimilar = candidate;
+            }
+        }
+        return mostSimilar;
+    }
+
+    /**
+     * Finds the most similar unused product to a given product by id.
+     * @param matrix  The similarity matrix of the products.
+     * @param product The id of the product to compare.
+     * @param used    Marks the ids of the products that can not be chosen.
+     * @return The id of the most similar unused product, or -1 if every product is used.
+     */
+    protected int mostSimilarP(SimilarityMatrix matrix, int product, boolean[] used) {
+        double maxSimilarity = -1;
+        int mostSimilar = -1;
+        for (int candidate = 0; candidate < matrix.size(); candidate++) {
+            if (used[candidate]) continue;
+            double similarity = matrix.get(product, candidate);
             if (similarity > maxSimilarity) {
                 maxSimilarity = similarity;
                 mostSimilar = candidate;
@@ -164,6 +341,74 @@ public abstract class AbstractAlgorithm {
         return mostSimilar;
     }
 
+    /**
+     * Retrieves the ordering a run starts from: a copy of the start ordering if one was given for the same number of
+     * products, or otherwise the greedy ordering from the given product.
+     * @param matrix The similarity matrix of the products.
+     * @param size   The number of products to include in the ordering.
+     * @param first  The id of the starting product of the greedy ordering.
+     * @return An ordering of min(size, number of products) product ids.
+     */
+    protected int[] initialOrder(SimilarityMatrix matrix, int size, int first) {
+        int[] start = startOrder;
+        if (start != null && start.length == Math.min(size, matrix.size())) return start.clone();
+        return greedyOrder(matrix, size, first);
+    }
+
+    /**
+     * Builds an ordering based on the similarity of products.
+     * This method starts with the given product and repeatedly adds the most similar unused product.
+     * The most similar unused product is looked for in the candidate list of the last product first, and only when
+     * every candidate is used are all the products compared.
+     * @param matrix The similarity matrix of the products.
+     * @param size   The number of products to include in the ordering.
+     * @param first  The id of the starting product.
+     * @return An ordering of min(size, number of products) product ids.
+     */
+    protected int[] greedyOrder(SimilarityMatrix matrix, int size, int first) {
+        int[] order = new int[Math.min(size, matrix.size())];
+        boolean[] used = new boolean[matrix.size()];
+        int[][] candidates = matrix.topNeighbours(TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+        order[0] = first;
+        used[first] = true;
+        for (int i = 1; i < order.length; i++) {
+            order[i] = mostSimilarP(matrix, candidates[order[i - 1]], order[i - 1], used);
+            used[order[i]] = true;
+        }
+        return order;
+    }
+
+    /**
+     * Finds the most similar unused product to a given product by id, starting from its candidate list.
+     * The candidates are the most similar products sorted by decreasing similarity, so the first unused one is the most
+     * similar unused product.
+     * @param matrix     The similarity matrix of the products.
+     * @param candidates The most similar products of the product, sorted by decreasing similarity.
+     * @param product    The id of the product to compare.
+     * @param used       Marks the ids of the products that can not be chosen.
+     * @return The id of the most similar unused product, or -1 if every product is used.
+     */
+    protected int mostSimilarP(SimilarityMatrix matrix, int[] candidates, int product, boolean[] used) {
+        for (int candidate : candidates) {
+            if (!used[candidate]) return candidate;
+        }
+        return mostSimilarP(matrix, product, used);
+    }
+
+    /**
+     * Converts an ordering of product ids back to the products.
+     * @param order    The ids of the products in order.
+     * @param products The products indexed by id.
+     * @return The list of products in the given order.
+     */
+    protected List<Product> toProducts(int[] order, List<Product> products) {
+        List<Product> result = new ArrayList<>(order.length);
+        for (int id : order) {
+            result.add(products.get(id));
+        }
+        return result;
+    }
+
     /**
      * Retrieves the similarity score between two products.
      * This method retrieves the similarity score between two products from the similarity matrix.
@@ -173,7 +418,6 @@ public abstract class AbstractAlgorithm {
      * @return The similarity score between the two products.
      */
     private double getSimilarityScore(Product p1, Product p2) {
-        return similarityMatrix.getOrDefault(p1.getName(), new HashMap<>())
-                .getOrDefault(p2.getName(), 0.0);
+        return similarityMatrix.get(p1.getName(), p2.getName());
     }
 }
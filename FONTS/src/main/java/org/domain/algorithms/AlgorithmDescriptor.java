@@ -0,0 +1,133 @@
+package org.domain.algorithms;
+
+import org.domain.types.AlgorithmLimit;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * AlgorithmDescriptor describes an algorithm of the AlgorithmRegistry: its id and name, whether it is exact or
+ * heuristic, the largest list it is recommended for, the objectives it optimizes and what its limit bounds, together with
+ * the factory that creates it. Every algorithm can arrange a shelf with any objective, but only the declared ones are optimized directly.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public final class AlgorithmDescriptor {
+    private final int id;
+    private final String name;
+    private final boolean exact;
+    private final int maxSize;
+    private final Set<Objective> objectives;
+    private final AlgorithmLimit limit;
+    private final Function<SimilarityMatrix, AbstractAlgorithm> factory;
+
+    /**
+     * Constructs an AlgorithmDescriptor whose limit bounds the search in a way documented by the algorithm.
+     * @param id         The id of the algorithm, positive and unique in the registry.
+     * @param name       The name of the algorithm, as returned by its getName method.
+     * @param exact      True if the algorithm always finds the optimal ordering when it is not stopped.
+     * @param maxSize    The largest number of products the algorithm is recommended for.
+     * @param objectives The objectives the algorithm optimizes.
+     * @param factory    Creates the algorithm from the compiled similarity matrix of the products.
+     */
+    public AlgorithmDescriptor(int id, String name, boolean exact, int maxSize, Set<Objective> objectives, Function<SimilarityMatrix, AbstractAlgorithm> factory) {
+        this(id, name, exact, maxSize, objectives, AlgorithmLimit.OTHER, factory);
+    }
+
+    /**
+     * Constructs an AlgorithmDescriptor.
+     * @param id         The id of the algorithm, positive and unique in the registry.
+     * @param name       The name of the algorithm, as returned by its getName method.
+     * @param exact      True if the algorithm always finds the optimal ordering when it is not stopped.
+     * @param maxSize    The largest number of products the algorithm is recommended for.
+     * @param objectives The objectives the algorithm optimizes.
+     * @param limit      What the limit given to the algorithm bounds.
+     * @param factory    Creates the algorithm from the compiled similarity matrix of the products.
+     */
+    public AlgorithmDescriptor(int id, String name, boolean exact, int maxSize, Set<Objective> objectives, AlgorithmLimit limit, Function<SimilarityMatrix, AbstractAlgorithm> factory) {
+        this.id = id;
+        this.name = name;
+        this.exact = exact;
+        this.maxSize = maxSize;
+        this.objectives = EnumSet.copyOf(objectives);
+        this.limit = limit;
+        this.factory = factory;
+    }
+
+    /**
+     * Retrieves the id of the algorithm.
+     * @return The id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Indicates if the algorithm always finds the optimal ordering when it is not stopped.
+     * @return True if the algorithm is exact, false if it is a heuristic.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Retrieves the largest number of products the algorithm is recommended for.
+     * @return The recommended maximum size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Retrieves what the limit given to the algorithm bounds.
+     * @return The kind of limit of the algorithm.
+     */
+    public AlgorithmLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Indicates if the algorithm optimizes an objective directly.
+     * @param objective The objective.
+     * @return True if the objective is one of the declared ones.
+     */
+    public boolean supports(Objective objective) {
+        return objectives.contains(objective);
+    }
+
+    /**
+     * Indicates if the algorithm is adequate to arrange a list on a shelf.
+     * It has to optimize the objective and be recommended for the size of the list. Exact algorithms are also only
+     * adequate if the whole list fits on the shelf, because choosing which products are left out multiplies their cost.
+     * @param products  The number of products of the list.
+     * @param capacity  The number of products that fit on the shelf.
+     * @param objective The objective to maximize.
+     * @return True if the algorithm is adequate.
+     */
+    public boolean isAdequate(int products, int capacity, Objective objective) {
+        return supports(objective) && products <= maxSize && (!exact || products <= capacity);
+    }
+
+    /**
+     * Creates the algorithm.
+     * @param matrix The compiled similarity matrix of the products to arrange.
+     * @return A new instance of the algorithm.
+     */
+    public AbstractAlgorithm create(SimilarityMatrix matrix) {
+        return factory.apply(matrix);
+    }
+
+    @Override
+    public String toString() {
+        return id + "- " + name + (exact ? " (exact, up to " : " (heuristic, up to ") + maxSize + " products)";
+    }
+}
@@ -0,0 +1,19 @@
+package org.domain.algorithms;
+
+import java.util.List;
+
+/**
+ * AlgorithmProvider is the service interface through which the AlgorithmRegistry discovers algorithms.
+ * A plugin implements it in a public class with a constructor without parameters and lists that class in the file
+ * META-INF/services/org.domain.algorithms.AlgorithmProvider of its jar, so that ServiceLoader finds it.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public interface AlgorithmProvider {
+    /**
+     * Retrieves the algorithms of the provider, from the fastest to the slowest.
+     * The automatic selection prefers the first adequate algorithm, so the order matters.
+     * @return The descriptors of the algorithms.
+     */
+    List<AlgorithmDescriptor> getAlgorithms();
+}
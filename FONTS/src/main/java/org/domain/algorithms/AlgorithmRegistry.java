@@ -0,0 +1,154 @@
+package org.domain.algorithms;
+
+import org.domain.exceptions.DistributionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * AlgorithmRegistry holds the algorithms that can arrange a shelf, indexed by id and by name.
+ * The shared instance contains the built-in algorithms followed by the ones of every AlgorithmProvider found by
+ * ServiceLoader on the classpath. Besides choosing an algorithm by id, the automatic mode picks the fastest adequate
+ * algorithm from the size of the list, the capacity of the shelf and the objective, so that an exact algorithm is never
+ * launched on a list it can not solve in reasonable time.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class AlgorithmRegistry {
+    /**
+     * Id of the automatic selection of the algorithm.
+     */
+    public static final int AUTO = 0;
+
+    /**
+     * Name of the automatic selection of the algorithm.
+     */
+    public static final String AUTO_NAME = "Auto";
+
+    private final Map<Integer, AlgorithmDescriptor> algorithms = new LinkedHashMap<>();
+
+    /**
+     * Constructs an AlgorithmRegistry with the algorithms of the given providers, in their order.
+     * @param providers The providers of the algorithms.
+     * @throws DistributionException If two algorithms have the same id or name, or an id is not positive.
+     */
+    public AlgorithmRegistry(Iterable<AlgorithmProvider> providers) {
+        for (AlgorithmProvider provider : providers) {
+            for (AlgorithmDescriptor descriptor : provider.getAlgorithms()) register(descriptor);
+        }
+    }
+
+    /**
+     * Returns the shared registry with the built-in algorithms and the ones discovered through ServiceLoader.
+     *
+     * @return The shared instance of AlgorithmRegistry.
+     */
+    public static AlgorithmRegistry getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Helper class to hold the shared instance of AlgorithmRegistry, discovered the first time it is used.
+     */
+    private static class SingletonHelper {
+        private static final AlgorithmRegistry INSTANCE = new AlgorithmRegistry(discover());
+
+        private static List<AlgorithmProvider> discover() {
+            List<AlgorithmProvider> providers = new ArrayList<>();
+            providers.add(new BuiltInAlgorithms());
+            for (AlgorithmProvider provider : ServiceLoader.load(AlgorithmProvider.class)) {
+                if (!(provider instanceof BuiltInAlgorithms)) providers.add(provider);
+            }
+            return providers;
+        }
+    }
+
+    /**
+     * Adds an algorithm after the ones already registered.
+     * @param descriptor The descriptor of the algorithm.
+     * @throws DistributionException If its id or name is already registered, or its id is not positive.
+     */
+    private void register(AlgorithmDescriptor descriptor) {
+        if (descriptor.getId() <= AUTO) throw new DistributionException("Invalid algorithm id " + descriptor.getId());
+        if (algorithms.containsKey(descriptor.getId())) throw new DistributionException("Duplicated algorithm id " + descriptor.getId());
+        for (AlgorithmDescriptor other : algorithms.values()) {
+            if (other.getName().equals(descriptor.getName())) throw new DistributionException("Duplicated algorithm " + descriptor.getName());
+        }
+        algorithms.put(descriptor.getId(), descriptor);
+    }
+
+    /**
+     * Retrieves every registered algorithm, from the fastest to the slowest.
+     * @return The descriptors of the algorithms.
+     */
+    public List<AlgorithmDescriptor> getAlgorithms() {
+        return Collections.unmodifiableList(new ArrayList<>(algorithms.values()));
+    }
+
+    /**
+     * Retrieves an algorithm by id.
+     * @param id The id of the algorithm.
+     * @return The descriptor of the algorithm.
+     * @throws DistributionException If there is no algorithm with the id.
+     */
+    public AlgorithmDescriptor get(int id) {
+        AlgorithmDescriptor descriptor = algorithms.get(id);
+        if (descriptor == null) throw new DistributionException("Invalid algorithm");
+        return descriptor;
+    }
+
+    /**
+     * Retrieves the id of an algorithm by name.
+     * @param name The name of the algorithm, or AUTO_NAME for the automatic selection.
+     * @return The id of the algorithm, or AUTO for the automatic selection.
+     * @throws DistributionException If there is no algorithm with the name.
+     */
+    public int getId(String name) {
+        if (AUTO_NAME.equals(name)) return AUTO;
+        for (AlgorithmDescriptor descriptor : algorithms.values()) {
+            if (descriptor.getName().equals(name)) return descriptor.getId();
+        }
+        throw new DistributionException("Invalid algorithm");
+    }
+
+    /**
+     * Picks the fastest adequate algorithm to arrange a list on a shelf.
+     * The first adequate exact algorithm is preferred, and if there is none the first adequate heuristic.
+     * If no algorithm is adequate, the first heuristic that optimizes the objective is used.
+     * @param products  The number of products of the list.
+     * @param capacity  The number of products that fit on the shelf.
+     * @param objective The objective to maximize.
+     * @return The descriptor of the chosen algorithm.
+     * @throws DistributionException If no algorithm optimizes the objective.
+     */
+    public AlgorithmDescriptor select(int products, int capacity, Objective objective) {
+        AlgorithmDescriptor fallback = null;
+        for (AlgorithmDescriptor descriptor : algorithms.values()) {
+            if (descriptor.isExact() && descriptor.isAdequate(products, capacity, objective)) return descriptor;
+        }
+        for (AlgorithmDescriptor descriptor : algorithms.values()) {
+            if (descriptor.isExact() || !descriptor.supports(objective)) continue;
+            if (descriptor.isAdequate(products, capacity, objective)) return descriptor;
+            if (fallback == null) fallback = descriptor;
+        }
+        if (fallback == null) throw new DistributionException("No algorithm optimizes the objective " + objective);
+        return fallback;
+    }
+
+    /**
+     * Resolves the algorithm chosen by id, running the automatic selection for AUTO.
+     * @param id        The id of the algorithm, or AUTO.
+     * @param products  The number of products of the list.
+     * @param capacity  The number of products that fit on the shelf.
+     * @param objective The objective to maximize.
+     * @return The descriptor of the algorithm.
+     * @throws DistributionException If there is no algorithm with the id.
+     */
+    public AlgorithmDescriptor resolve(int id, int products, int capacity, Objective objective) {
+        return id == AUTO ? select(products, capacity, objective) : get(id);
+    }
+}
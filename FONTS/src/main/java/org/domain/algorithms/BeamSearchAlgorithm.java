@@ -0,0 +1,426 @@
+package org.domain.algorithms;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * BeamSearchAlgorithm is an extension of AbstractAlgorithm that builds the ordering of a Productlist with Beam Search.
+ * Instead of following only the most similar product like the greedy ordering, it keeps the best partial orderings
+ * of each length (the beam) and extends each of them with the most similar products not yet used. Partial orderings
+ * that used the same products and end at the same product are equivalent, so only the best of them is kept, and with
+ * a beam wide enough to keep every partial ordering the search is exact.
+ * The width of the beam trades quality for time: the cost grows linearly with it.
+ * The partial orderings are extended in parallel over a ForkJoinPool, and the result does not depend on the scheduling.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class BeamSearchAlgorithm extends AbstractAlgorithm {
+    /**
+     * Number of partial orderings kept at each length when no width is given.
+     */
+    public static final int DEFAULT_WIDTH = 32;
+
+    /**
+     * Number of partial orderings extended or copied by each parallel task.
+     */
+    private static final int CHUNK = 4;
+
+    private String name = "Beam Search";
+
+    private final int width;
+    private final int neighbours;
+
+    /**
+     * Constructs a BeamSearchAlgorithm with a similarity matrix and the default width.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public BeamSearchAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.width = DEFAULT_WIDTH;
+        this.neighbours = TwoOptLocalSearch.DEFAULT_NEIGHBOURS;
+    }
+
+    /**
+     * Constructs a BeamSearchAlgorithm with a compiled similarity matrix and the default width.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public BeamSearchAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, DEFAULT_WIDTH, TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Constructs a BeamSearchAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param width            The number of partial orderings kept at each length, at least 1.
+     * @param neighbours       The number of most similar products tried to extend each partial ordering, at least 1.
+     */
+    public BeamSearchAlgorithm(SimilarityMatrix similarityMatrix, int width, int neighbours) {
+        super(similarityMatrix);
+        this.width = Math.max(1, width);
+        this.neighbours = Math.max(1, neighbours);
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Beam Search").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Builds the ordering with Beam Search, starting from as many products as fit in the beam.
+     * The score of a partial ordering is the similarity of its consecutive products, and the edge that closes the cycle
+     * is added when the last product is placed. Partial orderings are ranked by their score minus the potential of the
+     * products they used, half the similarity of each product to its two most similar ones, so the ones that used
+     * products with good neighbours cheaply do not crowd out the rest. If the control asks to stop, the best partial
+     * ordering is completed greedily.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The width of the beam. If limit is less than 0, the width given to the constructor is used
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int r = Math.min(maxsize, matrix.size());
+        int w = limit < 0 ? width : Math.max(1, limit);
+        int k = Math.max(1, Math.min(neighbours, matrix.size() - 1));
+        Beam beam = new Beam(matrix, matrix.topNeighbours(k), r, w, k);
+        while (beam.depth < r && !control.shouldStop()) {
+            ForkJoinPool.commonPool().invoke(new StepTask(beam, true, 0, beam.size));
+            beam.select();
+            ForkJoinPool.commonPool().invoke(new StepTask(beam, false, 0, beam.nextSize));
+            beam.advance();
+        }
+
+        int[] best = new int[r];
+        int chosen = 0;
+        if (beam.depth == r) {
+            for (int s = 1; s < beam.size; s++) {
+                if (beam.score[s] > beam.score[chosen]) chosen = s;
+            }
+        }
+        System.arraycopy(beam.prefix[chosen], 0, best, 0, beam.depth);
+        if (beam.depth < r) {
+            boolean[] used = new boolean[matrix.size()];
+            for (int i = 0; i < beam.depth; i++) used[best[i]] = true;
+            int[][] candidates = matrix.topNeighbours(TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+            for (int i = beam.depth; i < r; i++) {
+                best[i] = mostSimilarP(matrix, candidates[best[i - 1]], best[i - 1], used);
+                used[best[i]] = true;
+            }
+        }
+        control.reportImprovement(matrix.tourScore(best), beam.depth);
+        return best;
+    }
+
+    /**
+     * Beam holds the partial orderings of the current length and of the next one in preallocated arrays.
+     * Each partial ordering is its prefix of product ids, the bitset of the products it used and its score, plus its rank
+     * and a hash of the bitset to find equivalent orderings. Every step expands the current partial orderings into children,
+     * selects the best distinct children and copies them into the next layer, which then becomes the current one.
+     */
+    private static final class Beam {
+        private final SimilarityMatrix matrix;
+        private final int[][] neighbours;
+        private final int r;
+        private final int w;
+        private final int k;
+        private final long[] zobrist;
+        private final double[] potential;
+
+        private int[][] prefix;
+        private long[][] visited;
+        private double[] score;
+        private double[] rank;
+        private long[] hash;
+        private int size;
+        private int depth;
+
+        private int[][] nextPrefix;
+        private long[][] nextVisited;
+        private double[] nextScore;
+        private double[] nextRank;
+        private long[] nextHash;
+        private int nextSize;
+
+        // Children of the partial ordering s are at the indices s * k to s * k + childCount[s] - 1
+        private final int[] childCount;
+        private final int[] childProduct;
+        private final double[] childScore;
+        private final double[] childRank;
+        private final long[] childKey;
+
+        // Open addressing table from child key to the best child with that key, cleared by changing the mark
+        private final long[] tableKey;
+        private final int[] tableChild;
+        private final int[] tableStamp;
+        private int mark;
+
+        // Min-heap of the best distinct children, then the selected children from best to worst
+        private final int[] heap;
+
+        /**
+         * Constructs a Beam with w partial orderings, or one per product if there are fewer, each with a single product.
+         * The first products are spread over the ids, starting with the first product.
+         * @param matrix     The similarity matrix of the products.
+         * @param neighbours The most similar products of every product, sorted by decreasing similarity.
+         * @param r          The length of the complete orderings.
+         * @param w          The width of the beam.
+         * @param k          The maximum number of children of a partial ordering.
+         */
+        Beam(SimilarityMatrix matrix, int[][] neighbours, int r, int w, int k) {
+            this.matrix = matrix;
+            this.neighbours = neighbours;
+            this.r = r;
+            this.w = w;
+            this.k = k;
+            int n = matrix.size();
+            int words = (n + 63) >>> 6;
+            zobrist = new long[n];
+            SplittableRandom rand = new SplittableRandom(n);
+            for (int i = 0; i < n; i++) zobrist[i] = rand.nextLong();
+            potential = new double[n];
+            for (int i = 0; i < n; i++) {
+                int[] best = neighbours[i];
+                if (best.length >= 2) potential[i] = (matrix.get(i, best[0]) + matrix.get(i, best[1])) / 2;
+                else if (best.length == 1) potential[i] = matrix.get(i, best[0]);
+            }
+
+            prefix = new int[w][r];
+            visited = new long[w][words];
+            score = new double[w];
+            rank = new double[w];
+            hash = new long[w];
+            nextPrefix = new int[w][r];
+            nextVisited = new long[w][words];
+            nextScore = new double[w];
+            nextRank = new double[w];
+            nextHash = new long[w];
+
+            childCount = new int[w];
+            childProduct = new int[w * k];
+            childScore = new double[w * k];
+            childRank = new double[w * k];
+            childKey = new long[w * k];
+            int capacity = Integer.highestOneBit(Math.max(1, 2 * w * k - 1)) << 1;
+            tableKey = new long[capacity];
+            tableChild = new int[capacity];
+            tableStamp = new int[capacity];
+            heap = new int[w];
+
+            size = Math.min(w, n);
+            for (int s = 0; s < size; s++) {
+                int first = (int) ((long) s * n / size);
+                prefix[s][0] = first;
+                visited[s][first >>> 6] = 1L << first;
+                hash[s] = zobrist[first];
+                rank[s] = -potential[first];
+            }
+            depth = 1;
+        }
+
+        /**
+         * Writes the children of a partial ordering: its extensions with the most similar unused products of its last
+         * product, or with the most similar unused product if every one of them is used.
+         * @param s The index of the partial ordering.
+         */
+        void expand(int s) {
+            int last = prefix[s][depth - 1];
+            int first = prefix[s][0];
+            boolean closing = depth == r - 1;
+            long[] used = visited[s];
+            int base = s * k;
+            int count = 0;
+            for (int p : neighbours[last]) {
+                if (count == k) break;
+                if ((used[p >>> 6] & (1L << p)) != 0) continue;
+                childProduct[base + count] = p;
+                childScore[base + count] = score[s] + matrix.get(last, p) + (closing ? matrix.get(p, first) : 0);
+                childRank[base + count] = rank[s] + childScore[base + count] - score[s] - potential[p];
+                ++count;
+            }
+            if (count == 0) {
+                int mostSimilar = -1;
+                double maxSimilarity = -1;
+                for (int p = 0; p < matrix.size(); p++) {
+                    if ((used[p >>> 6] & (1L << p)) != 0) continue;
+                    double similarity = matrix.get(last, p);
+                    if (similarity > maxSimilarity) {
+                        maxSimilarity = similarity;
+                        mostSimilar = p;
+                    }
+                }
+                childProduct[base] = mostSimilar;
+                childScore[base] = score[s] + maxSimilarity + (closing ? matrix.get(mostSimilar, first) : 0);
+                childRank[base] = rank[s] + childScore[base] - score[s] - potential[mostSimilar];
+                count = 1;
+            }
+            childCount[s] = count;
+        }
+
+        /**
+         * Selects the w children with the best rank, keeping only the best child of each set of used products and last product.
+         * Ties are broken by the index of the child, so the selection does not depend on the scheduling of expand.
+         */
+        void select() {
+            ++mark;
+            int mask = tableKey.length - 1;
+            int heapSize = 0;
+            for (int s = 0; s < size; s++) {
+                for (int c = s * k; c < s * k + childCount[s]; c++) {
+                    int p = childProduct[c];
+                    long key = (hash[s] ^ zobrist[p]) * 0x9E3779B97F4A7C15L + p;
+                    childKey[c] = key;
+                    int slot = (int) (key ^ (key >>> 32)) & mask;
+                    while (tableStamp[slot] == mark && tableKey[slot] != key) slot = (slot + 1) & mask;
+                    if (tableStamp[slot] != mark) {
+                        tableStamp[slot] = mark;
+                        tableKey[slot] = key;
+                        tableChild[slot] = c;
+                    }
+                    else if (childRank[c] > childRank[tableChild[slot]]) tableChild[slot] = c;
+                }
+            }
+            for (int slot = 0; slot < tableKey.length; slot++) {
+                if (tableStamp[slot] != mark) continue;
+                int c = tableChild[slot];
+                if (heapSize < w) {
+                    heap[heapSize++] = c;
+                    siftUp(heapSize - 1);
+                }
+                else if (worse(heap[0], c)) {
+                    heap[0] = c;
+                    siftDown(0, heapSize);
+                }
+            }
+            // Heap sort, leaving the best child first
+            for (int end = heapSize - 1; end > 0; end--) {
+                int aux = heap[0];
+                heap[0] = heap[end];
+                heap[end] = aux;
+                siftDown(0, end);
+            }
+            nextSize = heapSize;
+        }
+
+        /**
+         * Copies a selected child into the next layer.
+         * @param slot The position of the child in the selection, which is its index in the next layer.
+         */
+        void copy(int slot) {
+            int c = heap[slot];
+            int parent = c / k;
+            int p = childProduct[c];
+            System.arraycopy(prefix[parent], 0, nextPrefix[slot], 0, depth);
+            nextPrefix[slot][depth] = p;
+            System.arraycopy(visited[parent], 0, nextVisited[slot], 0, visited[parent].length);
+            nextVisited[slot][p >>> 6] |= 1L << p;
+            nextScore[slot] = childScore[c];
+            nextRank[slot] = childRank[c];
+            nextHash[slot] = hash[parent] ^ zobrist[p];
+        }
+
+        /**
+         * Makes the next layer the current one.
+         */
+        void advance() {
+            int[][] auxPrefix = prefix;
+            prefix = nextPrefix;
+            nextPrefix = auxPrefix;
+            long[][] auxVisited = visited;
+            visited = nextVisited;
+            nextVisited = auxVisited;
+            double[] auxScore = score;
+            score = nextScore;
+            nextScore = auxScore;
+            auxScore = rank;
+            rank = nextRank;
+            nextRank = auxScore;
+            long[] auxHash = hash;
+            hash = nextHash;
+            nextHash = auxHash;
+            size = nextSize;
+            ++depth;
+        }
+
+        /**
+         * Indicates if a child is worse than another one: lower rank, or equal rank and higher index.
+         * @param x The first child.
+         * @param y The second child.
+         * @return True if x is worse than y.
+         */
+        private boolean worse(int x, int y) {
+            return childRank[x] < childRank[y] || (childRank[x] == childRank[y] && x > y);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(heap[i], heap[parent])) break;
+                int aux = heap[i];
+                heap[i] = heap[parent];
+                heap[parent] = aux;
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= end) break;
+                if (child + 1 < end && worse(heap[child + 1], heap[child])) ++child;
+                if (!worse(heap[child], heap[i])) break;
+                int aux = heap[i];
+                heap[i] = heap[child];
+                heap[child] = aux;
+                i = child;
+            }
+        }
+    }
+
+    /**
+     * StepTask expands or copies a range of partial orderings of the beam, splitting it in halves until it is small.
+     * Each partial ordering writes only its own children or its own slot of the next layer, so the tasks do not synchronize.
+     */
+    @SuppressWarnings("serial")
+    private static class StepTask extends RecursiveAction {
+        private final Beam beam;
+        private final boolean expand;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates the task of a range of the beam.
+         * @param beam   The beam.
+         * @param expand True to expand the partial orderings of the range, false to copy the selected children of the range.
+         * @param from   The first index of the range.
+         * @param to     The index after the last one of the range.
+         */
+        StepTask(Beam beam, boolean expand, int from, int to) {
+            this.beam = beam;
+            this.expand = expand;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                for (int i = from; i < to; i++) {
+                    if (expand) beam.expand(i);
+                    else beam.copy(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StepTask(beam, expand, from, middle), new StepTask(beam, expand, middle, to));
+        }
+    }
+}
@@ -1,28 +1,78 @@
 package org.domain.algorithms;
 
-import org.domain.exceptions.DistributionException;
-
-import org.domain.classes.Product;
-import org.domain.classes.ProductList;
-import org.domain.types.Pair;
-
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * BruteForceAlgorithm is an extension of AbstractAlgorithm that arranges a
- * Productlist by evaluating all possible combinations to maximize their total similarity.
+ * Productlist by exploring all possible orderings to maximize their total similarity.
+ * The orderings are enumerated depth-first without being stored, and partial orderings whose
+ * upper bound can not beat the best ordering found so far are pruned (branch and bound).
+ * The score of an ordering does not change when it is rotated or read backwards, so only its canonical form is
+ * explored: the first product is the smallest id of the ordering and the second one is smaller than the last one.
+ * The positions are filled in the order first, second, last and then the ones in between, so the reflection is
+ * discarded at the third level of the tree, and only (n - 1)! / 2 of the n! orderings of all the products are explored.
+ * When every product is placed and only a few are left, the remaining orderings are enumerated with
+ * Heap's algorithm, which moves from one ordering to the next with a single swap, so the score is updated in O(1)
+ * and no ordering is allocated.
+ * In parallel mode the search tree is split by prefixes over a ForkJoinPool, and the workers share
+ * the best score found through an atomic so the pruning tightens across threads.
  * This approach ensures finding the optimal solution but may be computationally expensive
  * for larger inputs due to its exhaustive nature.
  * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
  * @version 1.0
  */
 public class BruteForceAlgorithm extends AbstractAlgorithm{
+    /**
+     * Number of subtrees created per worker in parallel mode, so that the load stays balanced.
+     */
+    private static final int TASKS_PER_WORKER = 64;
+
+    /**
+     * Margin under the shared best score before a worker prunes a subtree, it absorbs rounding differences.
+     */
+    private static final double SHARED_TOLERANCE = 1e-9;
+
+    /**
+     * Number of visited nodes between two checks of the SolverControl.
+     */
+    private static final int CONTROL_INTERVAL = 4096;
+
+    /**
+     * Number of products left below which the remaining orderings are enumerated with Heap's algorithm instead of
+     * the depth-first search. Near the leaves the bounds rarely prune, and Heap's algorithm visits each ordering
+     * with a single swap scored in O(1). Longer tails visit more orderings than the bounds let through.
+     */
+    private static final int HEAP_TAIL = 3;
+
+    /**
+     * Margin under the best score within which the score of an ordering enumerated by Heap's algorithm, which is
+     * updated incrementally, is recomputed exactly before comparing it with the best one.
+     */
+    private static final double NEAR_TOLERANCE = 1e-9;
+
     private String name = "Brute Force";
 
+    /**
+     * True if the search tree is explored in parallel.
+     */
+    private final boolean parallel;
+
+    /**
+     * True if the last search explored the whole tree, so the returned ordering is optimal.
+     */
+    private boolean optimal;
+
+    /**
+     * Number of nodes of the search tree visited by the last search.
+     */
+    private long exploredNodes;
+
     /**
      * Retrieves the name of the algorithm.
      *
@@ -44,88 +94,543 @@ public class BruteForceAlgorithm extends AbstractAlgorithm{
      */
     public BruteForceAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
         super(similarityMatrix);
+        this.parallel = false;
     }
 
     /**
-     * Arranges a given product list using a brute force approach.
-     * The method generates all possible combinations of products,
-     * evaluates each combination's total value, and selects the combination with the highest value.
+     * Constructs a new BruteForceAlgorithm with a compiled similarity matrix.
      *
-     * @param list        The product list to be arranged.
-     * @param xsize       Represents the number of columns of the distribution
-     * @param ysize       Represents the number of rows of the distribution
-     * @param limit       Serves to limit the depth we want to search for the solution.If limit is less than 0, the code ignores the limit
-     * @param coordinates Contains the coordinates of the products in the distribution.
-     * @return A matrix that represent the arranged distribution of the list.
-     * @throws DistributionException If the ProductList is empty.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public BruteForceAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, false);
+    }
+
+    /**
+     * Constructs a new BruteForceAlgorithm with a compiled similarity matrix.
+     *
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param parallel         True to explore the search tree in parallel using all the cores.
+     */
+    public BruteForceAlgorithm(SimilarityMatrix similarityMatrix, boolean parallel) {
+        super(similarityMatrix);
+        this.parallel = parallel;
+        if (parallel) name = "Parallel Brute Force";
+    }
+
+    /**
+     * Indicates if the last arrangement was proven to be optimal.
+     * It is false when the search was stopped by the limit or the SolverControl before exploring the whole tree.
+     *
+     * @return True if the last ordering returned is optimal.
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Retrieves the number of nodes of the search tree visited by the last arrangement.
+     *
+     * @return The number of visited nodes.
+     */
+    public long getExploredNodes() {
+        return exploredNodes;
+    }
+
+    /**
+     * Arranges the products using a branch and bound approach.
+     * The search starts with the greedy ordering as the best solution and explores the orderings
+     * depth-first, keeping only the best one found. The returned ordering is always in canonical form, and among
+     * orderings with the same score found by the search the first one in the order of the search is kept,
+     * so the parallel search returns the same ordering as the serial one.
+     * The node limit can only be honoured by the serial search, so with a limit the search runs serially.
+     * If the SolverControl stops the search, the best ordering found so far is returned.
+     *
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Maximum number of nodes of the search tree to visit. If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the best order found.
      */
     @Override
-    public ArrayList<ArrayList<Product>> orderProductList(ProductList list, int xsize, int ysize, int limit, HashMap<String, Pair<Integer, Integer>> coordinates) {
-        List<Product> allP = new ArrayList<>(list.getProducts().stream().toList());
-        if (allP.isEmpty()) throw new DistributionException("Empty list");
-        int maxsize = xsize*ysize;
-        List<List<Product>> combinations = generateCombinations(allP, maxsize, limit);
-        List<Product> best = new ArrayList<>();
-        double max = 0;
-
-        for(List<Product> lp : combinations) {
-            double sum = calculaSum(lp);
-            if (sum > max) {
-                max = sum;
-                best = lp;
-            }
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        Bounds bounds = new Bounds(matrix, Math.min(maxsize, matrix.size()));
+        int[] greedy = greedyOrder(matrix, bounds.r, 0);
+        TourMoves.canonicalize(greedy);
+        double greedyScore = matrix.tourScore(greedy);
+        control.reportImprovement(greedyScore, 0);
+
+        Search search;
+        if (parallel && limit < 0) {
+            AtomicLong shared = new AtomicLong(Double.doubleToLongBits(greedyScore));
+            int splitDepth = splitDepth(bounds, ForkJoinPool.getCommonPoolParallelism());
+            search = ForkJoinPool.commonPool().invoke(new PrefixTask(bounds, control, greedy, greedyScore, shared, new int[bounds.r], 0, 0, splitDepth));
+        }
+        else {
+            search = new Search(bounds, control, greedy, greedyScore, null, limit);
+            search.from(new int[bounds.r], 0, 0);
+        }
+        optimal = !search.stopped;
+        exploredNodes = search.nodes;
+        return search.best;
+    }
+
+    /**
+     * Calculates the depth until which the search tree is split into parallel tasks.
+     *
+     * @param bounds      The bounds of the search.
+     * @param parallelism The number of workers.
+     * @return The depth of the prefixes solved by each task.
+     */
+    private static int splitDepth(Bounds bounds, int parallelism) {
+        long tasks = 1;
+        int depth = 0;
+        while (depth < bounds.r - 1 && tasks < (long) TASKS_PER_WORKER * parallelism) {
+            tasks *= bounds.n - depth;
+            ++depth;
         }
+        return depth;
+    }
 
-        return  adaptToShelf(best, xsize, ysize, coordinates);
+    /**
+     * Decides which of two searches found the better ordering.
+     * The higher score wins. On a tie an ordering found by the search beats the initial one,
+     * and between two found orderings the first one in the order of the serial search wins.
+     *
+     * @param a The first search.
+     * @param b The second search, which covers a later part of the tree.
+     * @return The search with the better ordering.
+     */
+    private static Search better(Search a, Search b) {
+        if (b.bestScore > a.bestScore) return b;
+        if (b.bestScore < a.bestScore || b.initial) return a;
+        if (a.initial || a.bounds.compare(b.best, a.best) < 0) return b;
+        return a;
     }
 
     /**
-     * Generates all possible combinations of products of size `r`.
-     * This method uses a helper function to recursively generate combinations.
-     * @param products The list of products to combine.
-     * @param r The desired size of each combination.
-     * @param limit A integer used to limit the number of combinations that the code generates. If limit is < 0, the code ignores the limit.
-     * @return A list of all possible combinations of products of size `r`.
+     * Precomputed data shared by all the searches over the same products.
      */
-    private List<List<Product>> generateCombinations(List<Product> products, int r, int limit) {
-        HashSet<Product> used = new HashSet<>();
-        List<List<Product>> combinations = new ArrayList<>();
-        combineHelper(products, r, 0, new ArrayList<>(), combinations, used, limit);
-        return combinations;
+    private static class Bounds {
+        private final SimilarityMatrix matrix;
+        private final int n;
+        private final int r;
+
+        /**
+         * Sum of the two highest similarities of each product.
+         */
+        private final double[] top2;
+
+        /**
+         * Highest similarity of each product.
+         */
+        private final double[] maxEdge;
+
+        /**
+         * Product ids sorted by decreasing top2.
+         */
+        private final int[] byTop2;
+
+        /**
+         * Position filled at each depth of the search: first, second, last and then the ones in between.
+         */
+        private final int[] slot;
+
+        /**
+         * Depth at which each position is filled, the inverse of slot.
+         */
+        private final int[] depthOf;
+
+        /**
+         * Computes the bounds of each product.
+         *
+         * @param matrix The similarity matrix of the products.
+         * @param r      The number of products of each ordering.
+         */
+        Bounds(SimilarityMatrix matrix, int r) {
+            this.matrix = matrix;
+            this.n = matrix.size();
+            this.r = r;
+            this.top2 = new double[n];
+            this.maxEdge = new double[n];
+            for (int u = 0; u < n; u++) {
+                double first = 0;
+                double second = 0;
+                for (int v = 0; v < n; v++) {
+                    if (u == v) continue;
+                    double s = matrix.get(u, v);
+                    if (s > first) {
+                        second = first;
+                        first = s;
+                    }
+                    else if (s > second) second = s;
+                }
+                top2[u] = first + second;
+                maxEdge[u] = first;
+            }
+            Integer[] sorted = new Integer[n];
+            for (int u = 0; u < n; u++) sorted[u] = u;
+            Arrays.sort(sorted, (a, b) -> Double.compare(top2[b], top2[a]));
+            this.byTop2 = new int[n];
+            for (int u = 0; u < n; u++) byTop2[u] = sorted[u];
+
+            this.slot = new int[r];
+            this.depthOf = new int[r];
+            for (int d = 0; d < r; d++) slot[d] = r < 3 || d < 2 ? d : d == 2 ? r - 1 : d - 1;
+            for (int d = 0; d < r; d++) depthOf[slot[d]] = d;
+        }
+
+        /**
+         * Decides if a product can be placed at a depth of a canonical ordering.
+         * The first product must leave enough greater ids to complete the ordering, every other one must be greater
+         * than the first one, and the last one must be greater than the second one.
+         *
+         * @param path  The partial ordering, indexed by position.
+         * @param depth The number of products already placed.
+         * @param v     The product.
+         * @return True if the product can be placed.
+         */
+        boolean allowed(int[] path, int depth, int v) {
+            if (depth == 0) return v <= n - r;
+            if (v < path[0]) return false;
+            return depth != 2 || r < 3 || v > path[1];
+        }
+
+        /**
+         * Calculates the score of a partial ordering after placing a product at the position of a depth, adding the
+         * similarities with its neighbours that are already placed. With two products both neighbours are the same one,
+         * as in the cyclic score. The similarities are always added in the same order,
+         * so equal orderings get exactly the same score.
+         *
+         * @param path  The partial ordering, indexed by position.
+         * @param depth The number of products already placed.
+         * @param v     The product placed.
+         * @param score The score of the placed products.
+         * @return The score with the new product.
+         */
+        double place(int[] path, int depth, int v, double score) {
+            int p = slot[depth];
+            int prev = p == 0 ? r - 1 : p - 1;
+            int next = p == r - 1 ? 0 : p + 1;
+            if (depthOf[prev] < depth) score += matrix.get(path[prev], v);
+            if (depthOf[next] < depth) score += matrix.get(v, path[next]);
+            return score;
+        }
+
+        /**
+         * Compares two complete orderings in the order in which the search fills their positions.
+         *
+         * @param a The first ordering.
+         * @param b The second ordering.
+         * @return A negative number if a is found first, zero if they are equal and a positive number otherwise.
+         */
+        int compare(int[] a, int[] b) {
+            for (int p : slot) {
+                if (a[p] != b[p]) return Integer.compare(a[p], b[p]);
+            }
+            return 0;
+        }
+
+        /**
+         * Calculates an upper bound of the score of any ordering that extends a partial ordering.
+         * Each remaining edge joins two products, and the products still to be placed are joined by two of them,
+         * so the remaining score is at most half the sum of the two best edges of each of the best products left
+         * plus the best edges of the two ends of the partial ordering.
+         * The placed positions are contiguous in the cycle: from the last one, if it is placed, to the highest one.
+         *
+         * @param path  The partial ordering, indexed by position.
+         * @param used  Marks the products of the partial ordering.
+         * @param depth The number of products already placed, at least one.
+         * @param score The sum of similarities between the neighbouring placed products.
+         * @return An upper bound of the score of the complete orderings.
+         */
+        double upperBound(int[] path, boolean[] used, int depth, double score) {
+            int left = r - depth;
+            double remaining = depth < 3 || r < 3
+                    ? maxEdge[path[0]] + maxEdge[path[depth - 1]]
+                    : maxEdge[path[r - 1]] + maxEdge[path[depth - 2]];
+            for (int i = 0; i < n && left > 0; i++) {
+                int u = byTop2[i];
+                if (used[u]) continue;
+                remaining += top2[u];
+                --left;
+            }
+            return score + remaining / 2;
+        }
     }
 
     /**
-     * Helper method to recursively generate combinations of products.
-     * This method builds combinations by iterating through the product list and ensuring
-     * that no product is reused in a single combination.
-     * @param products The list of available products.
-     * @param r The desired size of each combination.
-     * @param start The current starting index for combination generation.
-     * @param currentCombination The current combination being built.
-     * @param combinations The list of all generated combinations.
-     * @param used A set to track products already included in the current combination.
-     * @param limit Integer used to limit the number of combinations that the code generates. If limit is < 0, the code ignores the limit
+     * Depth-first branch and bound search over the orderings of `r` products that extend a prefix.
      */
-    private static void combineHelper(List<Product> products, int r, int start, List<Product> currentCombination, List<List<Product>> combinations, HashSet<Product> used, int limit) {
-        if (currentCombination.size() == Math.min(r, products.size())) {
-            combinations.add(new ArrayList<>(currentCombination));
-            return;
+    private static class Search {
+        private final Bounds bounds;
+        private final SimilarityMatrix matrix;
+        private final SolverControl control;
+        private final AtomicLong shared;
+        private final long limit;
+
+        private final int[] path;
+        private final boolean[] used;
+
+        /**
+         * Counters of Heap's algorithm, reused by every enumeration of the last products.
+         */
+        private final int[] counters;
+
+        private int[] best;
+        private double bestScore;
+
+        /**
+         * True while the best ordering is the initial one, which loses the ties with any ordering found by the search.
+         */
+        private boolean initial = true;
+        private long nodes;
+        private boolean stopped;
+
+        /**
+         * Prepares a search.
+         *
+         * @param bounds    The bounds of the search.
+         * @param control   The control of the run.
+         * @param incumbent The initial best ordering.
+         * @param score     The score of the initial best ordering.
+         * @param shared    The bits of the best score found by any worker, or null in a serial search.
+         * @param limit     Maximum number of nodes to visit, if it is less than 0 there is no limit.
+         */
+        Search(Bounds bounds, SolverControl control, int[] incumbent, double score, AtomicLong shared, long limit) {
+            this.bounds = bounds;
+            this.matrix = bounds.matrix;
+            this.control = control;
+            this.shared = shared;
+            this.limit = limit;
+            this.path = new int[bounds.r];
+            this.used = new boolean[bounds.n];
+            this.counters = new int[HEAP_TAIL + 1];
+            this.best = incumbent;
+            this.bestScore = score;
         }
 
-        if (limit > 0 && combinations.size() >= limit) {
-            return;
+        /**
+         * Explores every canonical ordering that extends the given partial ordering.
+         *
+         * @param prefix The partial ordering, indexed by position.
+         * @param depth  The number of products already placed.
+         * @param score  The sum of similarities between the neighbouring placed products.
+         */
+        void from(int[] prefix, int depth, double score) {
+            for (int d = 0; d < depth; d++) {
+                int p = bounds.slot[d];
+                path[p] = prefix[p];
+                used[prefix[p]] = true;
+            }
+            search(depth, score);
+        }
+
+        /**
+         * Extends the current partial ordering with every unused product allowed at the next position.
+         *
+         * @param depth The number of products already placed.
+         * @param score The sum of similarities between the neighbouring placed products.
+         */
+        private void search(int depth, double score) {
+            if (stopped) return;
+            if ((limit >= 0 && nodes >= limit) || (nodes % CONTROL_INTERVAL == 0 && control.shouldStop())) {
+                stopped = true;
+                return;
+            }
+            ++nodes;
+            int r = bounds.r;
+            if (depth == r) {
+                offer(score);
+                return;
+            }
+            if (depth > 0) {
+                double bound = bounds.upperBound(path, used, depth, score);
+                if (bound <= bestScore) return;
+                // The scores are not negative, so the order of their bits is the order of the values
+                if (shared != null && bound < Double.longBitsToDouble(shared.get()) - SHARED_TOLERANCE) return;
+                if (r == bounds.n && depth >= 3 && r - depth >= 2 && r - depth <= HEAP_TAIL) {
+                    enumerateTail(depth, score);
+                    return;
+                }
+            }
+
+            int p = bounds.slot[depth];
+            for (int v = 0; v < bounds.n; v++) {
+                if (used[v] || !bounds.allowed(path, depth, v)) continue;
+                path[p] = v;
+                used[v] = true;
+                search(depth + 1, bounds.place(path, depth, v, score));
+                used[v] = false;
+            }
         }
 
-        for (int i = 0; i < products.size(); i++) {
-            if (!used.contains(products.get(i))) {
-                currentCombination.add(products.get(i));
-                used.add(products.get(i));
-                combineHelper(products, r, start + 1, currentCombination, combinations, used, limit);
-                used.remove(products.get(i));
-                currentCombination.removeLast();
+        /**
+         * Enumerates every ordering of the products left after the current partial ordering with Heap's algorithm.
+         * The first, second and last positions are already placed, so the products left fill the positions between
+         * the highest placed one and the last one, and every ordering of them is canonical.
+         * Consecutive orderings differ in a single swap, so the cyclic score is updated in O(1). The updated score
+         * accumulates rounding errors, so orderings close to the best one are scored again from scratch.
+         *
+         * @param depth The number of products already placed, at least three, the rest of the products are unused.
+         * @param score The sum of similarities between the neighbouring placed products.
+         */
+        private void enumerateTail(int depth, double score) {
+            int r = bounds.r;
+            int k = r - depth;
+            int start = depth - 1;
+            int pos = start;
+            for (int v = 0; v < bounds.n; v++) {
+                if (!used[v]) path[pos++] = v;
+            }
+            double total = score;
+            for (int i = start; i < r; i++) total += matrix.get(path[i - 1], path[i]);
+            visit(total);
+
+            for (int i = 0; i < k; i++) counters[i] = 0;
+            int i = 1;
+            while (i < k) {
+                if (counters[i] < i) {
+                    int a = start + (i % 2 == 0 ? 0 : counters[i]);
+                    int b = start + i;
+                    total += TourMoves.swapDelta(matrix, path, a, b);
+                    TourMoves.swap(path, a, b);
+                    if ((limit >= 0 && nodes >= limit) || (nodes % CONTROL_INTERVAL == 0 && control.shouldStop())) {
+                        stopped = true;
+                        return;
+                    }
+                    ++nodes;
+                    visit(total);
+                    ++counters[i];
+                    i = 1;
+                }
+                else {
+                    counters[i] = 0;
+                    ++i;
+                }
             }
+        }
+
+        /**
+         * Offers a complete ordering enumerated by Heap's algorithm, recomputing its score if it is close to the best one.
+         *
+         * @param approximate The incrementally updated score of the ordering.
+         */
+        private void visit(double approximate) {
+            if (approximate < bestScore - NEAR_TOLERANCE) return;
+            offer(exactScore());
+        }
+
+        /**
+         * Calculates the cyclic score of the current ordering adding the similarities in the same order as the depth-first
+         * search, so equal orderings always get exactly the same score.
+         *
+         * @return The score of the current ordering.
+         */
+        private double exactScore() {
+            double total = 0;
+            for (int d = 1; d < bounds.r; d++) total = bounds.place(path, d, path[bounds.slot[d]], total);
+            return total;
+        }
 
+        /**
+         * Keeps the current complete ordering if it beats the best one. On a tie the ordering found first by the serial
+         * search is kept, and any ordering beats the initial one.
+         *
+         * @param total The score of the current ordering.
+         */
+        private void offer(double total) {
+            if (total < bestScore) return;
+            if (total == bestScore && !initial && bounds.compare(path, best) >= 0) return;
+            if (initial) best = new int[path.length];
+            System.arraycopy(path, 0, best, 0, path.length);
+            initial = false;
+            if (total > bestScore) {
+                bestScore = total;
+                if (shared != null) shared.accumulateAndGet(Double.doubleToLongBits(total), Math::max);
+                control.reportImprovement(total, nodes);
+            }
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Fork/join task that splits the search tree by prefixes until the split depth,
+     * and searches each subtree below it serially.
+     */
+    @SuppressWarnings("serial")
+    private static class PrefixTask extends RecursiveTask<Search> {
+        private final Bounds bounds;
+        private final SolverControl control;
+        private final int[] incumbent;
+        private final double incumbentScore;
+        private final AtomicLong shared;
+        private final int[] prefix;
+        private final int depth;
+        private final double score;
+        private final int splitDepth;
+
+        /**
+         * Creates the task of a prefix.
+         *
+         * @param bounds         The bounds of the search.
+         * @param control        The control of the run.
+         * @param incumbent      The initial best ordering.
+         * @param incumbentScore The score of the initial best ordering.
+         * @param shared         The bits of the best score found by any worker.
+         * @param prefix         The partial ordering, indexed by position.
+         * @param depth          The number of products already placed.
+         * @param score          The sum of similarities between the neighbouring placed products.
+         * @param splitDepth     The length of the prefixes searched serially.
+         */
+        PrefixTask(Bounds bounds, SolverControl control, int[] incumbent, double incumbentScore, AtomicLong shared, int[] prefix, int depth, double score, int splitDepth) {
+            this.bounds = bounds;
+            this.control = control;
+            this.incumbent = incumbent;
+            this.incumbentScore = incumbentScore;
+            this.shared = shared;
+            this.prefix = prefix;
+            this.depth = depth;
+            this.score = score;
+            this.splitDepth = splitDepth;
+        }
+
+        /**
+         * Searches the subtree of the prefix, forking one task per child while the prefix is shorter than the split depth.
+         *
+         * @return The search with the best ordering of the subtree.
+         */
+        @Override
+        protected Search compute() {
+            if (depth >= splitDepth) {
+                Search search = new Search(bounds, control, incumbent, incumbentScore, shared, -1);
+                search.from(prefix, depth, score);
+                return search;
+            }
+
+            boolean[] used = new boolean[bounds.n];
+            for (int d = 0; d < depth; d++) used[prefix[bounds.slot[d]]] = true;
+            List<PrefixTask> children = new ArrayList<>();
+            for (int v = 0; v < bounds.n; v++) {
+                if (used[v] || !bounds.allowed(prefix, depth, v)) continue;
+                int[] child = prefix.clone();
+                child[bounds.slot[depth]] = v;
+                double childScore = bounds.place(prefix, depth, v, score);
+                children.add(new PrefixTask(bounds, control, incumbent, incumbentScore, shared, child, depth + 1, childScore, splitDepth));
+            }
+            invokeAll(children);
+
+            // Children are merged in the order of the serial search. A prefix may have no canonical extension
+            Search result = new Search(bounds, control, incumbent, incumbentScore, shared, -1);
+            long nodes = 1;
+            boolean stopped = false;
+            for (PrefixTask child : children) {
+                Search search = child.join();
+                nodes += search.nodes;
+                stopped |= search.stopped;
+                result = better(result, search);
+            }
+            result.nodes = nodes;
+            result.stopped = stopped;
+            return result;
+        }
+    }
+}
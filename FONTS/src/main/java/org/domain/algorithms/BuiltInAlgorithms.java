@@ -0,0 +1,50 @@
+package org.domain.algorithms;
+
+import org.domain.types.AlgorithmLimit;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * BuiltInAlgorithms provides the algorithms that ship with the application to the AlgorithmRegistry.
+ * Their ids are the ones used by the ShelfManager before the registry existed, so stored choices keep their meaning.
+ * Only Grid Local Search declares the grid objective, because it is the only one that optimizes the grid itself.
+ * The others can still arrange a grid when chosen explicitly, since AbstractAlgorithm folds their ordering into it and
+ * improves it with GridLocalSearch, but they are not exact for it, so the automatic selection does not pick them.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class BuiltInAlgorithms implements AlgorithmProvider {
+    private static final Set<Objective> SEQUENCE = EnumSet.of(Objective.SEQUENCE);
+    private static final Set<Objective> ALL = EnumSet.allOf(Objective.class);
+
+    /**
+     * Retrieves the built-in algorithms, from the fastest to the slowest.
+     * The exact algorithms come first with the sizes they solve in about a second, then the heuristics.
+     * @return The descriptors of the built-in algorithms.
+     */
+    @Override
+    public List<AlgorithmDescriptor> getAlgorithms() {
+        return List.of(
+                new AlgorithmDescriptor(1, "Brute Force", true, 10, SEQUENCE, AlgorithmLimit.SEARCH_NODES, BruteForceAlgorithm::new),
+                new AlgorithmDescriptor(4, "Parallel Brute Force", true, 12, SEQUENCE, AlgorithmLimit.SEARCH_NODES,
+                        matrix -> new BruteForceAlgorithm(matrix, true)),
+                new AlgorithmDescriptor(3, "Held-Karp", true, 16, SEQUENCE, AlgorithmLimit.NONE, HeldKarpAlgorithm::new),
+                new AlgorithmDescriptor(6, "2-opt", false, Integer.MAX_VALUE, SEQUENCE, TwoOptAlgorithm::new),
+                new AlgorithmDescriptor(8, "Grid Local Search", false, Integer.MAX_VALUE, ALL, GridLocalSearchAlgorithm::new),
+                new AlgorithmDescriptor(2, "Hill Climbing", false, 200, SEQUENCE, AlgorithmLimit.NEIGHBOURS, HillClimbingAlgorithm::new),
+                new AlgorithmDescriptor(7, "Multi-start Hill Climbing", false, 200, SEQUENCE, AlgorithmLimit.NEIGHBOURS,
+                        matrix -> new HillClimbingAlgorithm(matrix, HillClimbingAlgorithm.DEFAULT_STARTS, System.nanoTime(), -1)),
+                new AlgorithmDescriptor(12, "Tabu Search", false, Integer.MAX_VALUE, SEQUENCE, TabuSearchAlgorithm::new),
+                new AlgorithmDescriptor(13, "Iterated Local Search", false, Integer.MAX_VALUE, SEQUENCE, IteratedLocalSearchAlgorithm::new),
+                new AlgorithmDescriptor(14, "Beam Search", false, Integer.MAX_VALUE, SEQUENCE, BeamSearchAlgorithm::new),
+                new AlgorithmDescriptor(15, "Greedy Edge", false, Integer.MAX_VALUE, SEQUENCE, GreedyEdgeAlgorithm::new),
+                new AlgorithmDescriptor(16, "Parallel Tempering", false, Integer.MAX_VALUE, SEQUENCE, ParallelTemperingAlgorithm::new),
+                new AlgorithmDescriptor(5, "Simulated Annealing", false, Integer.MAX_VALUE, SEQUENCE, SimulatedAnnealingAlgorithm::new),
+                new AlgorithmDescriptor(9, "Genetic Algorithm", false, Integer.MAX_VALUE, SEQUENCE, GeneticAlgorithm::new),
+                new AlgorithmDescriptor(10, "Portfolio", false, Integer.MAX_VALUE, SEQUENCE, PortfolioAlgorithm::new),
+                new AlgorithmDescriptor(11, "Decomposition", false, Integer.MAX_VALUE, SEQUENCE, DecompositionAlgorithm::new)
+        );
+    }
+}
@@ -0,0 +1,376 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.classes.ProductList;
+import org.domain.exceptions.DistributionException;
+import org.domain.types.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * DecompositionAlgorithm is an extension of AbstractAlgorithm that arranges catalog-sized Productlists by splitting them
+ * into clusters of similar products, ordering every cluster concurrently and stitching the orderings together.
+ * The clusters are grown from the most similar pairs of the candidate lists, first between products of the same
+ * category and then between any products, without exceeding the cluster size. Every cluster is ordered by its own
+ * algorithm on its own thread, cut at its weakest edge and treated as a block with two ends. The order and orientation
+ * of the blocks are then improved with 2-opt moves over the blocks, and the products at the seams are improved with
+ * 2-opt moves over the whole ordering.
+ * Lists that fit in a single cluster are ordered directly by the algorithm of the clusters.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class DecompositionAlgorithm extends AbstractAlgorithm {
+    /**
+     * Maximum number of products of a cluster used when none is given.
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 250;
+
+    private String name = "Decomposition";
+
+    private final int clusterSize;
+    private final int threads;
+    private final Function<SimilarityMatrix, AbstractAlgorithm> solver;
+
+    /**
+     * Category of every product of the last list arranged, by name.
+     */
+    private Map<String, String> categories = new HashMap<>();
+
+    /**
+     * Constructs a DecompositionAlgorithm with a similarity matrix.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public DecompositionAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.clusterSize = DEFAULT_CLUSTER_SIZE;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.solver = TwoOptAlgorithm::new;
+    }
+
+    /**
+     * Constructs a DecompositionAlgorithm with a compiled similarity matrix that orders the clusters with 2-opt
+     * on as many threads as processors.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public DecompositionAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, DEFAULT_CLUSTER_SIZE, Runtime.getRuntime().availableProcessors(), TwoOptAlgorithm::new);
+    }
+
+    /**
+     * Constructs a DecompositionAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param clusterSize      The maximum number of products of a cluster, at least 2.
+     * @param threads          The number of clusters ordered at the same time, at least 1.
+     * @param solver           Creates the algorithm that orders a cluster from its similarity matrix.
+     */
+    public DecompositionAlgorithm(SimilarityMatrix similarityMatrix, int clusterSize, int threads, Function<SimilarityMatrix, AbstractAlgorithm> solver) {
+        super(similarityMatrix);
+        this.clusterSize = Math.max(2, clusterSize);
+        this.threads = Math.max(1, threads);
+        this.solver = solver;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Decomposition").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the categories used to cluster the products.
+     * @param categories The category of every product, by name.
+     */
+    public void setCategories(Map<String, String> categories) {
+        this.categories = new HashMap<>(categories);
+    }
+
+    /**
+     * Arranges a given product list, clustering its products by category before by similarity.
+     *
+     * @param list        The product list to be arranged.
+     * @param xsize       Represents the number of columns of the distribution
+     * @param ysize       Represents the number of rows of the distribution
+     * @param limit       The limit of the algorithm of every cluster. If limit is less than 0, the code ignores the limit
+     * @param coordinates Contains the coordinates of the products in the distribution.
+     * @return A matrix that represent the arranged distribution of the list.
+     * @throws DistributionException If the ProductList is empty or the size of the distribution is not valid.
+     */
+    @Override
+    public ArrayList<ArrayList<Product>> orderProductList(ProductList list, int xsize, int ysize, int limit, HashMap<String, Pair<Integer, Integer>> coordinates) {
+        Map<String, String> categories = new HashMap<>();
+        for (Product product : list.getProducts()) categories.put(product.getName(), product.getCategory());
+        setCategories(categories);
+        return super.orderProductList(list, xsize, ysize, limit, coordinates);
+    }
+
+    /**
+     * Orders the clusters concurrently and stitches them into a single ordering.
+     * If the ordering does not fit in the distribution, the consecutive products with the highest cyclic score are kept,
+     * and the products at the new closing edge are improved together with the seams.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The limit of the algorithm of every cluster. If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the order found.
+     * @throws DistributionException If the algorithm of a cluster failed or the run was interrupted.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int n = matrix.size();
+        if (n <= clusterSize) {
+            AbstractAlgorithm algorithm = solver.apply(matrix);
+            algorithm.setControl(control);
+            return algorithm.order(matrix, maxsize, limit);
+        }
+        int[][] paths = solveClusters(matrix, cluster(matrix), limit);
+        int[] tour = stitch(matrix, paths);
+        boolean[] seam = new boolean[n];
+        if (tour.length > maxsize) {
+            // Keep the consecutive products with the highest score, whose ends are joined by a new edge
+            tour = GreedyEdgeAlgorithm.bestWindow(matrix, tour, Math.max(1, maxsize));
+            seam[tour[0]] = true;
+            seam[tour[tour.length - 1]] = true;
+        }
+        control.reportImprovement(matrix.tourScore(tour), 0);
+
+        // The seams are the ends of the blocks still in the ordering
+        for (int[] path : paths) {
+            seam[path[0]] = true;
+            seam[path[path.length - 1]] = true;
+        }
+        int count = 0;
+        int[] around = new int[tour.length];
+        for (int id : tour) {
+            if (seam[id]) around[count++] = id;
+        }
+        new TwoOptLocalSearch(matrix).optimizeAround(tour, Arrays.copyOf(around, count), -1, control);
+        return tour;
+    }
+
+    /**
+     * Splits the products into clusters of at most clusterSize products, joining the most similar pairs of the
+     * candidate lists first. Pairs of the same category are joined before any other pair.
+     * @param matrix The similarity matrix of the products.
+     * @return The ids of the products of every cluster.
+     */
+    int[][] cluster(SimilarityMatrix matrix) {
+        int n = matrix.size();
+        int[][] candidates = matrix.topNeighbours(TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+        List<int[]> edges = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            for (int v : candidates[u]) {
+                if (u < v) edges.add(new int[] {u, v});
+            }
+        }
+        edges.sort((a, b) -> Double.compare(matrix.get(b[0], b[1]), matrix.get(a[0], a[1])));
+
+        int[] parent = new int[n];
+        int[] size = new int[n];
+        for (int u = 0; u < n; u++) {
+            parent[u] = u;
+            size[u] = 1;
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            for (int[] edge : edges) {
+                if (pass == 0 && !sameCategory(matrix, edge[0], edge[1])) continue;
+                int a = find(parent, edge[0]);
+                int b = find(parent, edge[1]);
+                if (a == b || size[a] + size[b] > clusterSize) continue;
+                if (size[a] < size[b]) {
+                    int aux = a;
+                    a = b;
+                    b = aux;
+                }
+                parent[b] = a;
+                size[a] += size[b];
+            }
+        }
+
+        // Clusters in the order of their first product
+        int[] cluster = new int[n];
+        Arrays.fill(cluster, -1);
+        List<int[]> clusters = new ArrayList<>();
+        int[] filled = new int[n];
+        for (int u = 0; u < n; u++) {
+            int root = find(parent, u);
+            if (cluster[root] < 0) {
+                cluster[root] = clusters.size();
+                clusters.add(new int[size[root]]);
+            }
+            clusters.get(cluster[root])[filled[cluster[root]]++] = u;
+        }
+        return clusters.toArray(new int[0][]);
+    }
+
+    /**
+     * Orders every cluster with its own algorithm, running up to threads clusters at the same time, and cuts every
+     * ordering at its weakest edge. The algorithms stop when the control of the decomposition has to stop.
+     * @param matrix   The similarity matrix of the products.
+     * @param clusters The ids of the products of every cluster.
+     * @param limit    The limit of the algorithm of every cluster.
+     * @return The ordering of every cluster as a path, in the ids of the matrix.
+     * @throws DistributionException If the algorithm of a cluster failed or the run was interrupted.
+     */
+    private int[][] solveClusters(SimilarityMatrix matrix, int[][] clusters, int limit) {
+        int[][] paths = new int[clusters.length][];
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, clusters.length));
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int[] ids : clusters) results.add(executor.submit(() -> solveCluster(matrix, ids, limit)));
+            for (int c = 0; c < clusters.length; c++) paths[c] = results.get(c).get();
+            return paths;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new DistributionException("A cluster could not be ordered");
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistributionException("The decomposition was interrupted");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Orders a cluster and cuts the ordering at its weakest edge, so that its ends are the products that lose the
+     * least when they are joined to other clusters.
+     * @param matrix The similarity matrix of the products.
+     * @param ids    The ids of the products of the cluster.
+     * @param limit  The limit of the algorithm of the cluster.
+     * @return The ordering of the cluster as a path, in the ids of the matrix.
+     */
+    private int[] solveCluster(SimilarityMatrix matrix, int[] ids, int limit) {
+        int m = ids.length;
+        int[] local = new int[m];
+        for (int i = 0; i < m; i++) local[i] = i;
+        // Every ordering of 3 products or less has the same cyclic score
+        if (m > 3) {
+            SimilarityMatrix sub = matrix.restrictTo(ids);
+            AbstractAlgorithm algorithm = solver.apply(sub);
+            algorithm.setControl(new SolverControl(control, -1, null));
+            local = algorithm.order(sub, m, limit);
+        }
+        int cut = 0;
+        double weakest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < m; i++) {
+            double score = matrix.get(ids[local[i]], ids[local[(i + 1) % m]]);
+            if (score < weakest) {
+                weakest = score;
+                cut = i;
+            }
+        }
+        int[] path = new int[m];
+        for (int i = 0; i < m; i++) path[i] = ids[local[(cut + 1 + i) % m]];
+        return path;
+    }
+
+    /**
+     * Joins the paths of the clusters into a single ordering. The blocks are chained greedily, each one followed by the
+     * block and orientation whose first product is the most similar to its last one, and then the order and orientation
+     * of the blocks are improved with 2-opt moves, which reverse a run of blocks and flip each of them.
+     * @param matrix The similarity matrix of the products.
+     * @param paths  The ordering of every cluster as a path.
+     * @return The ordering of every product.
+     */
+    private int[] stitch(SimilarityMatrix matrix, int[][] paths) {
+        int b = paths.length;
+        int[] head = new int[2 * b];
+        int[] tail = new int[2 * b];
+        // Block c forward is 2c, block c reversed is 2c + 1
+        for (int c = 0; c < b; c++) {
+            head[2 * c] = tail[2 * c + 1] = paths[c][0];
+            tail[2 * c] = head[2 * c + 1] = paths[c][paths[c].length - 1];
+        }
+
+        int[] seq = new int[b];
+        boolean[] used = new boolean[b];
+        seq[0] = 0;
+        used[0] = true;
+        for (int i = 1; i < b; i++) {
+            int last = tail[seq[i - 1]];
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int block = 0; block < 2 * b; block++) {
+                if (used[block / 2]) continue;
+                double score = matrix.get(last, head[block]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = block;
+                }
+            }
+            seq[i] = best;
+            used[best / 2] = true;
+        }
+
+        boolean improved = b > 1;
+        while (improved && !control.shouldStop()) {
+            improved = false;
+            for (int i = 0; i < b; i++) {
+                for (int j = i; j < b; j++) {
+                    if (i == 0 && j == b - 1) continue;
+                    int before = tail[seq[(i - 1 + b) % b]];
+                    int after = head[seq[(j + 1) % b]];
+                    double delta = matrix.get(before, tail[seq[j]]) + matrix.get(head[seq[i]], after)
+                            - matrix.get(before, head[seq[i]]) - matrix.get(tail[seq[j]], after);
+                    if (delta <= TourMoves.EPSILON) continue;
+                    for (int l = i, r = j; l <= r; l++, r--) {
+                        int aux = seq[l] ^ 1;
+                        seq[l] = seq[r] ^ 1;
+                        seq[r] = aux;
+                    }
+                    improved = true;
+                }
+            }
+        }
+
+        int[] tour = new int[matrix.size()];
+        int pos = 0;
+        for (int block : seq) {
+            int[] path = paths[block / 2];
+            for (int i = 0; i < path.length; i++) tour[pos++] = path[block % 2 == 0 ? i : path.length - 1 - i];
+        }
+        return Arrays.copyOf(tour, pos);
+    }
+
+    /**
+     * Checks whether two products have the same known category.
+     * @param matrix The similarity matrix of the products.
+     * @param u      The id of the first product.
+     * @param v      The id of the second product.
+     * @return True if both categories are known and equal.
+     */
+    private boolean sameCategory(SimilarityMatrix matrix, int u, int v) {
+        String category = categories.get(matrix.getName(u));
+        return category != null && category.equals(categories.get(matrix.getName(v)));
+    }
+
+    /**
+     * Finds the root of the cluster of a product, halving the path to it.
+     * @param parent The parent of every product in the union-find forest.
+     * @param u      The id of the product.
+     * @return The id of the root of its cluster.
+     */
+    static int find(int[] parent, int u) {
+        while (parent[u] != u) {
+            parent[u] = parent[parent[u]];
+            u = parent[u];
+        }
+        return u;
+    }
+}
@@ -0,0 +1,308 @@
+package org.domain.algorithms;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * GeneticAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist by evolving a population
+ * of orderings. Every individual is a permutation of all the product ids stored as a primitive array, and only its
+ * first products up to the size of the distribution are scored. Children are created with order crossover (OX)
+ * from parents chosen by tournament and mutated with swaps and inversions, and the best individuals are kept
+ * unchanged in the next generation (elitism). The fitness of the population is evaluated in parallel over a ForkJoinPool.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class GeneticAlgorithm extends AbstractAlgorithm {
+    /**
+     * Default number of individuals of the population.
+     */
+    public static final int DEFAULT_POPULATION = 64;
+
+    /**
+     * Number of generations used when no limit is given.
+     */
+    public static final int DEFAULT_GENERATIONS = 500;
+
+    /**
+     * Probability that a child is mutated.
+     */
+    private static final double MUTATION_RATE = 0.3;
+
+    /**
+     * Number of individuals that compete in each tournament.
+     */
+    private static final int TOURNAMENT_SIZE = 3;
+
+    /**
+     * Number of individuals evaluated by each fork/join task.
+     */
+    private static final int FITNESS_CHUNK = 4;
+
+    private String name = "Genetic Algorithm";
+
+    private final int populationSize;
+    private final int elites;
+    private final long seed;
+
+    private int generations;
+
+    /**
+     * Constructs a GeneticAlgorithm with a similarity matrix and the default population.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public GeneticAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.populationSize = DEFAULT_POPULATION;
+        this.elites = 2;
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Constructs a GeneticAlgorithm with a compiled similarity matrix and the default population.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public GeneticAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, DEFAULT_POPULATION, 2, System.nanoTime());
+    }
+
+    /**
+     * Constructs a GeneticAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param populationSize   The number of individuals of the population, at least 2.
+     * @param elites           The number of best individuals copied to the next generation, lower than the population.
+     * @param seed             The seed of the random choices, the same seed always produces the same ordering.
+     */
+    public GeneticAlgorithm(SimilarityMatrix similarityMatrix, int populationSize, int elites, long seed) {
+        super(similarityMatrix);
+        this.populationSize = Math.max(2, populationSize);
+        this.elites = Math.max(0, Math.min(elites, this.populationSize - 1));
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Genetic Algorithm").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of generations evolved by the last arrangement.
+     * @return The number of generations.
+     */
+    public int getGenerations() {
+        return generations;
+    }
+
+    /**
+     * Arranges the products by evolving the population.
+     * Half of the initial population are greedy orderings from random products and the other half random permutations.
+     * The population and the next generation are preallocated and swapped every generation.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The number of generations. If limit is less than 0, the default number of generations is used
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int n = matrix.size();
+        int r = Math.min(maxsize, n);
+        SplittableRandom rand = new SplittableRandom(seed);
+        int[][] population = new int[populationSize][];
+        int[][] next = new int[populationSize][n];
+        double[] fitness = new double[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            population[i] = i % 2 == 0 ? greedyOrder(matrix, n, rand.nextInt(n)) : shuffled(n, rand);
+        }
+        ForkJoinPool.commonPool().invoke(new FitnessTask(matrix, population, fitness, r, 0, populationSize));
+
+        int[] ranking = new int[populationSize];
+        int[] stamp = new int[n];
+        int mark = 0;
+        int maxGenerations = limit < 0 ? DEFAULT_GENERATIONS : limit;
+        rank(fitness, ranking);
+        double bestScore = fitness[ranking[0]];
+        control.reportImprovement(bestScore, 0);
+
+        generations = 0;
+        while (generations < maxGenerations && n >= 4 && !control.shouldStop()) {
+            for (int e = 0; e < elites; e++) System.arraycopy(population[ranking[e]], 0, next[e], 0, n);
+            for (int c = elites; c < populationSize; c++) {
+                int[] first = population[tournament(fitness, rand)];
+                int[] second = population[tournament(fitness, rand)];
+                crossover(first, second, next[c], stamp, ++mark, rand);
+                if (rand.nextDouble() < MUTATION_RATE) mutate(next[c], r, rand);
+            }
+            int[][] aux = population;
+            population = next;
+            next = aux;
+            ForkJoinPool.commonPool().invoke(new FitnessTask(matrix, population, fitness, r, 0, populationSize));
+            rank(fitness, ranking);
+            ++generations;
+            if (fitness[ranking[0]] > bestScore + TourMoves.EPSILON) {
+                bestScore = fitness[ranking[0]];
+                control.reportImprovement(bestScore, generations);
+            }
+        }
+
+        int[] best = new int[r];
+        System.arraycopy(population[ranking[0]], 0, best, 0, r);
+        return best;
+    }
+
+    /**
+     * Creates a random permutation of the product ids with the Fisher-Yates shuffle.
+     * @param n    The number of products.
+     * @param rand The random generator.
+     * @return The random permutation.
+     */
+    private static int[] shuffled(int n, SplittableRandom rand) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        for (int i = n - 1; i > 0; i--) TourMoves.swap(order, i, rand.nextInt(i + 1));
+        return order;
+    }
+
+    /**
+     * Sorts the individuals by decreasing fitness, and by index on ties so the ranking is deterministic.
+     * Insertion sort is enough for the size of a population.
+     * @param fitness The fitness of each individual.
+     * @param ranking The indices of the individuals, sorted in place.
+     */
+    private static void rank(double[] fitness, int[] ranking) {
+        for (int i = 0; i < ranking.length; i++) ranking[i] = i;
+        for (int i = 1; i < ranking.length; i++) {
+            int x = ranking[i];
+            int j = i - 1;
+            while (j >= 0 && fitness[ranking[j]] < fitness[x]) {
+                ranking[j + 1] = ranking[j];
+                --j;
+            }
+            ranking[j + 1] = x;
+        }
+    }
+
+    /**
+     * Chooses a parent by tournament: the fittest of a few random individuals.
+     * @param fitness The fitness of each individual.
+     * @param rand    The random generator.
+     * @return The index of the chosen individual.
+     */
+    private static int tournament(double[] fitness, SplittableRandom rand) {
+        int best = rand.nextInt(fitness.length);
+        for (int t = 1; t < TOURNAMENT_SIZE; t++) {
+            int other = rand.nextInt(fitness.length);
+            if (fitness[other] > fitness[best]) best = other;
+        }
+        return best;
+    }
+
+    /**
+     * Creates a child with order crossover (OX). The child inherits a random segment of the first parent
+     * in place, and the remaining positions, starting after the segment, are filled with the products
+     * missing in the order they appear in the second parent.
+     * @param first  The first parent.
+     * @param second The second parent.
+     * @param child  The array where the child is written.
+     * @param stamp  Marks the products already in the child, an entry is set if it is equal to mark.
+     * @param mark   A value that no entry of stamp has, so the marks do not need to be cleared.
+     * @param rand   The random generator.
+     */
+    private static void crossover(int[] first, int[] second, int[] child, int[] stamp, int mark, SplittableRandom rand) {
+        int n = first.length;
+        int i = rand.nextInt(n);
+        int j = rand.nextInt(n);
+        if (i > j) {
+            int aux = i;
+            i = j;
+            j = aux;
+        }
+        for (int k = i; k <= j; k++) {
+            child[k] = first[k];
+            stamp[first[k]] = mark;
+        }
+        int write = (j + 1) % n;
+        for (int k = 0; k < n; k++) {
+            int gene = second[(j + 1 + k) % n];
+            if (stamp[gene] == mark) continue;
+            child[write] = gene;
+            write = (write + 1) % n;
+        }
+    }
+
+    /**
+     * Mutates an individual with a swap of two positions or the inversion of a segment, chosen at random.
+     * One of the positions is always among the scored products, so the mutation changes the ordering.
+     * @param individual The individual, it is modified in place.
+     * @param r          The number of scored products.
+     * @param rand       The random generator.
+     */
+    private static void mutate(int[] individual, int r, SplittableRandom rand) {
+        int i = rand.nextInt(r);
+        int j = rand.nextInt(individual.length);
+        if (rand.nextBoolean()) TourMoves.swap(individual, i, j);
+        else TourMoves.reverse(individual, Math.min(i, j), Math.max(i, j));
+    }
+
+    /**
+     * Calculates the cyclic score of the first products of an individual.
+     * @param matrix     The similarity matrix of the products.
+     * @param individual The individual.
+     * @param r          The number of scored products.
+     * @return The total similarity of the ordering formed by the first r products.
+     */
+    private static double fitness(SimilarityMatrix matrix, int[] individual, int r) {
+        double sum = 0;
+        for (int i = 0; i < r - 1; i++) sum += matrix.get(individual[i], individual[i + 1]);
+        return r > 1 ? sum + matrix.get(individual[r - 1], individual[0]) : sum;
+    }
+
+    /**
+     * Fork/join task that evaluates the fitness of a range of the population, splitting it in halves.
+     */
+    @SuppressWarnings("serial")
+    private static class FitnessTask extends RecursiveAction {
+        private final SimilarityMatrix matrix;
+        private final int[][] population;
+        private final double[] fitness;
+        private final int r;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates the task of a range of the population.
+         * @param matrix     The similarity matrix of the products.
+         * @param population The individuals.
+         * @param fitness    The array where the fitness of each individual is written.
+         * @param r          The number of scored products.
+         * @param from       The first individual of the range.
+         * @param to         The individual after the last one of the range.
+         */
+        FitnessTask(SimilarityMatrix matrix, int[][] population, double[] fitness, int r, int from, int to) {
+            this.matrix = matrix;
+            this.population = population;
+            this.fitness = fitness;
+            this.r = r;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FITNESS_CHUNK) {
+                for (int i = from; i < to; i++) fitness[i] = GeneticAlgorithm.fitness(matrix, population[i], r);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FitnessTask(matrix, population, fitness, r, from, middle),
+                      new FitnessTask(matrix, population, fitness, r, middle, to));
+        }
+    }
+}
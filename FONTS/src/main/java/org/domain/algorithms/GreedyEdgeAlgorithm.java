@@ -0,0 +1,256 @@
+package org.domain.algorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * GreedyEdgeAlgorithm is an extension of AbstractAlgorithm that builds the ordering of a Productlist with the greedy
+ * edge heuristic. Instead of growing a single ordering from one product, it takes the pairs of products from the most
+ * similar to the least similar and joins each pair whenever both products still have a free side and are not already
+ * in the same fragment, so the strongest similarities end up next to each other wherever they are in the ordering.
+ * Only the pairs of the candidate lists are considered, kept in a max-heap, and a union-find forest detects the pairs
+ * that would close a fragment into a cycle, so the construction takes O(n·k·log n) time.
+ * The fragments left at the end are chained greedily by their ends.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class GreedyEdgeAlgorithm extends AbstractAlgorithm {
+    /**
+     * Number of pairs taken from the heap between two checks of the SolverControl.
+     */
+    private static final int CONTROL_INTERVAL = 1024;
+
+    private String name = "Greedy Edge";
+
+    private final int neighbours;
+
+    /**
+     * Constructs a GreedyEdgeAlgorithm with a similarity matrix and the default number of candidate neighbours.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public GreedyEdgeAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.neighbours = TwoOptLocalSearch.DEFAULT_NEIGHBOURS;
+    }
+
+    /**
+     * Constructs a GreedyEdgeAlgorithm with a compiled similarity matrix and the default number of candidate neighbours.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public GreedyEdgeAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Constructs a GreedyEdgeAlgorithm with a compiled similarity matrix and a number of candidate neighbours.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param neighbours       The number of candidate neighbours of each product whose pairs are considered.
+     */
+    public GreedyEdgeAlgorithm(SimilarityMatrix similarityMatrix, int neighbours) {
+        super(similarityMatrix);
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Greedy Edge").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Builds the ordering of every product with the greedy edge heuristic. If fewer products fit in the distribution,
+     * the consecutive products of the ordering with the highest cyclic score are kept.
+     * If the control asks to stop, the pairs left in the heap are skipped and the fragments are chained as they are.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The number of candidate neighbours of each product. If limit is less than 0, the number given to
+     *                the constructor is used
+     * @return The ids of the products in the order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int n = matrix.size();
+        int[][] candidates = matrix.topNeighbours(limit < 0 ? neighbours : limit);
+
+        // Max-heap of the candidate pairs, a pair listed by both products is just rejected the second time
+        int edges = 0;
+        for (int[] list : candidates) edges += list.length;
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        double[] weight = new double[edges];
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v : candidates[u]) {
+                from[m] = u;
+                to[m] = v;
+                weight[m++] = matrix.get(u, v);
+            }
+        }
+        for (int i = m / 2 - 1; i >= 0; i--) siftDown(from, to, weight, i, m);
+
+        // Each product keeps its up to two neighbours in the fragments
+        int[] first = new int[n];
+        int[] second = new int[n];
+        Arrays.fill(first, -1);
+        Arrays.fill(second, -1);
+        int[] parent = new int[n];
+        for (int u = 0; u < n; u++) parent[u] = u;
+        int joined = 0;
+        long pops = 0;
+        while (m > 0 && joined < n - 1) {
+            if (pops++ % CONTROL_INTERVAL == 0 && control.shouldStop()) break;
+            int u = from[0];
+            int v = to[0];
+            --m;
+            from[0] = from[m];
+            to[0] = to[m];
+            weight[0] = weight[m];
+            siftDown(from, to, weight, 0, m);
+            if (second[u] >= 0 || second[v] >= 0) continue;
+            int a = DecompositionAlgorithm.find(parent, u);
+            int b = DecompositionAlgorithm.find(parent, v);
+            if (a == b) continue;
+            parent[b] = a;
+            link(first, second, u, v);
+            link(first, second, v, u);
+            ++joined;
+        }
+
+        int[] tour = chain(matrix, candidates, first, second);
+        if (tour.length > maxsize) tour = bestWindow(matrix, tour, Math.max(1, maxsize));
+        control.reportImprovement(matrix.tourScore(tour), joined);
+        return tour;
+    }
+
+    /**
+     * Chains the fragments into a single ordering. Starting from the fragment of the first product, every fragment is
+     * followed to its other end, and from there the most similar end of a fragment not yet chained is taken next,
+     * looking first at the candidates of the end and only then at every end.
+     * @param matrix     The similarity matrix of the products.
+     * @param candidates The candidate lists of the products.
+     * @param first      The first neighbour of every product in its fragment, or -1.
+     * @param second     The second neighbour of every product in its fragment, or -1.
+     * @return The ordering of every product.
+     */
+    private static int[] chain(SimilarityMatrix matrix, int[][] candidates, int[] first, int[] second) {
+        int n = first.length;
+        int[] ends = new int[n];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            if (second[u] < 0) ends[count++] = u;
+        }
+        boolean[] used = new boolean[n];
+        int[] tour = new int[n];
+        int filled = 0;
+        int start = second[0] < 0 ? 0 : ends[0];
+        while (filled < n) {
+            // Follow the fragment from one of its ends
+            int prev = -1;
+            int cur = start;
+            while (cur >= 0) {
+                tour[filled++] = cur;
+                used[cur] = true;
+                int next = first[cur] != prev ? first[cur] : second[cur];
+                prev = cur;
+                cur = next;
+            }
+            if (filled == n) break;
+            int end = prev;
+            start = -1;
+            for (int c : candidates[end]) {
+                if (!used[c] && second[c] < 0) {
+                    start = c;
+                    break;
+                }
+            }
+            if (start < 0) {
+                double maxSimilarity = Double.NEGATIVE_INFINITY;
+                int write = 0;
+                for (int i = 0; i < count; i++) {
+                    int u = ends[i];
+                    if (used[u]) continue;
+                    ends[write++] = u;  // Compacts the ends still free
+                    double similarity = matrix.get(end, u);
+                    if (similarity > maxSimilarity) {
+                        maxSimilarity = similarity;
+                        start = u;
+                    }
+                }
+                count = write;
+            }
+        }
+        return tour;
+    }
+
+    /**
+     * Finds the consecutive products of a cyclic ordering with the highest cyclic score.
+     * @param matrix The similarity matrix of the products.
+     * @param tour   The ordering of every product.
+     * @param size   The number of products to keep, lower than the length of the ordering.
+     * @return The size consecutive products, cyclically, with the highest score.
+     */
+    static int[] bestWindow(SimilarityMatrix matrix, int[] tour, int size) {
+        int n = tour.length;
+        double path = 0;
+        for (int i = 0; i < size - 1; i++) path += matrix.get(tour[i], tour[i + 1]);
+        int bestStart = 0;
+        double bestScore = path + matrix.get(tour[size - 1], tour[0]);
+        for (int s = 1; s < n; s++) {
+            int last = (s + size - 1) % n;
+            path += matrix.get(tour[(last - 1 + n) % n], tour[last]) - matrix.get(tour[s - 1], tour[s]);
+            double score = path + matrix.get(tour[last], tour[s]);
+            if (score > bestScore) {
+                bestScore = score;
+                bestStart = s;
+            }
+        }
+        int[] window = new int[size];
+        for (int i = 0; i < size; i++) window[i] = tour[(bestStart + i) % n];
+        return window;
+    }
+
+    /**
+     * Records v as a neighbour of u in its fragment.
+     * @param first  The first neighbour of every product.
+     * @param second The second neighbour of every product.
+     * @param u      The product that gets the neighbour.
+     * @param v      The new neighbour.
+     */
+    private static void link(int[] first, int[] second, int u, int v) {
+        if (first[u] < 0) first[u] = v;
+        else second[u] = v;
+    }
+
+    /**
+     * Restores the max-heap order of the pairs below a position.
+     * @param from   The first product of every pair.
+     * @param to     The second product of every pair.
+     * @param weight The similarity of every pair.
+     * @param i      The position of the pair to move down.
+     * @param m      The number of pairs in the heap.
+     */
+    private static void siftDown(int[] from, int[] to, double[] weight, int i, int m) {
+        int u = from[i];
+        int v = to[i];
+        double w = weight[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= m) break;
+            if (child + 1 < m && weight[child + 1] > weight[child]) ++child;
+            if (weight[child] <= w) break;
+            from[i] = from[child];
+            to[i] = to[child];
+            weight[i] = weight[child];
+            i = child;
+        }
+        from[i] = u;
+        to[i] = v;
+        weight[i] = w;
+    }
+}
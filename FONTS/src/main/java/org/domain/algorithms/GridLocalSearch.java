@@ -0,0 +1,115 @@
+package org.domain.algorithms;
+
+/**
+ * GridLocalSearch improves a grid of product ids by swapping the contents of pairs of cells,
+ * maximizing the similarity between horizontally and vertically adjacent products.
+ * Every swap is scored in O(1) with GridObjective.swapDelta and the first improving swap found is applied,
+ * sweeping over every pair of cells until a whole sweep finds no improvement, or starting only from some cells when
+ * the grid has only been changed locally.
+ * The search does not keep any state between calls, so a single instance can be shared between threads.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class GridLocalSearch {
+    private final SimilarityMatrix matrix;
+
+    /**
+     * Constructs a GridLocalSearch.
+     * @param matrix The similarity matrix of the products.
+     */
+    public GridLocalSearch(SimilarityMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    /**
+     * Improves a grid with cell swaps until no swap improves it, the limit is reached or the control asks to stop.
+     * Swaps between a product and an empty cell are also considered, so products can move to free cells.
+     * @param cells    The row-major grid, it is modified in place.
+     * @param xsize    The number of columns.
+     * @param ysize    The number of rows.
+     * @param maxMoves The maximum number of swaps to apply. If maxMoves is less than 0, it is ignored.
+     * @param control  The control of the run, every applied swap is reported to it.
+     * @return The number of improving swaps applied.
+     */
+    public int optimize(int[] cells, int xsize, int ysize, int maxMoves, SolverControl control) {
+        int size = xsize * ysize;
+        double score = GridObjective.score(matrix, cells, xsize, ysize);
+        int moves = 0;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int a = 0; a < size - 1; a++) {
+                if (control.shouldStop()) return moves;
+                for (int b = a + 1; b < size; b++) {
+                    double delta = GridObjective.swapDelta(matrix, cells, xsize, ysize, a, b);
+                    if (delta <= TourMoves.EPSILON) continue;
+                    if (maxMoves >= 0 && moves >= maxMoves) return moves;
+                    GridObjective.swap(cells, a, b);
+                    score += delta;
+                    ++moves;
+                    improved = true;
+                    control.reportImprovement(score, moves);
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Improves a grid with cell swaps that move the contents of some of its cells, until none of them improves it,
+     * the limit is reached or the control asks to stop.
+     * The cells are looked at in turn, and after a swap the two swapped cells and their adjacent cells are looked at
+     * again, because their edges changed. When a grid has only been changed locally, starting from the cells around
+     * the changes repairs it in time proportional to the changes instead of to the number of pairs of cells.
+     * @param cells    The row-major grid, it is modified in place.
+     * @param xsize    The number of columns.
+     * @param ysize    The number of rows.
+     * @param around   The cells looked at first.
+     * @param maxMoves The maximum number of swaps to apply. If maxMoves is less than 0, it is ignored.
+     * @param control  The control of the run, every applied swap is reported to it.
+     * @return The number of improving swaps applied.
+     */
+    public int optimizeAround(int[] cells, int xsize, int ysize, int[] around, int maxMoves, SolverControl control) {
+        int size = xsize * ysize;
+        double score = GridObjective.score(matrix, cells, xsize, ysize);
+
+        // Cells to look at, in a circular queue
+        int[] queue = new int[size];
+        boolean[] queued = new boolean[size];
+        int head = 0;
+        int count = 0;
+        for (int cell : around) {
+            if (queued[cell]) continue;
+            queued[cell] = true;
+            queue[count++] = cell;
+        }
+
+        int moves = 0;
+        while (count > 0 && (maxMoves < 0 || moves < maxMoves)) {
+            if (control.shouldStop()) break;
+            int a = queue[head];
+            head = head == size - 1 ? 0 : head + 1;
+            --count;
+            queued[a] = false;
+            for (int b = 0; b < size; b++) {
+                if (b == a) continue;
+                double delta = GridObjective.swapDelta(matrix, cells, xsize, ysize, a, b);
+                if (delta <= TourMoves.EPSILON) continue;
+                GridObjective.swap(cells, a, b);
+                score += delta;
+                ++moves;
+                control.reportImprovement(score, moves);
+                for (int cell : new int[] {a, b}) {
+                    int column = cell % xsize;
+                    for (int next : new int[] {cell, cell - xsize, cell + xsize, column > 0 ? cell - 1 : -1, column + 1 < xsize ? cell + 1 : -1}) {
+                        if (next < 0 || next >= size || queued[next]) continue;
+                        queued[next] = true;
+                        queue[(head + count++) % size] = next;
+                    }
+                }
+                break;
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,74 @@
+package org.domain.algorithms;
+
+import java.util.Map;
+
+/**
+ * GridLocalSearchAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist directly on the grid
+ * of the shelf. It folds the greedy ordering into the grid and improves it with the cell swaps of GridLocalSearch,
+ * so both the horizontal and the vertical neighbours of each product are optimized.
+ * Its objective is the grid by default. With the sequence objective it improves the greedy ordering with 2-opt instead.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class GridLocalSearchAlgorithm extends AbstractAlgorithm {
+    private String name = "Grid Local Search";
+
+    /**
+     * Constructs a GridLocalSearchAlgorithm with a similarity matrix.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public GridLocalSearchAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.objective = Objective.GRID;
+    }
+
+    /**
+     * Constructs a GridLocalSearchAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public GridLocalSearchAlgorithm(SimilarityMatrix similarityMatrix) {
+        super(similarityMatrix);
+        this.objective = Objective.GRID;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Grid Local Search").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Arranges the products for the sequence objective, improving the greedy ordering with 2-opt.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The maximum number of improving moves. If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int[] tour = greedyOrder(matrix, maxsize, 0);
+        new TwoOptLocalSearch(matrix).optimize(tour, limit, control);
+        return tour;
+    }
+
+    /**
+     * Arranges the products on the grid, folding the greedy ordering into it and improving it with cell swaps.
+     * @param matrix The similarity matrix of the products to arrange.
+     * @param xsize  Represents the number of columns of the distribution
+     * @param ysize  Represents the number of rows of the distribution
+     * @param limit  The maximum number of improving swaps. If limit is less than 0, the code ignores the limit
+     * @return The row-major grid of product ids.
+     */
+    @Override
+    protected int[] orderGrid(SimilarityMatrix matrix, int xsize, int ysize, int limit) {
+        int[] cells = GridObjective.fromSequence(greedyOrder(matrix, xsize * ysize, 0), xsize, ysize);
+        new GridLocalSearch(matrix).optimize(cells, xsize, ysize, limit, control);
+        return cells;
+    }
+}
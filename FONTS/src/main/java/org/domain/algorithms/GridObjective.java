@@ -0,0 +1,120 @@
+package org.domain.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * GridObjective groups the operations over a shelf represented as a grid of product ids.
+ * The grid is stored row-major in an array of xsize * ysize cells, and empty cells hold -1.
+ * Its score is the sum of the similarities between horizontally and vertically adjacent products,
+ * and the change of the score when two cells are swapped is evaluated in O(1).
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public final class GridObjective {
+    /**
+     * Id of an empty cell.
+     */
+    public static final int EMPTY = -1;
+
+    private GridObjective() {}
+
+    /**
+     * Folds an ordering into a grid the same way AbstractAlgorithm.adaptToShelf does: even rows are filled
+     * from left to right and odd rows from right to left. Products that do not fit are discarded.
+     * @param sequence The ordering of product ids.
+     * @param xsize    The number of columns.
+     * @param ysize    The number of rows.
+     * @return The row-major grid.
+     */
+    public static int[] fromSequence(int[] sequence, int xsize, int ysize) {
+        int[] cells = new int[xsize * ysize];
+        Arrays.fill(cells, EMPTY);
+        for (int k = 0; k < sequence.length && k < cells.length; k++) {
+            int row = k / xsize;
+            int column = row % 2 == 0 ? k % xsize : xsize - 1 - k % xsize;
+            cells[row * xsize + column] = sequence[k];
+        }
+        return cells;
+    }
+
+    /**
+     * Calculates the score of a grid.
+     * @param matrix The similarity matrix of the products.
+     * @param cells  The row-major grid.
+     * @param xsize  The number of columns.
+     * @param ysize  The number of rows.
+     * @return The sum of the similarities between adjacent products.
+     */
+    public static double score(SimilarityMatrix matrix, int[] cells, int xsize, int ysize) {
+        double sum = 0;
+        for (int row = 0; row < ysize; row++) {
+            for (int column = 0; column < xsize; column++) {
+                int p = cells[row * xsize + column];
+                if (p == EMPTY) continue;
+                if (column + 1 < xsize && cells[row * xsize + column + 1] != EMPTY) sum += matrix.get(p, cells[row * xsize + column + 1]);
+                if (row + 1 < ysize && cells[(row + 1) * xsize + column] != EMPTY) sum += matrix.get(p, cells[(row + 1) * xsize + column]);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Calculates the change of the score if the contents of cells a and b are swapped.
+     * Only the edges around the two cells change, so at most eight similarities are evaluated per cell.
+     * The edge between the cells, if they are adjacent, does not change.
+     * @param matrix The similarity matrix of the products.
+     * @param cells  The row-major grid.
+     * @param xsize  The number of columns.
+     * @param ysize  The number of rows.
+     * @param a      The first cell.
+     * @param b      The second cell.
+     * @return The new score minus the current score.
+     */
+    public static double swapDelta(SimilarityMatrix matrix, int[] cells, int xsize, int ysize, int a, int b) {
+        int pa = cells[a];
+        int pb = cells[b];
+        if (a == b || pa == pb) return 0;
+        return around(matrix, cells, xsize, ysize, a, pb, b) + around(matrix, cells, xsize, ysize, b, pa, a)
+                - around(matrix, cells, xsize, ysize, a, pa, b) - around(matrix, cells, xsize, ysize, b, pb, a);
+    }
+
+    /**
+     * Swaps the contents of two cells.
+     * @param cells The row-major grid.
+     * @param a     The first cell.
+     * @param b     The second cell.
+     */
+    public static void swap(int[] cells, int a, int b) {
+        int aux = cells[a];
+        cells[a] = cells[b];
+        cells[b] = aux;
+    }
+
+    /**
+     * Sums the similarities between a product placed at a cell and the products of its adjacent cells.
+     * @param matrix   The similarity matrix of the products.
+     * @param cells    The row-major grid.
+     * @param xsize    The number of columns.
+     * @param ysize    The number of rows.
+     * @param cell     The cell.
+     * @param product  The product placed at the cell, or EMPTY.
+     * @param excluded An adjacent cell that is not taken into account.
+     * @return The sum of the similarities.
+     */
+    private static double around(SimilarityMatrix matrix, int[] cells, int xsize, int ysize, int cell, int product, int excluded) {
+        if (product == EMPTY) return 0;
+        int row = cell / xsize;
+        int column = cell % xsize;
+        double sum = 0;
+        if (column > 0) sum += edge(matrix, cells, product, cell - 1, excluded);
+        if (column + 1 < xsize) sum += edge(matrix, cells, product, cell + 1, excluded);
+        if (row > 0) sum += edge(matrix, cells, product, cell - xsize, excluded);
+        if (row + 1 < ysize) sum += edge(matrix, cells, product, cell + xsize, excluded);
+        return sum;
+    }
+
+    private static double edge(SimilarityMatrix matrix, int[] cells, int product, int other, int excluded) {
+        if (other == excluded || cells[other] == EMPTY) return 0;
+        return matrix.get(product, cells[other]);
+    }
+}
@@ -0,0 +1,147 @@
+package org.domain.algorithms;
+
+import org.domain.exceptions.DistributionException;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * HeldKarpAlgorithm is an extension of AbstractAlgorithm that finds the optimal arrangement of a
+ * Productlist with the Held-Karp dynamic programming over subsets of products.
+ * It needs O(2^n * n^2) time and O(2^n * n) memory, so it is limited to small lists,
+ * but it is much faster than exploring every ordering.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class HeldKarpAlgorithm extends AbstractAlgorithm {
+    /**
+     * Maximum number of products that the algorithm accepts.
+     */
+    public static final int MAX_PRODUCTS = 20;
+
+    /**
+     * Number of subsets between two checks of the SolverControl, it must be a power of two.
+     */
+    private static final int CONTROL_INTERVAL = 1024;
+
+    private String name = "Held-Karp";
+
+    /**
+     * Constructs a HeldKarpAlgorithm with a similarity matrix.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public HeldKarpAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+    }
+
+    /**
+     * Constructs a HeldKarpAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public HeldKarpAlgorithm(SimilarityMatrix similarityMatrix) {
+        super(similarityMatrix);
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Held-Karp").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Computes the optimal cyclic ordering of the products, or of the best subset of maxsize products if fewer fit in
+     * the distribution, like BruteForceAlgorithm.
+     * The product with the lowest id of the cycle is fixed as its start, so the table is computed once for every
+     * possible start over the products with higher ids. For every subset of them and every product of the subset, the
+     * table keeps the best score of a path that starts at the first product, visits the subset and ends at that product.
+     * Only subsets with fewer products than the cycle are extended. The limit is ignored because the algorithm always finishes.
+     * The table is not usable until it is complete, so if the SolverControl stops the run the greedy ordering is returned.
+     *
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Ignored by this algorithm.
+     * @return The ids of the products in the optimal order.
+     * @throws DistributionException If the list has more than MAX_PRODUCTS products.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int n = matrix.size();
+        if (n > MAX_PRODUCTS) throw new DistributionException("Held-Karp can only arrange up to " + MAX_PRODUCTS + " products");
+        int r = Math.max(1, Math.min(maxsize, n));
+        int[] tour = new int[r];
+        for (int i = 0; i < r; i++) tour[i] = i;
+        if (r == n && n <= 3) return tour;    // Every ordering has the same cyclic score
+        if (r == 1) return tour;
+        int[] greedy = greedyOrder(matrix, r, 0);
+        control.reportImprovement(matrix.tourScore(greedy), 0);
+
+        // The tables are sized for the first start, which has the most products after it
+        double[] best = new double[(1 << (n - 1)) * (n - 1)];
+        int[] parent = new int[best.length];
+        double max = Double.NEGATIVE_INFINITY;
+        long subsets = 0;
+        for (int s = 0; s + r <= n; s++) {
+            // Product s + 1 + k is represented by the bit k, product s is the start
+            int m = n - 1 - s;
+            int full = (1 << m) - 1;
+            Arrays.fill(best, 0, (full + 1) * m, Double.NEGATIVE_INFINITY);
+            for (int k = 0; k < m; k++) {
+                best[(1 << k) * m + k] = matrix.get(s, s + 1 + k);
+                parent[(1 << k) * m + k] = -1;
+            }
+
+            int closeMask = -1;
+            int closeLast = -1;
+            double closeScore = Double.NEGATIVE_INFINITY;
+            for (int mask = 1; mask <= full; mask++) {
+                if ((++subsets & (CONTROL_INTERVAL - 1)) == 0 && control.shouldStop()) return greedy;
+                int size = Integer.bitCount(mask);
+                if (size > r - 1) continue;
+                for (int k = 0; k < m; k++) {
+                    double score = best[mask * m + k];
+                    if (score == Double.NEGATIVE_INFINITY) continue;
+                    if (size == r - 1) {
+                        // Close the cycle back to the start
+                        double cycle = score + matrix.get(s + 1 + k, s);
+                        if (cycle > closeScore) {
+                            closeScore = cycle;
+                            closeMask = mask;
+                            closeLast = k;
+                        }
+                        continue;
+                    }
+                    for (int j = 0; j < m; j++) {
+                        if ((mask & (1 << j)) != 0) continue;
+                        int next = (mask | (1 << j)) * m + j;
+                        double candidate = score + matrix.get(s + 1 + k, s + 1 + j);
+                        if (candidate > best[next]) {
+                            best[next] = candidate;
+                            parent[next] = k;
+                        }
+                    }
+                }
+            }
+
+            if (closeScore > max) {
+                max = closeScore;
+                int mask = closeMask;
+                int last = closeLast;
+                for (int i = r - 1; i > 0; i--) {
+                    tour[i] = s + 1 + last;
+                    int previous = parent[mask * m + last];
+                    mask &= ~(1 << last);
+                    last = previous;
+                }
+                tour[0] = s;
+            }
+        }
+        control.reportImprovement(max, subsets);
+        return tour;
+    }
+}
@@ -1,32 +1,76 @@
 package org.domain.algorithms;
 
-import org.domain.classes.Product;
-import org.domain.classes.ProductList;
-import org.domain.exceptions.DistributionException;
-import org.domain.types.Pair;
-
-import java.util.Map;
-import java.util.HashMap;
-import java.util.List;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * HillClimbingAlgorithm is an extension of AbstractAlgorithm designed to optimize
  * the arrangement of a list of products using Hill Climbing.
+ * In multi-start mode several climbs, each one from the greedy ordering of a different random product,
+ * run concurrently over a ForkJoinPool and the best ordering found is returned.
  * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
  * @version 1.0
  */
 public class HillClimbingAlgorithm extends AbstractAlgorithm{
+    /**
+     * Number of climbs of the multi-start mode used by the ShelfManager.
+     */
+    public static final int DEFAULT_STARTS = 8;
+
     private String name = "Hill Climbing";
 
+    /**
+     * Number of independent climbs.
+     */
+    private final int starts;
+
+    /**
+     * Seed from which the random generator of every climb is split.
+     */
+    private final long seed;
+
+    /**
+     * Time budget in milliseconds after which every climb stops, or a negative value for no budget.
+     */
+    private final long budgetMillis;
+
     /**
      * Constructs a HillClimbingAlgorithm with a similarity matrix.
      * @param similarityMatrix The similarity matrix used to get the similarities between products.
      */
     public HillClimbingAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
         super(similarityMatrix);
+        this.starts = 1;
+        this.seed = System.nanoTime();
+        this.budgetMillis = -1;
+    }
+
+    /**
+     * Constructs a HillClimbingAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public HillClimbingAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, 1, System.nanoTime(), -1);
+    }
+
+    /**
+     * Constructs a multi-start HillClimbingAlgorithm with a compiled similarity matrix.
+     * The same seed always produces the same ordering, unless the time budget stops the climbs.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param starts           The number of independent climbs, at least 1.
+     * @param seed             The seed of the random starting products.
+     * @param budgetMillis     The time budget in milliseconds for all the climbs. If it is less than 0, there is no budget.
+     */
+    public HillClimbingAlgorithm(SimilarityMatrix similarityMatrix, int starts, long seed, long budgetMillis) {
+        super(similarityMatrix);
+        this.starts = Math.max(1, starts);
+        this.seed = seed;
+        this.budgetMillis = budgetMillis;
+        if (this.starts > 1) name = "Multi-start Hill Climbing";
     }
 
     /**
@@ -42,97 +86,115 @@ public class HillClimbingAlgorithm extends AbstractAlgorithm{
     }
 
     /**
-     * @param list        Productlist which we want to arrange
-     * @param xsize       Represents the number of columns of the distribution
-     * @param ysize       Represents the number of rows of the distribution
-     * @param limit       Serves to limit the depth we want to search for the solution.If limit is less than 0, the code ignores the limit
-     * @param coordinates Contains the coordinates of the products in the distribution.
-     * @return A matrix that represent the arranged distribution of the list.
-     * @throws DistributionException If the ProductList is empty.
+     * Indicates that the first climb can start from a start ordering.
+     * @return True.
      */
     @Override
-    public ArrayList<ArrayList<Product>> orderProductList(ProductList list, int xsize, int ysize, int limit, HashMap<String, Pair<Integer, Integer>> coordinates) {
-        Random rand = new Random();
-        List<Product> allP = new ArrayList<>(list.getProducts());
-        if (allP.isEmpty()) throw new DistributionException("Empty list");
-        Product randP = allP.get(rand.nextInt(allP.size() - 1));     // Get a random product
-        int maxsize = xsize*ysize;
-        List<Product> smart = iniSolution(maxsize, randP, allP);
-        smart = hillClimbing(smart, limit);
-
-        return adaptToShelf(smart, xsize, ysize, coordinates);
+    public boolean supportsStartOrder() {
+        return true;
     }
 
     /**
-     * Performs the Hill Climbing optimization algorithm to improve a list of products.
-     * The method iteratively explores neighboring solutions to maximize a calculated sum.
-     * @param current The initial list of products to arrange.
-     * @param limit The number of time the code searches for neighbors of the currents solution. If limit is < 0, the code ignores the limit
-     * @return The optimized list of products with the highest calculated sum found.
+     * Arranges the products starting from greedy solutions built from random products
+     * and improving them with Hill Climbing. The first climb starts from the start ordering, if there is one.
+     * Every climb gets its own random generator split from the seed in order, so the result does not depend
+     * on the scheduling of the threads. The best ordering wins, and ties are resolved in favour of the first climb.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Serves to limit the depth we want to search for the solution.If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the best order found.
      */
-    private List<Product> hillClimbing(List<Product> current, int limit){
-        boolean isBetter = true;
-        int count = 0;
-        while(isBetter){
-            if(limit < 0 || (limit > 0 && count < limit)) {
-                List<Product> neighbor = best_neighbor(current);
-                if (calculaSum(neighbor) > calculaSum(current)) {
-                    current = new ArrayList<>(neighbor);
-                } else isBetter = false;
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        long deadline = budgetMillis < 0 ? Long.MAX_VALUE : System.nanoTime() + budgetMillis * 1_000_000L;
+        SplittableRandom root = new SplittableRandom(seed);
+        if (starts == 1) return climb(matrix, maxsize, limit, root, deadline, true);
+
+        List<ForkJoinTask<int[]>> climbs = new ArrayList<>(starts);
+        for (int s = 0; s < starts; s++) {
+            SplittableRandom rand = root.split();
+            boolean first = s == 0;
+            climbs.add(ForkJoinPool.commonPool().submit(() -> climb(matrix, maxsize, limit, rand, deadline, first)));
+        }
+        int[] best = null;
+        double bestScore = 0;
+        for (ForkJoinTask<int[]> task : climbs) {
+            int[] tour = task.join();
+            double score = matrix.tourScore(tour);
+            if (best == null || score > bestScore + TourMoves.EPSILON) {
+                best = tour;
+                bestScore = score;
             }
-            else break;
-            ++count;
         }
-        return current;
+        return best;
     }
 
     /**
-     * Initializes a solution based on the similarity of products.
-     * This method selects a starting product and builds an initial list of products by
-     * repeatedly adding the most similar unused product.
-     * @param size  The number of products to include in the solution.
-     * @param first The starting product.
-     * @param allP  The list of all available products.
-     * @return An initial solution list based on product similarity.
+     * Builds the greedy ordering from a random product and improves it with Hill Climbing.
+     * The first climb starts from the start ordering instead, if there is one.
+     * @param matrix   The similarity matrix of the products to arrange.
+     * @param maxsize  The maximum number of products that fit in the distribution.
+     * @param limit    The maximum number of improving swaps. If limit is less than 0, the code ignores the limit
+     * @param rand     The random generator of this climb.
+     * @param deadline The value of System.nanoTime() at which the climb stops.
+     * @param first    True for the first climb.
+     * @return The ids of the products in the order found.
      */
-    private List<Product> iniSolution(int size, Product first, List<Product> allP) {
-        ArrayList<Product> smart = new ArrayList<>();
-        smart.add(first);
-        List<Product> candidates = new ArrayList<>(allP);
-        candidates.remove(first);
-        for (int i = 1; i < Math.min(size, allP.size()); i++) {
-            Product mostSimilar = mostSimilarP(smart.get(i - 1), candidates);
-            while (!candidates.contains(mostSimilar) && smart.contains(mostSimilar) ) {
-                mostSimilar = mostSimilarP(smart.get(i - 1), candidates);
-            }
-            candidates.remove(mostSimilar);
-            smart.add(mostSimilar);
+    private int[] climb(SimilarityMatrix matrix, int maxsize, int limit, SplittableRandom rand, long deadline, boolean first) {
+        int randP = rand.nextInt(matrix.size());     // Get a random product
+        int[] smart = first ? initialOrder(matrix, maxsize, randP) : greedyOrder(matrix, maxsize, randP);
+        control.reportImprovement(matrix.tourScore(smart), 0);
+        return hillClimbing(matrix, smart, limit, deadline);
+    }
+
+    /**
+     * Performs the Hill Climbing optimization algorithm to improve an ordering of products.
+     * The method repeatedly applies the best improving swap of two positions. Swaps are scored by the
+     * change of the edges around the two positions, and only the winning swap is applied, in place.
+     * @param matrix The similarity matrix of the products.
+     * @param current The initial ordering of product ids, it is modified in place.
+     * @param limit The number of time the code searches for neighbors of the currents solution. If limit is < 0, the code ignores the limit
+     * @param deadline The value of System.nanoTime() at which the climb stops and returns the current ordering.
+     * @return The optimized ordering with the highest calculated sum found.
+     */
+    private int[] hillClimbing(SimilarityMatrix matrix, int[] current, int limit, long deadline){
+        int count = 0;
+        double score = matrix.tourScore(current);
+        while ((limit < 0 || count < limit) && System.nanoTime() < deadline && !control.shouldStop()) {
+            double gain = best_neighbor(matrix, current);
+            if (gain == 0) break;
+            score += gain;
+            ++count;
+            control.reportImprovement(score, count);
         }
-        return smart;
+        return current;
     }
 
     /**
-     * Finds the best neighboring solution for a given list by swapping product positions.
-     * This method evaluates all possible neighbors of the current solution by swapping pairs
-     * of products, and selects the one with the highest calculated metric.
-     * @param list The current list of products.
-     * @return The neighboring solution with the highest calculated sum.
+     * Moves a given ordering to its best neighbor obtained by swapping two product positions.
+     * This method evaluates the change of the calculated sum of every swap in O(1) and applies
+     * the one with the highest gain, if it improves the current solution.
+     * @param matrix The similarity matrix of the products.
+     * @param list The current ordering of product ids, it is modified in place.
+     * @return The gain of the applied swap, or 0 if the ordering is a local optimum.
      */
-    private List<Product> best_neighbor(List<Product> list){
-        List<Product> best = list;
-        double maxval = calculaSum(best);
-        for (int i = 0; i < list.size()-1; i++) {
-            for (int j = i + 1; j < list.size(); j++){
-                List<Product> neighbor = new ArrayList<>(list);
-                Collections.swap(neighbor, i, j);
-
-                if (maxval < calculaSum(neighbor)){
-                    best =  neighbor;
-                    maxval = calculaSum(neighbor);
+    private double best_neighbor(SimilarityMatrix matrix, int[] list){
+        int bestI = -1;
+        int bestJ = -1;
+        double maxDelta = TourMoves.EPSILON;
+        for (int i = 0; i < list.length-1; i++) {
+            for (int j = i + 1; j < list.length; j++){
+                double delta = TourMoves.swapDelta(matrix, list, i, j);
+                if (maxDelta < delta){
+                    maxDelta = delta;
+                    bestI = i;
+                    bestJ = j;
                 }
             }
         }
-        return best;
+        if (bestI < 0) return 0;
+        TourMoves.swap(list, bestI, bestJ);
+        return maxDelta;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,355 @@
+package org.domain.algorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * IteratedLocalSearchAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist with Iterated Local Search.
+ * The greedy ordering is improved to a local optimum with swap, 2-opt, Or-opt and restricted 3-opt moves towards the
+ * most similar products.
+ * Then every iteration kicks the current ordering with a double-bridge move, which exchanges two consecutive segments
+ * and can not be undone by a single swap or 2-opt move, improves the kicked ordering again and keeps it if the
+ * acceptance criterion allows it. Only the products around the kick are looked at by the local search, and the
+ * orderings are kept in preallocated buffers, so an iteration costs about as much as copying the ordering.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class IteratedLocalSearchAlgorithm extends AbstractAlgorithm {
+    /**
+     * The criteria to accept the ordering obtained after a kick.
+     */
+    public enum Acceptance {
+        /**
+         * Only orderings better than the current one are accepted, so the best ordering is always the one kicked.
+         */
+        BETTER,
+        /**
+         * Orderings at least as good as the current one are accepted, so the search can move along plateaus.
+         */
+        EQUAL_OR_BETTER,
+        /**
+         * Every ordering is accepted and the best one is kept apart.
+         */
+        RANDOM_WALK
+    }
+
+    /**
+     * Number of kicks without improving the best ordering after which the search stops when it has neither
+     * a limit nor a time budget.
+     */
+    public static final int DEFAULT_STALL_ITERATIONS = 2000;
+
+    /**
+     * Maximum length of each of the two segments exchanged by a kick, so the local search only repairs a small part of the ordering.
+     */
+    public static final int MAX_SEGMENT = 50;
+
+    /**
+     * Number of kicks between two checks of the clock and the SolverControl.
+     */
+    private static final int CONTROL_INTERVAL = 64;
+
+    /**
+     * Number of products taken from the queue of the local search between two checks of the SolverControl.
+     */
+    private static final int DESCENT_INTERVAL = 256;
+
+    private String name = "Iterated Local Search";
+
+    private final Acceptance acceptance;
+    private final long budgetMillis;
+    private final long seed;
+
+    private long iterations;
+
+    /**
+     * Constructs an IteratedLocalSearchAlgorithm with a similarity matrix, accepting only better orderings and without time budget.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public IteratedLocalSearchAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.acceptance = Acceptance.BETTER;
+        this.budgetMillis = -1;
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Constructs an IteratedLocalSearchAlgorithm with a compiled similarity matrix, accepting only better orderings and without time budget.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public IteratedLocalSearchAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, Acceptance.BETTER, -1, System.nanoTime());
+    }
+
+    /**
+     * Constructs an IteratedLocalSearchAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param acceptance       The criterion to accept the ordering obtained after a kick.
+     * @param budgetMillis     The time in milliseconds the search may run. If it is less than 0, only the limit and
+     *                         the SolverControl bound the search.
+     * @param seed             The seed of the kicks.
+     */
+    public IteratedLocalSearchAlgorithm(SimilarityMatrix similarityMatrix, Acceptance acceptance, long budgetMillis, long seed) {
+        super(similarityMatrix);
+        this.acceptance = acceptance;
+        this.budgetMillis = budgetMillis;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Iterated Local Search").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of kicks of the last run.
+     * @return The number of iterations.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Arranges the products with Iterated Local Search.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The maximum number of kicks. If limit is less than 0, the search runs until the time budget or the
+     *                deadline of the SolverControl, or, if there is none, until DEFAULT_STALL_ITERATIONS kicks in a row
+     *                do not improve the best ordering. The time budget and the SolverControl always bound the search
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long budget = budgetMillis < 0 ? Long.MAX_VALUE : budgetMillis * 1_000_000L;
+        boolean timed = budgetMillis >= 0 || control.getRemainingMillis() != Long.MAX_VALUE;
+        int[] tour = greedyOrder(matrix, maxsize, 0);
+        int n = tour.length;
+        iterations = 0;
+        if (n < 4) {    // Every ordering of 3 products or less has the same cyclic score
+            control.reportImprovement(matrix.tourScore(tour), 0);
+            return tour;
+        }
+
+        int[] pos = new int[matrix.size()];
+        Arrays.fill(pos, -1);
+        for (int i = 0; i < n; i++) pos[tour[i]] = i;
+        LocalSearch search = new LocalSearch(matrix, n);
+        for (int id : tour) search.push(id);
+        double current = matrix.tourScore(tour) + search.descend(tour, pos, control);
+        int[] best = tour.clone();
+        double bestScore = current;
+        control.reportImprovement(bestScore, 0);
+
+        int[] candidate = new int[n];
+        int[] candidatePos = new int[matrix.size()];
+        int segment = Math.min(MAX_SEGMENT, n);
+        long stall = 0;
+        while (limit >= 0 ? iterations < limit : timed || stall < DEFAULT_STALL_ITERATIONS) {
+            if (iterations % CONTROL_INTERVAL == 0 && (System.nanoTime() - start >= budget || control.shouldStop())) break;
+            ++iterations;
+
+            // Double bridge: A B C D becomes A C B D, with B from p1 to p2 - 1 and C from p2 to p3 - 1
+            int p1 = 1 + rand.nextInt(n - 3);
+            int p2 = p1 + 1 + rand.nextInt(Math.min(segment, n - 2 - p1));
+            int p3 = p2 + 1 + rand.nextInt(Math.min(segment, n - 1 - p2));
+            int a = tour[p1 - 1];
+            int b1 = tour[p1];
+            int b2 = tour[p2 - 1];
+            int c1 = tour[p2];
+            int c2 = tour[p3 - 1];
+            int d = tour[p3];
+            double kick = matrix.get(a, c1) + matrix.get(c2, b1) + matrix.get(b2, d)
+                    - matrix.get(a, b1) - matrix.get(b2, c1) - matrix.get(c2, d);
+            System.arraycopy(tour, 0, candidate, 0, p1);
+            System.arraycopy(tour, p2, candidate, p1, p3 - p2);
+            System.arraycopy(tour, p1, candidate, p1 + p3 - p2, p2 - p1);
+            System.arraycopy(tour, p3, candidate, p3, n - p3);
+            System.arraycopy(pos, 0, candidatePos, 0, pos.length);
+            for (int k = p1; k < p3; k++) candidatePos[candidate[k]] = k;
+
+            search.push(a);
+            search.push(b1);
+            search.push(b2);
+            search.push(c1);
+            search.push(c2);
+            search.push(d);
+            double score = current + kick + search.descend(candidate, candidatePos, control);
+
+            if (accepts(score, current)) {
+                int[] aux = tour;
+                tour = candidate;
+                candidate = aux;
+                aux = pos;
+                pos = candidatePos;
+                candidatePos = aux;
+                current = score;
+            }
+            if (current > bestScore + TourMoves.EPSILON) {
+                bestScore = current;
+                System.arraycopy(tour, 0, best, 0, n);
+                control.reportImprovement(bestScore, iterations);
+                stall = 0;
+            }
+            else ++stall;
+        }
+        return best;
+    }
+
+    /**
+     * Indicates if the ordering obtained after a kick replaces the current one.
+     * @param score   The score of the ordering obtained after the kick.
+     * @param current The score of the current ordering.
+     * @return True if the acceptance criterion accepts the new ordering.
+     */
+    private boolean accepts(double score, double current) {
+        return switch (acceptance) {
+            case BETTER -> score > current + TourMoves.EPSILON;
+            case EQUAL_OR_BETTER -> score >= current - TourMoves.EPSILON;
+            case RANDOM_WALK -> true;
+        };
+    }
+
+    /**
+     * LocalSearch improves an ordering with first-improvement swap and 2-opt moves, and the segment moves of SegmentMoves,
+     * that place a product next to one of its most similar products. Only the products in its queue are looked at, and the products around every applied
+     * move are queued again (don't-look bits), so after a kick only the neighbourhood of the kick is searched.
+     * The queue is allocated once and reused by every descent.
+     */
+    private static final class LocalSearch {
+        private final SimilarityMatrix matrix;
+        private final int[][] neighbours;
+        private final SegmentMoves segments;
+        private final int[] changed = new int[SegmentMoves.CHANGED];
+        private final int[] queue;
+        private final boolean[] queued;
+        private int head;
+        private int count;
+
+        /**
+         * Constructs a LocalSearch for orderings of a given length.
+         * @param matrix The similarity matrix of the products.
+         * @param n      The length of the orderings.
+         */
+        LocalSearch(SimilarityMatrix matrix, int n) {
+            this.matrix = matrix;
+            this.neighbours = matrix.topNeighbours(TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+            this.segments = new SegmentMoves(matrix);
+            this.queue = new int[n];
+            this.queued = new boolean[matrix.size()];
+        }
+
+        /**
+         * Adds a product to the queue, unless it is already in it.
+         * @param id The id of the product.
+         */
+        void push(int id) {
+            if (queued[id]) return;
+            queued[id] = true;
+            queue[(head + count++) % queue.length] = id;
+        }
+
+        /**
+         * Applies improving moves from the queued products until the queue is empty or the control asks to stop,
+         * in which case the queue is emptied.
+         * @param tour    The ordering of product ids, it is modified in place.
+         * @param pos     The position of each product in the ordering, or -1 if it is not in it. It is kept up to date.
+         * @param control The control of the run.
+         * @return The total gain of the applied moves.
+         */
+        double descend(int[] tour, int[] pos, SolverControl control) {
+            double gain = 0;
+            long pops = 0;
+            boolean stop = false;
+            while (count > 0) {
+                int a = queue[head];
+                head = head == queue.length - 1 ? 0 : head + 1;
+                --count;
+                queued[a] = false;
+                if (!stop && ++pops % DESCENT_INTERVAL == 0) stop = control.shouldStop();
+                if (!stop) gain += improve(tour, pos, a);
+            }
+            return gain;
+        }
+
+        /**
+         * Looks for an improving 2-opt, swap or segment move that places one of the candidates of a product next to it,
+         * and applies the first one found.
+         * @param tour The ordering of product ids.
+         * @param pos  The position of each product in the ordering.
+         * @param a    The product whose edges are considered.
+         * @return The gain of the applied move, or 0 if no improving move was found.
+         */
+        private double improve(int[] tour, int[] pos, int a) {
+            int n = tour.length;
+            int i = pos[a];
+            for (int dir = 0; dir < 2; dir++) {
+                boolean forward = dir == 0;
+                int b = tour[forward ? TwoOptLocalSearch.next(i, n) : TwoOptLocalSearch.prev(i, n)];
+                double ab = matrix.get(a, b);
+                for (int c : neighbours[a]) {
+                    double ac = matrix.get(a, c);
+                    if (ac <= ab + TourMoves.EPSILON) break;
+                    int j = pos[c];
+                    if (j < 0) continue;
+                    int d = tour[forward ? TwoOptLocalSearch.next(j, n) : TwoOptLocalSearch.prev(j, n)];
+                    if (d == a) continue;
+                    double gain = ac + matrix.get(b, d) - ab - matrix.get(c, d);
+                    if (gain <= TourMoves.EPSILON) continue;
+                    // Forward: a b ... c d becomes a c ... b d. Backward: b a ... d c becomes b d ... a c
+                    if (forward) TwoOptLocalSearch.reverse(tour, pos, TwoOptLocalSearch.next(i, n), j);
+                    else TwoOptLocalSearch.reverse(tour, pos, i, TwoOptLocalSearch.prev(j, n));
+                    push(a);
+                    push(b);
+                    push(c);
+                    push(d);
+                    return gain;
+                }
+            }
+            for (int c : neighbours[a]) {
+                int j = pos[c];
+                if (j < 0) continue;
+                for (int dir = 0; dir < 2; dir++) {
+                    // The neighbour of a on this side is exchanged with c
+                    int x = dir == 0 ? TwoOptLocalSearch.next(i, n) : TwoOptLocalSearch.prev(i, n);
+                    if (x == j) continue;
+                    double gain = TourMoves.swapDelta(matrix, tour, x, j);
+                    if (gain <= TourMoves.EPSILON) continue;
+                    int y = tour[x];
+                    TourMoves.swap(tour, x, j);
+                    pos[c] = x;
+                    pos[y] = j;
+                    pushAround(tour, x);
+                    pushAround(tour, j);
+                    return gain;
+                }
+            }
+            double gain = segments.improve(tour, pos, a, changed);
+            if (gain > 0) {
+                for (int id : changed) push(id);
+            }
+            return gain;
+        }
+
+        /**
+         * Adds a product and its two neighbours in the ordering to the queue.
+         * @param tour The ordering of product ids.
+         * @param i    The position of the product.
+         */
+        private void pushAround(int[] tour, int i) {
+            int n = tour.length;
+            push(tour[TwoOptLocalSearch.prev(i, n)]);
+            push(tour[i]);
+            push(tour[TwoOptLocalSearch.next(i, n)]);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.domain.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NeighbourIndex keeps, for every product of a similarity map, its k most similar products sorted by decreasing
+ * similarity. It is built once from the map and then updated by the ProductManager on every change of a similarity,
+ * so the algorithms get the candidate lists of a list without comparing every pair of its products.
+ * A list that loses one of its k products may have discarded the product that should replace it, in that case it is
+ * marked as stale and recomputed from the map the next time it is read.
+ * Ties between equal similarities are broken by product name.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public final class NeighbourIndex {
+    /**
+     * Number of neighbours kept for each product when none is given.
+     */
+    public static final int DEFAULT_NEIGHBOURS = 16;
+
+    private final int k;
+    private final Map<String, Row> rows = new HashMap<>();
+    private Map<String, Map<String, Double>> similarities;
+
+    /**
+     * Constructs a NeighbourIndex of the similarity map with the default number of neighbours.
+     * @param similarities The similarity map (key: product name, value: map of similar products and their scores).
+     */
+    public NeighbourIndex(Map<String, Map<String, Double>> similarities) {
+        this(similarities, DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Constructs a NeighbourIndex of the similarity map.
+     * @param similarities The similarity map (key: product name, value: map of similar products and their scores).
+     * @param k            The number of neighbours kept for each product, at least 1.
+     */
+    public NeighbourIndex(Map<String, Map<String, Double>> similarities, int k) {
+        this.k = Math.max(1, k);
+        rebuild(similarities);
+    }
+
+    /**
+     * Retrieves the number of neighbours kept for each product.
+     * @return The number of neighbours.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Checks whether the index is kept up to date with the given similarity map.
+     * @param similarities The similarity map.
+     * @return True if the index was built from that map.
+     */
+    public synchronized boolean isBuiltFrom(Map<String, Map<String, Double>> similarities) {
+        return this.similarities == similarities;
+    }
+
+    /**
+     * Rebuilds the index from a similarity map, which is the one followed by the next updates.
+     * @param similarities The similarity map.
+     */
+    public synchronized void rebuild(Map<String, Map<String, Double>> similarities) {
+        this.similarities = similarities;
+        rows.clear();
+        for (Map.Entry<String, Map<String, Double>> row : similarities.entrySet()) {
+            String a = row.getKey();
+            for (Map.Entry<String, Double> entry : row.getValue().entrySet()) {
+                String b = entry.getKey();
+                if (a.equals(b) || entry.getValue() == null) continue;
+                rowOf(a).offer(b, entry.getValue());
+                // A similarity stored in one direction only is used for both
+                Map<String, Double> reverse = similarities.get(b);
+                if (reverse == null || !reverse.containsKey(a)) rowOf(b).offer(a, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Updates the lists of two products after their similarity was set or removed in the map.
+     * @param product1 The name of the first product.
+     * @param product2 The name of the second product.
+     */
+    public synchronized void update(String product1, String product2) {
+        if (product1.equals(product2)) return;
+        Double score = lookup(product1, product2);
+        update(product1, product2, score);
+        update(product2, product1, score);
+    }
+
+    /**
+     * Removes a product from the index after its similarities were removed from the map.
+     * @param product The name of the product.
+     */
+    public synchronized void remove(String product) {
+        rows.remove(product);
+        for (Row row : rows.values()) row.remove(product);
+    }
+
+    /**
+     * Retrieves the most similar products of a product.
+     * @param product The name of the product.
+     * @return The names of at most k products, sorted by decreasing similarity.
+     */
+    public synchronized List<String> neighbours(String product) {
+        Row row = rows.get(product);
+        if (row == null) return Collections.emptyList();
+        if (row.stale) recompute(product, row);
+        List<String> names = new ArrayList<>(row.size);
+        for (int i = 0; i < row.size; i++) names.add(row.names[i]);
+        return names;
+    }
+
+    /**
+     * Updates the list of a product after the similarity with another product changed.
+     * @param product   The product whose list is updated.
+     * @param neighbour The other product.
+     * @param score     The new similarity, or null if it was removed.
+     */
+    private void update(String product, String neighbour, Double score) {
+        if (score == null) {
+            Row row = rows.get(product);
+            if (row != null) row.remove(neighbour);
+            return;
+        }
+        rowOf(product).offer(neighbour, score);
+    }
+
+    /**
+     * Recomputes the list of a product from the similarity map.
+     * @param product The name of the product.
+     * @param row     The list of the product.
+     */
+    private void recompute(String product, Row row) {
+        row.size = 0;
+        row.stale = false;
+        Map<String, Double> direct = similarities.get(product);
+        if (direct != null) {
+            for (Map.Entry<String, Double> entry : direct.entrySet()) {
+                if (!entry.getKey().equals(product) && entry.getValue() != null) row.offer(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Map<String, Double>> other : similarities.entrySet()) {
+            if (direct != null && direct.containsKey(other.getKey())) continue;
+            Double score = other.getValue().get(product);
+            if (score != null && !other.getKey().equals(product)) row.offer(other.getKey(), score);
+        }
+    }
+
+    /**
+     * Looks up the similarity of two products in the map, in either direction.
+     * @param product1 The name of the first product.
+     * @param product2 The name of the second product.
+     * @return The similarity, or null if there is none.
+     */
+    private Double lookup(String product1, String product2) {
+        Map<String, Double> row = similarities.get(product1);
+        Double score = row == null ? null : row.get(product2);
+        if (score != null) return score;
+        row = similarities.get(product2);
+        return row == null ? null : row.get(product1);
+    }
+
+    private Row rowOf(String product) {
+        return rows.computeIfAbsent(product, p -> new Row(k));
+    }
+
+    /**
+     * The neighbours of a product sorted by decreasing similarity, in parallel arrays.
+     */
+    private static final class Row {
+        private final String[] names;
+        private final double[] scores;
+        private int size;
+        private boolean stale;
+
+        private Row(int k) {
+            names = new String[k];
+            scores = new double[k];
+        }
+
+        /**
+         * Sets the similarity of a neighbour, keeping it in the list only if it is among the k most similar.
+         * @param name  The name of the neighbour.
+         * @param score The similarity with the neighbour.
+         */
+        private void offer(String name, double score) {
+            int at = indexOf(name);
+            if (at >= 0) {
+                boolean lowered = score < scores[at];
+                removeAt(at);
+                // A product outside the full list may now be more similar than the lowered one
+                if (lowered && size == names.length - 1) stale = true;
+            }
+            if (size == names.length && !before(name, score, size - 1)) return;
+            int pos = Math.min(size, names.length - 1);
+            if (size < names.length) ++size;
+            while (pos > 0 && before(name, score, pos - 1)) {
+                names[pos] = names[pos - 1];
+                scores[pos] = scores[pos - 1];
+                --pos;
+            }
+            names[pos] = name;
+            scores[pos] = score;
+        }
+
+        /**
+         * Removes a neighbour from the list.
+         * @param name The name of the neighbour.
+         */
+        private void remove(String name) {
+            int at = indexOf(name);
+            if (at < 0) return;
+            // The list was full, so the next most similar product was discarded
+            if (size == names.length) stale = true;
+            removeAt(at);
+        }
+
+        private boolean before(String name, double score, int i) {
+            return score > scores[i] || (score == scores[i] && name.compareTo(names[i]) < 0);
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) return i;
+            }
+            return -1;
+        }
+
+        private void removeAt(int at) {
+            --size;
+            System.arraycopy(names, at + 1, names, at, size - at);
+            System.arraycopy(scores, at + 1, scores, at, size - at);
+            names[size] = null;
+        }
+    }
+}
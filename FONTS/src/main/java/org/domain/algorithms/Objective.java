@@ -0,0 +1,19 @@
+package org.domain.algorithms;
+
+/**
+ * Objective enumerates the scores that a distribution can maximize.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public enum Objective {
+    /**
+     * The similarity between consecutive products of the cyclic ordering, which is folded into the shelf
+     * row by row, alternating the direction of the rows.
+     */
+    SEQUENCE,
+
+    /**
+     * The similarity between every pair of horizontally or vertically adjacent cells of the shelf.
+     */
+    GRID
+}
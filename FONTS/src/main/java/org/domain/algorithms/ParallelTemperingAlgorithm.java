@@ -0,0 +1,294 @@
+package org.domain.algorithms;
+
+import org.domain.exceptions.DistributionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ParallelTemperingAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist with Parallel Tempering
+ * (replica exchange). Several chains run the moves of Simulated Annealing concurrently, each one at a fixed temperature
+ * of a geometric ladder. Periodically the chains stop at a barrier and neighbouring temperatures exchange their
+ * orderings with the Metropolis criterion, so good orderings found by the hot chains, which cross the valleys of the
+ * score, sink to the cold chains, which refine them.
+ * Between exchanges every chain only touches its own preallocated orderings, so the chains do not synchronize
+ * except at the barrier, where the exchanges are done by a single thread.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class ParallelTemperingAlgorithm extends AbstractAlgorithm {
+    /**
+     * Time budget in milliseconds used when no limit is given.
+     */
+    public static final int DEFAULT_BUDGET_MILLIS = 1000;
+
+    /**
+     * Default temperature of the coldest chain, in the same units as the similarities.
+     */
+    public static final double DEFAULT_MIN_TEMPERATURE = 0.001;
+
+    /**
+     * Default temperature of the hottest chain, in the same units as the similarities.
+     */
+    public static final double DEFAULT_MAX_TEMPERATURE = 0.05;
+
+    /**
+     * Minimum number of chains used by default, even if there are fewer cores.
+     */
+    public static final int MIN_CHAINS = 4;
+
+    /**
+     * Number of moves of every chain between two exchanges.
+     */
+    public static final int EXCHANGE_INTERVAL = 4096;
+
+    private String name = "Parallel Tempering";
+
+    private final int chains;
+    private final double minTemperature;
+    private final double maxTemperature;
+    private final long seed;
+
+    private long rounds;
+    private long exchanges;
+
+    /**
+     * Constructs a ParallelTemperingAlgorithm with a similarity matrix, one chain per core and the default temperatures.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public ParallelTemperingAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.chains = Math.max(MIN_CHAINS, Runtime.getRuntime().availableProcessors());
+        this.minTemperature = DEFAULT_MIN_TEMPERATURE;
+        this.maxTemperature = DEFAULT_MAX_TEMPERATURE;
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Constructs a ParallelTemperingAlgorithm with a compiled similarity matrix, one chain per core and the default temperatures.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public ParallelTemperingAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, Math.max(MIN_CHAINS, Runtime.getRuntime().availableProcessors()),
+                DEFAULT_MIN_TEMPERATURE, DEFAULT_MAX_TEMPERATURE, System.nanoTime());
+    }
+
+    /**
+     * Constructs a ParallelTemperingAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param chains           The number of chains, each one runs in its own thread. At least 2.
+     * @param minTemperature   The temperature of the coldest chain, must be positive.
+     * @param maxTemperature   The temperature of the hottest chain, not lower than minTemperature.
+     * @param seed             The seed of the moves and the exchanges.
+     */
+    public ParallelTemperingAlgorithm(SimilarityMatrix similarityMatrix, int chains, double minTemperature, double maxTemperature, long seed) {
+        super(similarityMatrix);
+        this.chains = Math.max(2, chains);
+        this.minTemperature = minTemperature;
+        this.maxTemperature = maxTemperature;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Parallel Tempering").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of times the chains met at the barrier in the last run.
+     * @return The number of rounds of EXCHANGE_INTERVAL moves per chain.
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Retrieves the number of accepted exchanges of orderings between chains in the last run.
+     * @return The number of exchanges.
+     */
+    public long getExchanges() {
+        return exchanges;
+    }
+
+    /**
+     * Arranges the products with Parallel Tempering during the time budget.
+     * Every chain starts from the greedy ordering of a random product. The best ordering found by any chain is returned,
+     * which is at least as good as the best one of the coldest chain.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Time budget in milliseconds. If limit is less than 0, the time left until the deadline of the
+     *                SolverControl is used, or the default budget if it has no deadline. The budget never goes past the deadline
+     * @return The ids of the products in the best order found.
+     * @throws DistributionException If a chain failed or the run was interrupted.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        long start = System.nanoTime();
+        long millis = limit < 0 ? DEFAULT_BUDGET_MILLIS : limit;
+        long remaining = control.getRemainingMillis();
+        if (remaining != Long.MAX_VALUE) millis = limit < 0 ? remaining : Math.min(millis, remaining);
+        long budget = millis * 1_000_000L;
+
+        SplittableRandom rand = new SplittableRandom(seed);
+        Chain[] ladder = new Chain[chains];
+        double ratio = maxTemperature / minTemperature;
+        for (int c = 0; c < chains; c++) {
+            double temperature = minTemperature * Math.pow(ratio, (double) c / (chains - 1));
+            ladder[c] = new Chain(matrix, greedyOrder(matrix, maxsize, rand.nextInt(matrix.size())), temperature, rand.split());
+        }
+        rounds = 0;
+        exchanges = 0;
+        Chain coldest = ladder[0];
+        control.reportImprovement(bestOf(ladder).bestScore, 0);
+        if (coldest.tour.length < 4) return coldest.best;     // Every ordering of 3 products or less has the same cyclic score
+
+        SplittableRandom exchangeRand = rand.split();
+        boolean[] stop = new boolean[1];
+        CyclicBarrier barrier = new CyclicBarrier(chains, () -> {
+            // Runs in a single thread while every chain waits, so the orderings can be exchanged safely
+            ++rounds;
+            for (int c = (int) (rounds % 2); c + 1 < chains; c += 2) {
+                if (exchange(ladder[c], ladder[c + 1], exchangeRand)) ++exchanges;
+            }
+            control.reportImprovement(bestOf(ladder).bestScore, rounds);
+            stop[0] = System.nanoTime() - start >= budget || control.shouldStop();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(chains);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Chain chain : ladder) {
+                results.add(executor.submit(() -> {
+                    do {
+                        chain.run(EXCHANGE_INTERVAL);
+                        barrier.await();
+                    } while (!stop[0]);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) result.get();
+            return bestOf(ladder).best;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof BrokenBarrierException) throw new DistributionException("A chain of the parallel tempering failed");
+            throw new DistributionException("The parallel tempering could not be run");
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistributionException("The parallel tempering was interrupted");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Exchanges the orderings of two chains with the Metropolis criterion of replica exchange: always if the colder
+     * chain gets the better ordering, and otherwise with a probability that decreases with the loss of score.
+     * @param cold The colder chain.
+     * @param hot  The hotter chain.
+     * @param rand The random generator of the exchanges.
+     * @return True if the orderings were exchanged.
+     */
+    private static boolean exchange(Chain cold, Chain hot, SplittableRandom rand) {
+        double exponent = (hot.current - cold.current) * (1 / cold.temperature - 1 / hot.temperature);
+        if (exponent < 0 && rand.nextDouble() >= Math.exp(exponent)) return false;
+        int[] aux = cold.tour;
+        cold.tour = hot.tour;
+        hot.tour = aux;
+        double score = cold.current;
+        cold.current = hot.current;
+        hot.current = score;
+        return true;
+    }
+
+    /**
+     * Finds the chain with the best ordering found.
+     * @param ladder The chains.
+     * @return The chain with the highest best score, the coldest one on a tie.
+     */
+    private static Chain bestOf(Chain[] ladder) {
+        Chain best = ladder[0];
+        for (Chain chain : ladder) {
+            if (chain.bestScore > best.bestScore) best = chain;
+        }
+        return best;
+    }
+
+    /**
+     * Chain is a Simulated Annealing run at a fixed temperature, with its current ordering and the best ordering it found.
+     * Its current ordering can be exchanged with the one of another chain, the best ordering stays with the chain.
+     */
+    private static final class Chain {
+        private final SimilarityMatrix matrix;
+        private final double temperature;
+        private final SplittableRandom rand;
+        private final int[] best;
+
+        private int[] tour;
+        private double current;
+        private double bestScore;
+
+        /**
+         * Constructs a Chain.
+         * @param matrix      The similarity matrix of the products.
+         * @param tour        The initial ordering, it is modified by the chain.
+         * @param temperature The temperature of the chain.
+         * @param rand        The random generator of the chain.
+         */
+        Chain(SimilarityMatrix matrix, int[] tour, double temperature, SplittableRandom rand) {
+            this.matrix = matrix;
+            this.temperature = temperature;
+            this.rand = rand;
+            this.tour = tour;
+            this.best = tour.clone();
+            this.current = matrix.tourScore(tour);
+            this.bestScore = current;
+        }
+
+        /**
+         * Applies random swap, 2-opt and insertion moves, accepting a worse ordering with probability exp(delta / temperature).
+         * @param moves The number of moves to evaluate.
+         */
+        void run(int moves) {
+            int n = tour.length;
+            for (int m = 0; m < moves; m++) {
+                int move = rand.nextInt(3);
+                int i = rand.nextInt(n);
+                int j = rand.nextInt(n - 1);
+                if (j >= i) ++j;
+                double delta;
+                if (move == 0) delta = TourMoves.swapDelta(matrix, tour, i, j);
+                else if (move == 1) delta = TourMoves.twoOptDelta(matrix, tour, Math.min(i, j), Math.max(i, j));
+                else delta = TourMoves.insertionDelta(matrix, tour, i, j);
+
+                if (delta < 0 && rand.nextDouble() >= Math.exp(delta / temperature)) continue;
+                if (move == 0) TourMoves.swap(tour, i, j);
+                else if (move == 1) TourMoves.reverse(tour, Math.min(i, j), Math.max(i, j));
+                else TourMoves.insert(tour, i, j);
+                current += delta;
+
+                if (current > bestScore + TourMoves.EPSILON) {
+                    bestScore = current;
+                    System.arraycopy(tour, 0, best, 0, n);
+                }
+            }
+        }
+    }
+}
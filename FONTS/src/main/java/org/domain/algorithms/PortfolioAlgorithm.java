@@ -0,0 +1,341 @@
+package org.domain.algorithms;
+
+import org.domain.exceptions.DistributionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * PortfolioAlgorithm is an extension of AbstractAlgorithm that races several algorithms concurrently on the same
+ * products under a single deadline and returns the best ordering among them.
+ * Every algorithm runs on its own thread with a SolverControl nested in the control of the portfolio, so all of them
+ * stop at the deadline or when the portfolio is cancelled and return their best ordering so far.
+ * The algorithms share an incumbent, the best ordering any of them has returned. The ones that support a start
+ * ordering run in rounds of a part of the budget, and every round restarts from the incumbent, so an ordering found by
+ * one algorithm is improved by the others. When the incumbent is the ordering they already started from or returned,
+ * they wait for another algorithm to replace it. The rest run once with the whole budget.
+ * The improvements of every algorithm go to the control of the portfolio, which only forwards the ones that beat the
+ * best score reported, so the listener sees a single increasing sequence of scores.
+ * After each race the statistics of every algorithm are available through getStatistics.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class PortfolioAlgorithm extends AbstractAlgorithm {
+    /**
+     * Time budget in milliseconds used when no limit is given and the SolverControl has no deadline.
+     */
+    public static final int DEFAULT_BUDGET_MILLIS = 2000;
+
+    /**
+     * Number of rounds into which the budget of the algorithms that support a start ordering is split.
+     */
+    public static final int ROUNDS = 4;
+
+    /**
+     * Milliseconds between two checks of the control while an algorithm waits for a new incumbent.
+     */
+    private static final long WAIT_MILLIS = 10;
+
+    private String name = "Portfolio";
+
+    private final List<AbstractAlgorithm> members;
+
+    private List<PortfolioStatistics> statistics = new ArrayList<>();
+
+    /**
+     * Constructs a PortfolioAlgorithm with a similarity matrix and the default algorithms.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public PortfolioAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.members = defaultMembers(this.similarityMatrix);
+    }
+
+    /**
+     * Constructs a PortfolioAlgorithm with a compiled similarity matrix and the default algorithms:
+     * 2-opt, Multi-start Hill Climbing and Simulated Annealing.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public PortfolioAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, defaultMembers(similarityMatrix));
+    }
+
+    /**
+     * Constructs a PortfolioAlgorithm with a compiled similarity matrix and the algorithms to race.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param members          The algorithms to race, in the order in which they win the ties.
+     * @throws DistributionException If there is no algorithm to race.
+     */
+    public PortfolioAlgorithm(SimilarityMatrix similarityMatrix, List<AbstractAlgorithm> members) {
+        super(similarityMatrix);
+        if (members.isEmpty()) throw new DistributionException("The portfolio has no algorithms");
+        this.members = new ArrayList<>(members);
+    }
+
+    /**
+     * Creates the default algorithms of the portfolio.
+     * @param matrix The compiled similarity matrix of the products.
+     * @return The algorithms to race.
+     */
+    private static List<AbstractAlgorithm> defaultMembers(SimilarityMatrix matrix) {
+        List<AbstractAlgorithm> members = new ArrayList<>();
+        members.add(new TwoOptAlgorithm(matrix));
+        members.add(new HillClimbingAlgorithm(matrix, HillClimbingAlgorithm.DEFAULT_STARTS, System.nanoTime(), -1));
+        members.add(new SimulatedAnnealingAlgorithm(matrix));
+        return members;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Portfolio").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the statistics of every algorithm in the last race, in the order of the portfolio.
+     * @return The statistics of the last race, empty if no race has run.
+     */
+    public List<PortfolioStatistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Races the algorithms of the portfolio until all of them finish or the deadline passes.
+     * An algorithm that supports a start ordering runs again from every new incumbent while its budget lasts and
+     * other algorithms are running, and the others run once.
+     * The ordering with the highest score wins, and on a tie the one of the algorithm that comes first in the portfolio.
+     * An algorithm that fails loses the race, and the portfolio only fails if all of them do.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Time budget in milliseconds. If limit is less than 0, the default budget is used.
+     *                The budget never goes past the deadline of the SolverControl
+     * @return The ids of the products in the best order found.
+     * @throws DistributionException If every algorithm failed or the race was interrupted.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        long budget = limit < 0 ? DEFAULT_BUDGET_MILLIS : limit;
+        Race shared = new Race(members.size());
+        List<Entrant> entrants = new ArrayList<>();
+        for (AbstractAlgorithm member : members) entrants.add(new Entrant(member, budget, matrix, maxsize, shared));
+
+        List<Future<int[]>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(entrants.size());
+        try {
+            for (Entrant entrant : entrants) results.add(executor.submit(entrant::run));
+            int[] best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            int winner = -1;
+            double[] scores = new double[entrants.size()];
+            for (int i = 0; i < entrants.size(); i++) {
+                scores[i] = Double.NaN;
+                try {
+                    int[] tour = results.get(i).get();
+                    scores[i] = matrix.tourScore(tour);
+                    if (scores[i] > bestScore) {
+                        best = tour;
+                        bestScore = scores[i];
+                        winner = i;
+                    }
+                }
+                catch (ExecutionException e) {
+                    // A failed algorithm loses the race
+                }
+            }
+            List<PortfolioStatistics> race = new ArrayList<>();
+            for (int i = 0; i < entrants.size(); i++) {
+                Entrant entrant = entrants.get(i);
+                race.add(new PortfolioStatistics(entrant.member.getName(), scores[i], entrant.elapsedMillis, entrant.improvements, i == winner));
+            }
+            statistics = race;
+            if (best == null) throw new DistributionException("Every algorithm of the portfolio failed");
+            return best;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistributionException("The portfolio was interrupted");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The best ordering returned by the algorithms of a race, replaced as a whole when a better one is returned.
+     */
+    private static final class Incumbent {
+        private final int[] tour;
+        private final double score;
+
+        /**
+         * Constructs an Incumbent.
+         * @param tour  The ids of the products in order, or null before any algorithm returned.
+         * @param score The score of the ordering.
+         */
+        Incumbent(int[] tour, double score) {
+            this.tour = tour;
+            this.score = score;
+        }
+    }
+
+    /**
+     * The state shared by the algorithms of a race: the incumbent and the number of algorithms still running.
+     * The algorithms waiting for a new incumbent are woken up when it changes or when an algorithm finishes.
+     */
+    private static final class Race {
+        private Incumbent incumbent = new Incumbent(null, Double.NEGATIVE_INFINITY);
+        private int running;
+
+        /**
+         * Constructs a Race.
+         * @param running The number of algorithms of the race.
+         */
+        Race(int running) {
+            this.running = running;
+        }
+
+        /**
+         * Retrieves the incumbent.
+         * @return The best ordering returned so far.
+         */
+        synchronized Incumbent getIncumbent() {
+            return incumbent;
+        }
+
+        /**
+         * Replaces the incumbent by an ordering if it has a higher score.
+         * @param offered The ordering returned by an algorithm.
+         * @return The incumbent after the offer.
+         */
+        synchronized Incumbent offer(Incumbent offered) {
+            if (offered.score > incumbent.score + TourMoves.EPSILON) {
+                incumbent = offered;
+                notifyAll();
+            }
+            return incumbent;
+        }
+
+        /**
+         * Waits until the incumbent is not a given one, while other algorithms are running and the control allows it.
+         * @param seen    The incumbent already used.
+         * @param control The control of the waiting algorithm.
+         * @return The new incumbent, or null if there is none to wait for.
+         * @throws InterruptedException If the thread is interrupted while waiting.
+         */
+        synchronized Incumbent awaitChange(Incumbent seen, SolverControl control) throws InterruptedException {
+            while (incumbent == seen && running > 1 && !control.shouldStop()) wait(WAIT_MILLIS);
+            return incumbent == seen ? null : incumbent;
+        }
+
+        /**
+         * Marks an algorithm as finished.
+         */
+        synchronized void finish() {
+            --running;
+            notifyAll();
+        }
+    }
+
+    /**
+     * An algorithm of the portfolio in a race, with its own control and the statistics of its run.
+     */
+    private class Entrant implements ProgressListener {
+        private final AbstractAlgorithm member;
+        private final long budget;
+        private final SolverControl memberControl;
+        private final SimilarityMatrix matrix;
+        private final int maxsize;
+        private final Race race;
+
+        private int improvements;
+        private double bestReported = Double.NEGATIVE_INFINITY;
+        private long elapsedMillis;
+
+        /**
+         * Prepares an algorithm for a race.
+         * @param member  The algorithm.
+         * @param budget  The time budget of the race in milliseconds.
+         * @param matrix  The similarity matrix of the products to arrange.
+         * @param maxsize The maximum number of products that fit in the distribution.
+         * @param race    The state shared by the algorithms of the race.
+         */
+        Entrant(AbstractAlgorithm member, long budget, SimilarityMatrix matrix, int maxsize, Race race) {
+            this.member = member;
+            this.budget = budget;
+            this.memberControl = new SolverControl(control, budget, this);
+            this.matrix = matrix;
+            this.maxsize = maxsize;
+            this.race = race;
+        }
+
+        /**
+         * Runs the algorithm without limit other than its control and offers every ordering it returns to the incumbent.
+         * An algorithm that supports a start ordering runs in rounds of a part of the budget, every one from the
+         * incumbent, until its budget ends or no other algorithm is running to replace the incumbent it already used.
+         * @return The ids of the products in the best order found by the algorithm.
+         */
+        int[] run() {
+            int[] best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            try {
+                if (!member.supportsStartOrder()) {
+                    member.setControl(memberControl);
+                    best = member.order(matrix, maxsize, -1);
+                    race.offer(new Incumbent(best, matrix.tourScore(best)));
+                    return best;
+                }
+                Incumbent start = race.getIncumbent();
+                while (start != null) {
+                    member.setStartOrder(start.tour);
+                    member.setControl(new SolverControl(memberControl, Math.max(1, budget / ROUNDS), this));
+                    int[] tour = member.order(matrix, maxsize, -1);
+                    double score = matrix.tourScore(tour);
+                    if (best == null || score > bestScore) {
+                        best = tour;
+                        bestScore = score;
+                    }
+                    Incumbent offered = new Incumbent(tour, score);
+                    // Running again from the incumbent used, or from the own ordering, would repeat the round
+                    Incumbent seen = race.offer(offered) == offered ? offered : start;
+                    if (memberControl.shouldStop()) break;
+                    start = race.awaitChange(seen, memberControl);
+                }
+                return best;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return best;
+            }
+            finally {
+                member.setStartOrder(null);
+                elapsedMillis = memberControl.getElapsedMillis();
+                race.finish();
+            }
+        }
+
+        /**
+         * Counts the improvement of the algorithm if it beats its own previous ones, and offers it to the control of
+         * the portfolio, which forwards it only if it beats every score reported in the race.
+         * @param progress The improvement found.
+         */
+        @Override
+        public void onImprovement(SolverProgress progress) {
+            if (progress.getScore() > bestReported) {
+                bestReported = progress.getScore();
+                ++improvements;
+            }
+            control.reportImprovement(progress.getScore(), progress.getIteration());
+        }
+    }
+}
\ No newline at end of file
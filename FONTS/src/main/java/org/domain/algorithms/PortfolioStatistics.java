@@ -0,0 +1,77 @@
+package org.domain.algorithms;
+
+/**
+ * PortfolioStatistics describes how one of the algorithms of a PortfolioAlgorithm performed in the last race:
+ * the score of the ordering it returned, the time it ran, the number of improvements it reported and whether it won.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class PortfolioStatistics {
+    private final String algorithm;
+    private final double score;
+    private final long elapsedMillis;
+    private final int improvements;
+    private final boolean winner;
+
+    /**
+     * Constructs a PortfolioStatistics.
+     * @param algorithm     The name of the algorithm.
+     * @param score         The total similarity of the ordering it returned, or NaN if it failed.
+     * @param elapsedMillis The milliseconds it ran.
+     * @param improvements  The number of improvements it reported.
+     * @param winner        True if its ordering was the one returned by the portfolio.
+     */
+    public PortfolioStatistics(String algorithm, double score, long elapsedMillis, int improvements, boolean winner) {
+        this.algorithm = algorithm;
+        this.score = score;
+        this.elapsedMillis = elapsedMillis;
+        this.improvements = improvements;
+        this.winner = winner;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     * @return The name of the algorithm.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Retrieves the total similarity of the ordering returned by the algorithm.
+     * @return The score, or NaN if the algorithm failed.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Retrieves the milliseconds the algorithm ran.
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Retrieves the number of improvements reported by the algorithm.
+     * @return The number of improvements.
+     */
+    public int getImprovements() {
+        return improvements;
+    }
+
+    /**
+     * Indicates if the ordering of the algorithm was the one returned by the portfolio.
+     * @return True if the algorithm won the race.
+     */
+    public boolean isWinner() {
+        return winner;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ": score " + score + " after " + elapsedMillis + " ms (" + improvements + " improvements)"
+                + (winner ? " winner" : "");
+    }
+}
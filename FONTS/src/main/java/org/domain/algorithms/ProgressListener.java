@@ -0,0 +1,16 @@
+package org.domain.algorithms;
+
+/**
+ * ProgressListener receives the improvements found by an algorithm while it is running.
+ * It may be called from the worker threads of the parallel algorithms, so implementations must be thread-safe
+ * and should return quickly.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public interface ProgressListener {
+    /**
+     * Called every time the algorithm finds an ordering better than every ordering reported before.
+     * @param progress The score of the new best ordering and the state of the run.
+     */
+    void onImprovement(SolverProgress progress);
+}
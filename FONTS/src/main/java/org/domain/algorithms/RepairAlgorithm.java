@@ -0,0 +1,337 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RepairAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist starting from the ordering of a
+ * previous distribution of the shelf, instead of building one from scratch.
+ * The products that left the list are deleted from the previous ordering, the new products are inserted where they
+ * lose the least similarity, and a 2-opt local search looks only at the products around the changes.
+ * With the grid objective the previous grid is repaired in the same way: the products stay in their cells, the new
+ * products go to the free cells where they gain the most similarity, and only the cells around the changes are improved
+ * with cell swaps.
+ * After a small edit of the list it takes time proportional to the edit, not to the whole list.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class RepairAlgorithm extends AbstractAlgorithm {
+    private String name = "Warm-start Repair";
+
+    private final List<String> previousOrder;
+    private final List<List<String>> previousGrid;
+
+    /**
+     * Constructs a RepairAlgorithm with a similarity matrix and the ordering to repair.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     * @param previousOrder    The names of the products of the previous distribution, in the order they were placed.
+     */
+    public RepairAlgorithm(Map<String, Map<String, Double>> similarityMatrix, List<String> previousOrder) {
+        super(similarityMatrix);
+        this.previousOrder = new ArrayList<>(previousOrder);
+        this.previousGrid = null;
+    }
+
+    /**
+     * Constructs a RepairAlgorithm with a compiled similarity matrix and the ordering to repair.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param previousOrder    The names of the products of the previous distribution, in the order they were placed.
+     */
+    public RepairAlgorithm(SimilarityMatrix similarityMatrix, List<String> previousOrder) {
+        super(similarityMatrix);
+        this.previousOrder = new ArrayList<>(previousOrder);
+        this.previousGrid = null;
+    }
+
+    /**
+     * Constructs a RepairAlgorithm with a compiled similarity matrix and the distribution to repair.
+     * The ordering is repaired with the sequence objective and the grid with the grid objective.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param previousOrder    The names of the products of the previous distribution, in the order they were placed.
+     * @param previousGrid     The names of the products of each row of the previous distribution, null in the empty cells.
+     */
+    public RepairAlgorithm(SimilarityMatrix similarityMatrix, List<String> previousOrder, List<? extends List<String>> previousGrid) {
+        super(similarityMatrix);
+        this.previousOrder = new ArrayList<>(previousOrder);
+        this.previousGrid = new ArrayList<>();
+        for (List<String> row : previousGrid) this.previousGrid.add(new ArrayList<>(row));
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Warm-start Repair").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Reads the ordering of the products of a distribution, undoing the fold of adaptToShelf:
+     * the even rows are read from left to right and the odd rows from right to left. Empty cells are skipped.
+     * @param layout The products of each row of the distribution.
+     * @return The names of the products in the order they were placed.
+     */
+    public static List<String> sequenceOf(List<? extends List<Product>> layout) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < layout.size(); i++) {
+            List<Product> row = layout.get(i);
+            for (int j = 0; j < row.size(); j++) {
+                Product product = row.get(i % 2 == 0 ? j : row.size() - 1 - j);
+                if (product != null) names.add(product.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Reads the products of each cell of a distribution.
+     * @param layout The products of each row of the distribution.
+     * @return The names of the products of each row, null in the empty cells.
+     */
+    public static List<List<String>> gridOf(List<? extends List<Product>> layout) {
+        List<List<String>> names = new ArrayList<>();
+        for (List<Product> row : layout) {
+            List<String> rowNames = new ArrayList<>();
+            for (Product product : row) rowNames.add(product == null ? null : product.getName());
+            names.add(rowNames);
+        }
+        return names;
+    }
+
+    /**
+     * Repairs the previous ordering for the current products.
+     * The previous products that are no longer in the matrix are deleted, the products of the matrix that were not in
+     * the previous ordering are inserted one by one where they lose the least similarity, and if the ordering does not
+     * fit in the distribution the products whose removal loses the least similarity are removed.
+     * The products next to every change are then improved with 2-opt moves.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The maximum number of improving moves. If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the repaired order.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int n = matrix.size();
+        boolean[] placed = new boolean[n];
+        boolean[] touched = new boolean[n];
+        List<Integer> tour = new ArrayList<>(n);
+
+        // Keep the previous products still in the list, the ones on both sides of a deleted product are touched
+        boolean gap = false;
+        for (String product : previousOrder) {
+            int id = matrix.indexOf(product);
+            if (id < 0 || placed[id]) {
+                gap = true;
+                if (!tour.isEmpty()) touched[tour.getLast()] = true;
+                continue;
+            }
+            if (gap) touched[id] = true;
+            gap = false;
+            placed[id] = true;
+            tour.add(id);
+        }
+        if (gap && !tour.isEmpty()) {
+            touched[tour.getFirst()] = true;
+            touched[tour.getLast()] = true;
+        }
+
+        // Cheapest insertion of the new products, the edge (a, b) is replaced by (a, v) and (v, b)
+        for (int v = 0; v < n; v++) {
+            if (placed[v]) continue;
+            int at = tour.size();
+            if (tour.size() >= 2) {
+                double best = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < tour.size(); i++) {
+                    int a = tour.get(i);
+                    int b = tour.get((i + 1) % tour.size());
+                    double gain = matrix.get(a, v) + matrix.get(v, b) - matrix.get(a, b);
+                    if (gain > best + TourMoves.EPSILON) {
+                        best = gain;
+                        at = i + 1;
+                    }
+                }
+            }
+            tour.add(at, v);
+            placed[v] = true;
+            touched[v] = true;
+            if (tour.size() == 1) continue;
+            touched[tour.get((at - 1 + tour.size()) % tour.size())] = true;
+            touched[tour.get((at + 1) % tour.size())] = true;
+        }
+
+        // Remove the products whose edges are worth the least until the ordering fits
+        while (tour.size() > Math.max(1, maxsize)) {
+            int worst = 0;
+            double worstLoss = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < tour.size(); i++) {
+                int a = tour.get((i - 1 + tour.size()) % tour.size());
+                int v = tour.get(i);
+                int b = tour.get((i + 1) % tour.size());
+                double loss = matrix.get(a, v) + matrix.get(v, b) - matrix.get(a, b);
+                if (loss < worstLoss - TourMoves.EPSILON) {
+                    worstLoss = loss;
+                    worst = i;
+                }
+            }
+            touched[tour.remove(worst)] = false;
+            touched[tour.get((worst - 1 + tour.size()) % tour.size())] = true;
+            touched[tour.get(worst % tour.size())] = true;
+        }
+
+        int[] result = new int[tour.size()];
+        int changes = 0;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tour.get(i);
+            if (touched[result[i]]) ++changes;
+        }
+        int[] around = new int[changes];
+        changes = 0;
+        for (int id : result) {
+            if (touched[id]) around[changes++] = id;
+        }
+        control.reportImprovement(matrix.tourScore(result), 0);
+        new TwoOptLocalSearch(matrix).optimizeAround(result, around, limit, control);
+        return result;
+    }
+
+    /**
+     * Repairs the previous grid for the current products.
+     * The previous products that are no longer in the matrix leave their cells empty, and every product of the matrix
+     * that is not in the grid goes to the free cell where it gains the most similarity with its adjacent products.
+     * If there is no free cell, it replaces the product whose cell it fits better, or it is left out if it fits no
+     * cell better. The cells next to every change are then improved with cell swaps.
+     * Without a previous grid, the previous ordering folded into the shelf is repaired.
+     * @param matrix The similarity matrix of the products to arrange.
+     * @param xsize  Represents the number of columns of the distribution
+     * @param ysize  Represents the number of rows of the distribution
+     * @param limit  The maximum number of improving swaps. If limit is less than 0, the code ignores the limit
+     * @return The row-major grid of product ids, with GridObjective.EMPTY in the empty cells.
+     */
+    @Override
+    protected int[] orderGrid(SimilarityMatrix matrix, int xsize, int ysize, int limit) {
+        int n = matrix.size();
+        int size = xsize * ysize;
+        int[] cells = new int[size];
+        Arrays.fill(cells, GridObjective.EMPTY);
+        boolean[] placed = new boolean[n];
+        boolean[] touched = new boolean[size];
+
+        // Keep the previous products still in the list in their cells, the cells around a deleted product are touched
+        String[] previous = previousCells(xsize, ysize);
+        for (int cell = 0; cell < size; cell++) {
+            if (previous[cell] == null) continue;
+            int id = matrix.indexOf(previous[cell]);
+            if (id < 0 || placed[id]) touchAround(touched, cell, xsize, ysize);
+            else {
+                cells[cell] = id;
+                placed[id] = true;
+            }
+        }
+
+        // The new products go to the cell where they gain the most, replacing a product only if they gain more than it
+        for (int v = 0; v < n; v++) {
+            if (placed[v]) continue;
+            int at = -1;
+            double best = Double.NEGATIVE_INFINITY;
+            boolean free = false;
+            for (int cell = 0; cell < size; cell++) {
+                boolean empty = cells[cell] == GridObjective.EMPTY;
+                if (free && !empty) continue;
+                double gain = adjacency(matrix, cells, xsize, ysize, cell, v);
+                if (!empty) gain -= adjacency(matrix, cells, xsize, ysize, cell, cells[cell]);
+                if ((empty && !free) || gain > best + TourMoves.EPSILON) {
+                    best = gain;
+                    at = cell;
+                    free = empty;
+                }
+            }
+            if (at < 0 || (!free && best <= TourMoves.EPSILON)) continue;
+            cells[at] = v;
+            placed[v] = true;
+            touchAround(touched, at, xsize, ysize);
+        }
+
+        int changes = 0;
+        for (boolean cell : touched) {
+            if (cell) ++changes;
+        }
+        int[] around = new int[changes];
+        changes = 0;
+        for (int cell = 0; cell < size; cell++) {
+            if (touched[cell]) around[changes++] = cell;
+        }
+        control.reportImprovement(GridObjective.score(matrix, cells, xsize, ysize), 0);
+        new GridLocalSearch(matrix).optimizeAround(cells, xsize, ysize, around, limit, control);
+        return cells;
+    }
+
+    /**
+     * Reads the product of each cell of the previous distribution, from the previous grid if there is one or else
+     * from the previous ordering folded as adaptToShelf does. Products outside the shelf are ignored.
+     * @param xsize The number of columns.
+     * @param ysize The number of rows.
+     * @return The name of the product of each cell in row-major order, null in the empty cells.
+     */
+    private String[] previousCells(int xsize, int ysize) {
+        String[] previous = new String[xsize * ysize];
+        if (previousGrid == null) {
+            for (int k = 0; k < previousOrder.size() && k < previous.length; k++) {
+                int row = k / xsize;
+                int column = row % 2 == 0 ? k % xsize : xsize - 1 - k % xsize;
+                previous[row * xsize + column] = previousOrder.get(k);
+            }
+            return previous;
+        }
+        for (int row = 0; row < previousGrid.size() && row < ysize; row++) {
+            List<String> names = previousGrid.get(row);
+            for (int column = 0; column < names.size() && column < xsize; column++) previous[row * xsize + column] = names.get(column);
+        }
+        return previous;
+    }
+
+    /**
+     * Calculates the similarity between a product placed at a cell and the products of its adjacent cells.
+     * @param matrix  The similarity matrix of the products.
+     * @param cells   The row-major grid.
+     * @param xsize   The number of columns.
+     * @param ysize   The number of rows.
+     * @param cell    The cell.
+     * @param product The product placed at the cell.
+     * @return The sum of the similarities.
+     */
+    private static double adjacency(SimilarityMatrix matrix, int[] cells, int xsize, int ysize, int cell, int product) {
+        int row = cell / xsize;
+        int column = cell % xsize;
+        double sum = 0;
+        if (column > 0 && cells[cell - 1] != GridObjective.EMPTY) sum += matrix.get(product, cells[cell - 1]);
+        if (column + 1 < xsize && cells[cell + 1] != GridObjective.EMPTY) sum += matrix.get(product, cells[cell + 1]);
+        if (row > 0 && cells[cell - xsize] != GridObjective.EMPTY) sum += matrix.get(product, cells[cell - xsize]);
+        if (row + 1 < ysize && cells[cell + xsize] != GridObjective.EMPTY) sum += matrix.get(product, cells[cell + xsize]);
+        return sum;
+    }
+
+    /**
+     * Marks a cell and its adjacent cells as touched.
+     * @param touched The touched cells.
+     * @param cell    The cell.
+     * @param xsize   The number of columns.
+     * @param ysize   The number of rows.
+     */
+    private static void touchAround(boolean[] touched, int cell, int xsize, int ysize) {
+        int row = cell / xsize;
+        int column = cell % xsize;
+        touched[cell] = true;
+        if (column > 0) touched[cell - 1] = true;
+        if (column + 1 < xsize) touched[cell + 1] = true;
+        if (row > 0) touched[cell - xsize] = true;
+        if (row + 1 < ysize) touched[cell + xsize] = true;
+    }
+}
@@ -0,0 +1,282 @@
+package org.domain.algorithms;
+
+/**
+ * SegmentMoves is the move engine of the local searches that relocate whole segments of a cyclic ordering of product ids.
+ * It provides Or-opt moves, which move a segment of 1 to MAX_SEGMENT products between two other products, optionally
+ * reversed, and restricted 3-opt moves, which exchange two consecutive segments of any length without reversing them.
+ * Swap and 2-opt moves miss these improvements when similar products form runs, because moving a run needs three
+ * edges to change at once.
+ * The deltas are computed in O(1) from positions, and the moves are applied as two or three segment reversals that keep a
+ * position array up to date, so they can be composed with any local search over an int[] ordering.
+ * The engine does not keep any state between calls, so a single instance can be shared between threads.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class SegmentMoves {
+    /**
+     * Maximum number of products of the segments moved by Or-opt.
+     */
+    public static final int MAX_SEGMENT = 3;
+
+    /**
+     * Number of products whose edges change with a move, which is the minimum length of the buffer given to improve.
+     */
+    public static final int CHANGED = 6;
+
+    private final SimilarityMatrix matrix;
+    private final int[][] neighbours;
+
+    /**
+     * Constructs a SegmentMoves with the default number of candidate neighbours.
+     * @param matrix The similarity matrix of the products.
+     */
+    public SegmentMoves(SimilarityMatrix matrix) {
+        this(matrix, TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Constructs a SegmentMoves.
+     * @param matrix     The similarity matrix of the products.
+     * @param neighbours The number of candidate neighbours of each product.
+     */
+    public SegmentMoves(SimilarityMatrix matrix, int neighbours) {
+        this.matrix = matrix;
+        this.neighbours = matrix.topNeighbours(neighbours);
+    }
+
+    /**
+     * Calculates the change of the cyclic score if the segment of len products that starts at position i is moved
+     * between the products at positions j and j + 1 (Or-opt move).
+     * @param matrix   The similarity matrix of the products.
+     * @param tour     The ordering of product ids.
+     * @param i        The position of the first product of the segment.
+     * @param len      The number of products of the segment.
+     * @param j        The position of the product after which the segment is placed, it can not be in the segment nor right before it.
+     * @param reversed If the segment is placed in reverse order.
+     * @return The new score minus the current score, or 0 if the move is not valid.
+     */
+    public static double orOptDelta(SimilarityMatrix matrix, int[] tour, int i, int len, int j, boolean reversed) {
+        int n = tour.length;
+        if (!isOrOpt(n, i, len, j)) return 0;
+        int s1 = tour[i];
+        int s2 = tour[(i + len - 1) % n];
+        int p = tour[TwoOptLocalSearch.prev(i, n)];
+        int q = tour[(i + len) % n];
+        int g = tour[j];
+        int h = tour[TwoOptLocalSearch.next(j, n)];
+        int first = reversed ? s2 : s1;
+        int last = reversed ? s1 : s2;
+        return matrix.get(p, q) + matrix.get(g, first) + matrix.get(last, h)
+                - matrix.get(p, s1) - matrix.get(s2, q) - matrix.get(g, h);
+    }
+
+    /**
+     * Moves the segment of len products that starts at position i between the products at positions j and j + 1.
+     * Only the shorter side of the ordering is rewritten, so products may change their position even outside the segment.
+     * @param tour     The ordering of product ids.
+     * @param pos      The position of each product in the ordering, it is kept up to date.
+     * @param i        The position of the first product of the segment.
+     * @param len      The number of products of the segment.
+     * @param j        The position of the product after which the segment is placed, it can not be in the segment nor right before it.
+     * @param reversed If the segment is placed in reverse order.
+     */
+    public static void orOpt(int[] tour, int[] pos, int i, int len, int j, boolean reversed) {
+        int n = tour.length;
+        if (!isOrOpt(n, i, len, j)) return;
+        int s1 = tour[i];
+        int s2 = tour[(i + len - 1) % n];
+        int g = tour[j];
+        int h = tour[TwoOptLocalSearch.next(j, n)];
+        // p S q ... g h becomes p q ... g S h, exchanging S with the products after it or with the ones before it
+        int after = (j - i + n) % n - len + 1;
+        if (2 * after <= n - len) exchange(tour, pos, TwoOptLocalSearch.prev(i, n), (i + len - 1) % n, j);
+        else exchange(tour, pos, j, TwoOptLocalSearch.prev(i, n), (i + len - 1) % n);
+        if (reversed) reconnect(tour, pos, g, s1, s2, h);
+    }
+
+    /**
+     * Calculates the change of the cyclic score if the segments between the positions i + 1 and j and between the
+     * positions j + 1 and k are exchanged (3-opt move without reversals).
+     * The positions must be in cyclic order starting from i, and different.
+     * @param matrix The similarity matrix of the products.
+     * @param tour   The ordering of product ids.
+     * @param i      The position of the product before the first segment.
+     * @param j      The position of the last product of the first segment.
+     * @param k      The position of the last product of the second segment.
+     * @return The new score minus the current score.
+     */
+    public static double threeOptDelta(SimilarityMatrix matrix, int[] tour, int i, int j, int k) {
+        int n = tour.length;
+        int a = tour[i];
+        int b = tour[TwoOptLocalSearch.next(i, n)];
+        int c = tour[j];
+        int d = tour[TwoOptLocalSearch.next(j, n)];
+        int e = tour[k];
+        int f = tour[TwoOptLocalSearch.next(k, n)];
+        return matrix.get(a, d) + matrix.get(e, b) + matrix.get(c, f)
+                - matrix.get(a, b) - matrix.get(c, d) - matrix.get(e, f);
+    }
+
+    /**
+     * Exchanges the segments between the positions i + 1 and j and between the positions j + 1 and k,
+     * so a b ... c d ... e f becomes a d ... e b ... c f.
+     * The positions must be in cyclic order starting from i, and different.
+     * @param tour The ordering of product ids.
+     * @param pos  The position of each product in the ordering, it is kept up to date.
+     * @param i    The position of the product before the first segment.
+     * @param j    The position of the last product of the first segment.
+     * @param k    The position of the last product of the second segment.
+     */
+    public static void exchange(int[] tour, int[] pos, int i, int j, int k) {
+        int n = tour.length;
+        int a = tour[i];
+        int b = tour[TwoOptLocalSearch.next(i, n)];
+        int c = tour[j];
+        int d = tour[TwoOptLocalSearch.next(j, n)];
+        int e = tour[k];
+        int f = tour[TwoOptLocalSearch.next(k, n)];
+        reconnect(tour, pos, a, b, e, f);    // a e ... d c ... b f
+        reconnect(tour, pos, a, e, d, c);    // a d ... e c ... b f
+        reconnect(tour, pos, e, c, b, f);    // a d ... e b ... c f
+    }
+
+    /**
+     * Looks for an improving Or-opt or restricted 3-opt move that places one of the candidates of a product next to it,
+     * and applies the first one found.
+     * The Or-opt moves take the segments that start or end at the product. The 3-opt moves replace the edge from the
+     * product to the next one by an edge to a candidate, and are only explored while the partial gain stays positive.
+     * @param tour    The ordering of product ids.
+     * @param pos     The position of each product in the ordering, or -1 if it is not in it. It is kept up to date.
+     * @param a       The product whose edges are considered.
+     * @param changed Receives the CHANGED products whose edges changed, if a move is applied.
+     * @return The gain of the applied move, or 0 if no improving move was found.
+     */
+    public double improve(int[] tour, int[] pos, int a, int[] changed) {
+        int n = tour.length;
+        if (n < 5) return 0;    // Every ordering of 4 products or less is reached with swaps and 2-opt moves
+        double gain = improveOrOpt(tour, pos, a, changed);
+        if (gain > 0) return gain;
+        return improveThreeOpt(tour, pos, a, changed);
+    }
+
+    /**
+     * Looks for an improving Or-opt move that moves a segment that starts or ends at a product next to one of its
+     * candidates, and applies the first one found.
+     * Only the candidates more similar to the product than one of its current neighbours are tried.
+     * @param tour    The ordering of product ids.
+     * @param pos     The position of each product in the ordering.
+     * @param a       The product whose segments are considered.
+     * @param changed Receives the products whose edges changed, if a move is applied.
+     * @return The gain of the applied move, or 0 if no improving move was found.
+     */
+    private double improveOrOpt(int[] tour, int[] pos, int a, int[] changed) {
+        int n = tour.length;
+        int ia = pos[a];
+        int maxLen = Math.min(MAX_SEGMENT, n - 3);
+        double worst = Math.min(matrix.get(a, tour[TwoOptLocalSearch.prev(ia, n)]), matrix.get(a, tour[TwoOptLocalSearch.next(ia, n)]));
+        for (int c : neighbours[a]) {
+            if (matrix.get(a, c) <= worst + TourMoves.EPSILON) break;
+            int ic = pos[c];
+            if (ic < 0) continue;
+            for (int len = 1; len <= maxLen; len++) {
+                for (int side = 0; side < (len == 1 ? 2 : 4); side++) {
+                    // The segment starts at a (sides 0 and 1) or ends at a (sides 2 and 3), and a is placed right after c
+                    // (sides 0 and 2) or right before c (sides 1 and 3)
+                    int i = side < 2 ? ia : (ia - len + 1 + n) % n;
+                    int j = side % 2 == 0 ? ic : TwoOptLocalSearch.prev(ic, n);
+                    boolean reversed = side == 1 || side == 2;
+                    if (!isOrOpt(n, i, len, j)) continue;
+                    double gain = orOptDelta(matrix, tour, i, len, j, reversed);
+                    if (gain <= TourMoves.EPSILON) continue;
+                    changed[0] = tour[TwoOptLocalSearch.prev(i, n)];
+                    changed[1] = tour[i];
+                    changed[2] = tour[(i + len - 1) % n];
+                    changed[3] = tour[(i + len) % n];
+                    changed[4] = tour[j];
+                    changed[5] = tour[TwoOptLocalSearch.next(j, n)];
+                    orOpt(tour, pos, i, len, j, reversed);
+                    return gain;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Looks for an improving 3-opt move a b ... c d ... e f to a d ... e b ... c f, where d is a candidate of a and
+     * e is a candidate of b, and applies the first one found.
+     * Candidates are sorted by decreasing similarity, so each scan stops as soon as the partial gain is not positive.
+     * @param tour    The ordering of product ids.
+     * @param pos     The position of each product in the ordering.
+     * @param a       The product whose edge to the next product is replaced.
+     * @param changed Receives the products whose edges changed, if a move is applied.
+     * @return The gain of the applied move, or 0 if no improving move was found.
+     */
+    private double improveThreeOpt(int[] tour, int[] pos, int a, int[] changed) {
+        int n = tour.length;
+        int i = pos[a];
+        int b = tour[TwoOptLocalSearch.next(i, n)];
+        double ab = matrix.get(a, b);
+        for (int d : neighbours[a]) {
+            double g1 = matrix.get(a, d) - ab;
+            if (g1 <= TourMoves.EPSILON) break;
+            if (pos[d] < 0) continue;
+            int offD = (pos[d] - i + n) % n;
+            if (offD < 2) continue;
+            int j = TwoOptLocalSearch.prev(pos[d], n);
+            int c = tour[j];
+            double cd = matrix.get(c, d);
+            for (int e : neighbours[b]) {
+                double g2 = g1 + matrix.get(e, b) - cd;
+                if (g2 <= TourMoves.EPSILON) break;
+                if (pos[e] < 0) continue;
+                int offE = (pos[e] - i + n) % n;
+                if (offE < offD) continue;
+                int k = pos[e];
+                int f = tour[TwoOptLocalSearch.next(k, n)];
+                double gain = g2 + matrix.get(c, f) - matrix.get(e, f);
+                if (gain <= TourMoves.EPSILON) continue;
+                changed[0] = a;
+                changed[1] = b;
+                changed[2] = c;
+                changed[3] = d;
+                changed[4] = e;
+                changed[5] = f;
+                exchange(tour, pos, i, j, k);
+                return gain;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Indicates if an Or-opt move is valid: the segment fits in the ordering leaving two products out, and the product
+     * after which it is placed is neither in the segment nor right before it.
+     * @param n   The length of the ordering.
+     * @param i   The position of the first product of the segment.
+     * @param len The number of products of the segment.
+     * @param j   The position of the product after which the segment is placed.
+     * @return True if the move is valid.
+     */
+    private static boolean isOrOpt(int n, int i, int len, int j) {
+        if (len < 1 || len > n - 2) return false;
+        int offset = (j - i + n) % n;
+        return offset >= len && offset < n - 1;
+    }
+
+    /**
+     * Replaces the edges (a, b) and (c, d) by (a, c) and (b, d), where b follows a and d follows c in the same direction,
+     * by reversing the segment from b to c. It does not depend on the direction in which the ordering is stored.
+     * @param tour The ordering of product ids.
+     * @param pos  The position of each product, it is kept up to date.
+     * @param a    The product before the reversed segment.
+     * @param b    The first product of the reversed segment.
+     * @param c    The last product of the reversed segment.
+     * @param d    The product after the reversed segment.
+     */
+    private static void reconnect(int[] tour, int[] pos, int a, int b, int c, int d) {
+        int n = tour.length;
+        if (tour[TwoOptLocalSearch.next(pos[a], n)] == b) TwoOptLocalSearch.reverse(tour, pos, pos[b], pos[c]);
+        else TwoOptLocalSearch.reverse(tour, pos, pos[c], pos[b]);
+    }
+}
@@ -0,0 +1,334 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SimilarityMatrix is a compiled, dense version of the similarity map kept by the ProductManager.
+ * Every product is mapped to an integer id in the range [0, size) and the similarity scores are
+ * stored in a primitive row-major array, so the algorithms can look up a score with a single array access.
+ * Similarities are symmetric: if only one direction is present in the map it is used for both.
+ * Missing similarities are stored as 0.
+ * When it is compiled with the NeighbourIndex of the similarity map, the candidate lists of the products are read from
+ * the index instead of comparing every pair of products.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class SimilarityMatrix {
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final double[] scores;
+    private final NeighbourIndex index;
+    private final Map<Integer, int[][]> neighbours = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles a similarity matrix for the given products.
+     * The id of each product is its position in the list.
+     *
+     * @param products     The products to index.
+     * @param similarities The similarity map (key: product name, value: map of similar products and their scores).
+     */
+    public SimilarityMatrix(List<Product> products, Map<String, Map<String, Double>> similarities) {
+        this(namesOf(products), similarities, null);
+    }
+
+    /**
+     * Compiles a similarity matrix for the given products that reads the candidate lists from a neighbour index.
+     * The id of each product is its position in the list.
+     *
+     * @param products     The products to index.
+     * @param similarities The similarity map (key: product name, value: map of similar products and their scores).
+     * @param index        The neighbour index kept up to date with the similarity map, or null to compute the lists.
+     */
+    public SimilarityMatrix(List<Product> products, Map<String, Map<String, Double>> similarities, NeighbourIndex index) {
+        this(namesOf(products), similarities, index);
+    }
+
+    /**
+     * Compiles a similarity matrix for every product that appears in the similarity map.
+     *
+     * @param similarities The similarity map (key: product name, value: map of similar products and their scores).
+     */
+    public SimilarityMatrix(Map<String, Map<String, Double>> similarities) {
+        this(namesOf(similarities), similarities, null);
+    }
+
+    /**
+     * Compiles a similarity matrix for the given product names.
+     *
+     * @param names        The product names to index, the id of each product is its position in the array.
+     * @param similarities The similarity map.
+     * @param index        The neighbour index of the similarity map, or null.
+     */
+    private SimilarityMatrix(String[] names, Map<String, Map<String, Double>> similarities, NeighbourIndex index) {
+        this.names = names;
+        this.index = index;
+        this.ids = indexNames(names);
+        int n = names.length;
+        this.scores = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            Map<String, Double> row = similarities.get(names[i]);
+            for (int j = i + 1; j < n; j++) {
+                Double value = row == null ? null : row.get(names[j]);
+                if (value == null) {
+                    Map<String, Double> other = similarities.get(names[j]);
+                    value = other == null ? null : other.get(names[i]);
+                }
+                double score = value == null ? 0.0 : value;
+                scores[i * n + j] = score;
+                scores[j * n + i] = score;
+            }
+        }
+    }
+
+    /**
+     * Builds a matrix from already compiled scores.
+     *
+     * @param names  The product names, the id of each product is its position in the array.
+     * @param scores The row-major scores.
+     * @param index  The neighbour index of the similarity map the scores come from, or null.
+     */
+    private SimilarityMatrix(String[] names, double[] scores, NeighbourIndex index) {
+        this.names = names;
+        this.index = index;
+        this.ids = indexNames(names);
+        this.scores = scores;
+    }
+
+    /**
+     * Retrieves the number of products indexed by the matrix.
+     *
+     * @return The number of products.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Retrieves the id of a product.
+     *
+     * @param name The name of the product.
+     * @return The id of the product, or -1 if the product is not indexed.
+     */
+    public int indexOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retrieves the name of the product with the given id.
+     *
+     * @param id The id of the product.
+     * @return The name of the product.
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Retrieves the similarity score between two products by id.
+     *
+     * @param i The id of the first product.
+     * @param j The id of the second product.
+     * @return The similarity score between the two products.
+     */
+    public double get(int i, int j) {
+        return scores[i * names.length + j];
+    }
+
+    /**
+     * Retrieves the similarity score between two products by name.
+     *
+     * @param p1 The name of the first product.
+     * @param p2 The name of the second product.
+     * @return The similarity score between the two products, or 0 if any of them is not indexed.
+     */
+    public double get(String p1, String p2) {
+        int i = indexOf(p1);
+        int j = indexOf(p2);
+        if (i < 0 || j < 0) return 0.0;
+        return get(i, j);
+    }
+
+    /**
+     * Calculates the cyclic score of an ordering of product ids.
+     * It is the sum of similarities between consecutive products plus the similarity between the last and the first.
+     *
+     * @param tour The ordering of product ids.
+     * @return The total similarity of the ordering.
+     */
+    public double tourScore(int[] tour) {
+        if (tour.length == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < tour.length - 1; i++) {
+            sum += get(tour[i], tour[i + 1]);
+        }
+        return sum + get(tour[0], tour[tour.length - 1]);
+    }
+
+    /**
+     * Computes, for every product, the ids of its k most similar products sorted by decreasing similarity.
+     * The local search algorithms use these lists to restrict the moves they evaluate, and the greedy construction
+     * to find the most similar unused product. The lists are computed once for each k and shared, so they must not be
+     * modified. With a neighbour index, a product whose k most similar products of the catalog are not all indexed by
+     * this matrix has its list completed by comparing it with every product.
+     *
+     * @param k The number of neighbours of each product, it is reduced to size - 1 if it is bigger.
+     * @return The neighbour lists indexed by product id.
+     */
+    public int[][] topNeighbours(int k) {
+        int n = names.length;
+        return neighbours.computeIfAbsent(Math.max(0, Math.min(k, n - 1)), this::computeNeighbours);
+    }
+
+    /**
+     * Computes the k most similar products of every product.
+     *
+     * @param k The number of neighbours of each product, at most size - 1.
+     * @return The neighbour lists indexed by product id.
+     */
+    private int[][] computeNeighbours(int k) {
+        int n = names.length;
+        int[][] neighbours = new int[n][k];
+        for (int u = 0; u < n; u++) {
+            if (index == null || k > index.getK() || !fromIndex(u, neighbours[u])) scanNeighbours(u, neighbours[u]);
+        }
+        return neighbours;
+    }
+
+    /**
+     * Fills the list of a product with its most similar products of the neighbour index that this matrix indexes.
+     *
+     * @param u    The id of the product.
+     * @param list The list to fill.
+     * @return True if the index had enough neighbours indexed by this matrix to fill the list.
+     */
+    private boolean fromIndex(int u, int[] list) {
+        int count = 0;
+        for (String name : index.neighbours(names[u])) {
+            if (count == list.length) break;
+            int v = indexOf(name);
+            if (v >= 0 && v != u) list[count++] = v;
+        }
+        return count == list.length;
+    }
+
+    /**
+     * Fills the list of a product by comparing it with every other product.
+     *
+     * @param u    The id of the product.
+     * @param list The list to fill.
+     */
+    private void scanNeighbours(int u, int[] list) {
+        int n = names.length;
+        int k = list.length;
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (u == v) continue;
+            double score = get(u, v);
+            if (count == k && (k == 0 || score <= get(u, list[k - 1]))) continue;
+            // Insertion into the sorted list, dropping the last one if it is full
+            int pos = count < k ? count++ : k - 1;
+            while (pos > 0 && get(u, list[pos - 1]) < score) {
+                list[pos] = list[pos - 1];
+                --pos;
+            }
+            list[pos] = v;
+        }
+    }
+
+    /**
+     * Returns a dense matrix whose ids are the positions of the products in the given list.
+     * Products that are not indexed by this matrix have similarity 0 with every other product.
+     * If the list is already indexed in the same order, this matrix is returned.
+     *
+     * @param products The products to index.
+     * @return A matrix indexed by the positions of the products in the list.
+     */
+    public SimilarityMatrix restrictTo(List<Product> products) {
+        int n = products.size();
+        int[] map = new int[n];
+        boolean same = n == names.length;
+        for (int i = 0; i < n; i++) {
+            map[i] = indexOf(products.get(i).getName());
+            same = same && map[i] == i;
+        }
+        if (same) return this;
+
+        double[] local = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            if (map[i] < 0) continue;
+            for (int j = 0; j < n; j++) {
+                if (map[j] >= 0 && i != j) local[i * n + j] = get(map[i], map[j]);
+            }
+        }
+        return new SimilarityMatrix(namesOf(products), local, index);
+    }
+
+    /**
+     * Returns a dense matrix of some of the products of this matrix, whose ids are their positions in the given array.
+     *
+     * @param ids The ids of the products in this matrix, without repetitions.
+     * @return A matrix indexed by the positions of the ids in the array.
+     */
+    public SimilarityMatrix restrictTo(int[] ids) {
+        int k = ids.length;
+        String[] local = new String[k];
+        double[] sub = new double[k * k];
+        for (int i = 0; i < k; i++) {
+            local[i] = names[ids[i]];
+            for (int j = 0; j < k; j++) {
+                if (i != j) sub[i * k + j] = get(ids[i], ids[j]);
+            }
+        }
+        return new SimilarityMatrix(local, sub, index);
+    }
+
+    /**
+     * Collects the names of a list of products.
+     *
+     * @param products The products.
+     * @return The names of the products, in the same order.
+     */
+    private static String[] namesOf(List<Product> products) {
+        String[] names = new String[products.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = products.get(i).getName();
+        }
+        return names;
+    }
+
+    /**
+     * Collects every product name that appears in a similarity map.
+     *
+     * @param similarities The similarity map.
+     * @return The names of the products found in the map.
+     */
+    private static String[] namesOf(Map<String, Map<String, Double>> similarities) {
+        Set<String> names = new LinkedHashSet<>(similarities.keySet());
+        for (Map<String, Double> row : similarities.values()) {
+            names.addAll(row.keySet());
+        }
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Maps each name to its position in the array.
+     *
+     * @param names The product names.
+     * @return A map from product name to id.
+     */
+    private static Map<String, Integer> indexNames(String[] names) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,182 @@
+package org.domain.algorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * SimulatedAnnealingAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist with
+ * Simulated Annealing. Starting from the greedy ordering, it applies random swap, 2-opt and insertion moves,
+ * always accepting improvements and accepting worse orderings with a probability that decreases with the temperature.
+ * The temperature cools exponentially from the initial to the final temperature over a wall-clock budget.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class SimulatedAnnealingAlgorithm extends AbstractAlgorithm {
+    /**
+     * Time budget in milliseconds used when no limit is given.
+     */
+    public static final int DEFAULT_BUDGET_MILLIS = 1000;
+
+    /**
+     * Default initial temperature, in the same units as the similarities.
+     */
+    public static final double DEFAULT_INITIAL_TEMPERATURE = 0.1;
+
+    /**
+     * Default final temperature, in the same units as the similarities.
+     */
+    public static final double DEFAULT_FINAL_TEMPERATURE = 0.0001;
+
+    /**
+     * Number of iterations between two checks of the clock.
+     */
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private String name = "Simulated Annealing";
+
+    private final double initialTemperature;
+    private final double finalTemperature;
+    private final long seed;
+
+    private long iterations;
+    private double[] trace = new double[0];
+
+    /**
+     * Constructs a SimulatedAnnealingAlgorithm with a similarity matrix and the default cooling schedule.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public SimulatedAnnealingAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.initialTemperature = DEFAULT_INITIAL_TEMPERATURE;
+        this.finalTemperature = DEFAULT_FINAL_TEMPERATURE;
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Constructs a SimulatedAnnealingAlgorithm with a compiled similarity matrix and the default cooling schedule.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public SimulatedAnnealingAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, DEFAULT_INITIAL_TEMPERATURE, DEFAULT_FINAL_TEMPERATURE, System.nanoTime());
+    }
+
+    /**
+     * Constructs a SimulatedAnnealingAlgorithm with a compiled similarity matrix and a cooling schedule.
+     * @param similarityMatrix   The compiled similarity matrix of the products to arrange.
+     * @param initialTemperature The temperature at the start of the run, must be positive.
+     * @param finalTemperature   The temperature when the budget expires, must be positive.
+     * @param seed               The seed of the random moves.
+     */
+    public SimulatedAnnealingAlgorithm(SimilarityMatrix similarityMatrix, double initialTemperature, double finalTemperature, long seed) {
+        super(similarityMatrix);
+        this.initialTemperature = initialTemperature;
+        this.finalTemperature = finalTemperature;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Simulated Annealing").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of moves evaluated by the last arrangement.
+     * @return The number of iterations.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Retrieves the best score after each improvement of the last arrangement.
+     * @return The best scores found, in increasing order.
+     */
+    public double[] getTrace() {
+        return trace.clone();
+    }
+
+    /**
+     * Indicates that the annealing can start from a start ordering.
+     * @return True.
+     */
+    @Override
+    public boolean supportsStartOrder() {
+        return true;
+    }
+
+    /**
+     * Arranges the products with Simulated Annealing during the time budget, starting from the start ordering if there
+     * is one, or else from the greedy ordering of a random product.
+     * The ordering, the best ordering and the trace are preallocated, so the loop does not allocate
+     * except to grow the trace.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   Time budget in milliseconds. If limit is less than 0, the time left until the deadline of the
+     *                SolverControl is used, or the default budget if it has no deadline. The budget never goes past the deadline
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        int[] tour = initialOrder(matrix, maxsize, rand.nextInt(matrix.size()));
+        int n = tour.length;
+        int[] best = tour.clone();
+        double current = matrix.tourScore(tour);
+        double bestScore = current;
+        double[] scores = new double[64];
+        int traced = 0;
+        scores[traced++] = bestScore;
+        control.reportImprovement(bestScore, 0);
+        iterations = 0;
+
+        long millis = limit < 0 ? DEFAULT_BUDGET_MILLIS : limit;
+        long remaining = control.getRemainingMillis();
+        if (remaining != Long.MAX_VALUE) millis = limit < 0 ? remaining : Math.min(millis, remaining);
+        long budget = millis * 1_000_000L;
+        long start = System.nanoTime();
+        double ratio = finalTemperature / initialTemperature;
+        double temperature = initialTemperature;
+
+        while (n >= 4) {
+            if (iterations % CLOCK_INTERVAL == 0) {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= budget || control.shouldStop()) break;
+                temperature = initialTemperature * Math.pow(ratio, (double) elapsed / budget);
+            }
+            ++iterations;
+
+            int move = rand.nextInt(3);
+            int i = rand.nextInt(n);
+            int j = rand.nextInt(n - 1);
+            if (j >= i) ++j;
+            double delta;
+            if (move == 0) delta = TourMoves.swapDelta(matrix, tour, i, j);
+            else if (move == 1) delta = TourMoves.twoOptDelta(matrix, tour, Math.min(i, j), Math.max(i, j));
+            else delta = TourMoves.insertionDelta(matrix, tour, i, j);
+
+            if (delta < 0 && rand.nextDouble() >= Math.exp(delta / temperature)) continue;
+            if (move == 0) TourMoves.swap(tour, i, j);
+            else if (move == 1) TourMoves.reverse(tour, Math.min(i, j), Math.max(i, j));
+            else TourMoves.insert(tour, i, j);
+            current += delta;
+
+            if (current > bestScore + TourMoves.EPSILON) {
+                bestScore = current;
+                System.arraycopy(tour, 0, best, 0, n);
+                if (traced == scores.length) scores = Arrays.copyOf(scores, traced * 2);
+                scores[traced++] = bestScore;
+                control.reportImprovement(bestScore, iterations);
+            }
+        }
+        trace = Arrays.copyOf(scores, traced);
+        return best;
+    }
+}
@@ -0,0 +1,107 @@
+package org.domain.algorithms;
+
+/**
+ * SolverControl lets the caller of an algorithm bound and observe its run.
+ * It holds an optional deadline, a cancellation flag that can be raised from any thread and an optional
+ * listener that receives every improvement. The algorithms check it periodically and, when they have to stop,
+ * return the best ordering found so far instead of failing.
+ * A SolverControl measures the time from its creation, so a new one must be created for every run.
+ * A control can have a parent, so that the runs nested in another run also stop when the outer one does.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class SolverControl {
+    private final long start;
+    private final long budgetNanos;
+    private final ProgressListener listener;
+    private final SolverControl parent;
+
+    private volatile boolean cancelled;
+    private double bestReported = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Constructs a SolverControl without deadline nor listener, the algorithm only stops if it is cancelled.
+     */
+    public SolverControl() {
+        this(-1, null);
+    }
+
+    /**
+     * Constructs a SolverControl.
+     * @param budgetMillis The time in milliseconds the algorithm may run. If it is less than 0, there is no deadline.
+     * @param listener     The listener of the improvements, or null.
+     */
+    public SolverControl(long budgetMillis, ProgressListener listener) {
+        this(null, budgetMillis, listener);
+    }
+
+    /**
+     * Constructs a SolverControl nested in another one. It has to stop when its own deadline passes, when it is
+     * cancelled or when its parent has to stop.
+     * @param parent       The control of the outer run, or null.
+     * @param budgetMillis The time in milliseconds the algorithm may run. If it is less than 0, there is no deadline.
+     * @param listener     The listener of the improvements, or null.
+     */
+    public SolverControl(SolverControl parent, long budgetMillis, ProgressListener listener) {
+        this.start = System.nanoTime();
+        this.budgetNanos = budgetMillis < 0 ? -1 : budgetMillis * 1_000_000L;
+        this.listener = listener;
+        this.parent = parent;
+    }
+
+    /**
+     * Asks the algorithm to stop as soon as possible and return the best ordering found.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Indicates if the run has been cancelled.
+     * @return True if cancel has been called on this control or on its parent.
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Indicates if the algorithm has to stop, because the run was cancelled, the deadline has passed or the parent has to stop.
+     * @return True if the algorithm has to stop.
+     */
+    public boolean shouldStop() {
+        return cancelled || (budgetNanos >= 0 && System.nanoTime() - start >= budgetNanos)
+                || (parent != null && parent.shouldStop());
+    }
+
+    /**
+     * Retrieves the milliseconds elapsed since the control was created.
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    /**
+     * Retrieves the milliseconds left until the deadline.
+     * The deadline of the parent is taken into account.
+     * @return The remaining time in milliseconds, 0 if the deadline has passed, or Long.MAX_VALUE if there is no deadline.
+     */
+    public long getRemainingMillis() {
+        long remaining = parent == null ? Long.MAX_VALUE : parent.getRemainingMillis();
+        if (budgetNanos < 0) return remaining;
+        return Math.min(remaining, Math.max(0, (budgetNanos - (System.nanoTime() - start)) / 1_000_000L));
+    }
+
+    /**
+     * Notifies the listener of a new best ordering.
+     * Only scores higher than every score reported before reach the listener, so the workers of a parallel
+     * algorithm can report their own improvements without coordinating.
+     * @param score     The total similarity of the ordering.
+     * @param iteration The iteration of the algorithm in which the ordering was found.
+     */
+    public synchronized void reportImprovement(double score, long iteration) {
+        if (score <= bestReported) return;
+        bestReported = score;
+        if (listener != null) listener.onImprovement(new SolverProgress(score, getElapsedMillis(), iteration));
+    }
+}
@@ -0,0 +1,55 @@
+package org.domain.algorithms;
+
+/**
+ * SolverProgress describes an improvement found by an algorithm: the score of the new best ordering,
+ * the time elapsed since the run started and the iteration in which it was found.
+ * The meaning of an iteration depends on the algorithm (visited nodes, applied moves, evaluated moves...).
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class SolverProgress {
+    private final double score;
+    private final long elapsedMillis;
+    private final long iteration;
+
+    /**
+     * Constructs a SolverProgress.
+     * @param score         The total similarity of the new best ordering.
+     * @param elapsedMillis The milliseconds elapsed since the run started.
+     * @param iteration     The iteration of the algorithm in which the ordering was found.
+     */
+    public SolverProgress(double score, long elapsedMillis, long iteration) {
+        this.score = score;
+        this.elapsedMillis = elapsedMillis;
+        this.iteration = iteration;
+    }
+
+    /**
+     * Retrieves the total similarity of the new best ordering.
+     * @return The score.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Retrieves the milliseconds elapsed since the run started.
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Retrieves the iteration of the algorithm in which the ordering was found.
+     * @return The iteration.
+     */
+    public long getIteration() {
+        return iteration;
+    }
+
+    @Override
+    public String toString() {
+        return "Score " + score + " after " + elapsedMillis + " ms (iteration " + iteration + ")";
+    }
+}
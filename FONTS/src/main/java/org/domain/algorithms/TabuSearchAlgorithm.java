@@ -0,0 +1,172 @@
+package org.domain.algorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * TabuSearchAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist with Tabu Search.
+ * Starting from the greedy ordering, every iteration applies the best swap or 2-opt move that places a product next to
+ * one of its most similar products, even if it makes the ordering worse, so the search leaves local optima without
+ * random restarts. The products moved by a move are tabu for the next iterations, and a tabu move is only allowed if
+ * it finds a better ordering than the best one (aspiration). Every move is scored by the few edges it changes.
+ * The search is deterministic: the same products and similarities always give the same ordering.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class TabuSearchAlgorithm extends AbstractAlgorithm {
+    /**
+     * Number of iterations a moved product stays tabu when no tenure is given.
+     */
+    public static final int DEFAULT_TENURE = 10;
+
+    /**
+     * Number of iterations without improving the best ordering after which the search stops when no limit is given.
+     */
+    public static final int DEFAULT_STALL_ITERATIONS = 500;
+
+    /**
+     * Number of iterations between two checks of the SolverControl.
+     */
+    private static final int CONTROL_INTERVAL = 16;
+
+    private String name = "Tabu Search";
+
+    private final int tenure;
+
+    private long iterations;
+
+    /**
+     * Constructs a TabuSearchAlgorithm with a similarity matrix and the default tenure.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public TabuSearchAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.tenure = DEFAULT_TENURE;
+    }
+
+    /**
+     * Constructs a TabuSearchAlgorithm with a compiled similarity matrix and the default tenure.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public TabuSearchAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, DEFAULT_TENURE);
+    }
+
+    /**
+     * Constructs a TabuSearchAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param tenure           The number of iterations a moved product stays tabu, at least 1.
+     *                         It is reduced to a quarter of the products on small lists.
+     */
+    public TabuSearchAlgorithm(SimilarityMatrix similarityMatrix, int tenure) {
+        super(similarityMatrix);
+        this.tenure = Math.max(1, tenure);
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "Tabu Search").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of iterations of the last run.
+     * @return The number of moves applied.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Arranges the products with Tabu Search.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The maximum number of iterations. If limit is less than 0, the search stops after
+     *                DEFAULT_STALL_ITERATIONS iterations without improving the best ordering.
+     *                The search always stops when the SolverControl asks to, so its deadline bounds the time
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int[] tour = greedyOrder(matrix, maxsize, 0);
+        int n = tour.length;
+        int[] best = tour.clone();
+        double current = matrix.tourScore(tour);
+        double bestScore = current;
+        control.reportImprovement(bestScore, 0);
+        iterations = 0;
+        if (n < 4) return best;    // Every ordering of 3 products or less has the same cyclic score
+
+        int[][] candidates = matrix.topNeighbours(TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+        int[] pos = new int[matrix.size()];
+        Arrays.fill(pos, -1);
+        for (int i = 0; i < n; i++) pos[tour[i]] = i;
+        long[] tabuUntil = new long[matrix.size()];
+        int effectiveTenure = Math.max(1, Math.min(tenure, n / 4));
+        long stall = 0;
+
+        while (limit < 0 ? stall < DEFAULT_STALL_ITERATIONS : iterations < limit) {
+            if (iterations % CONTROL_INTERVAL == 0 && control.shouldStop()) break;
+
+            // Best admissible move: kind 0 swaps positions i and j, kind 1 reverses the segment from i to j
+            int bestKind = -1;
+            int bestI = 0;
+            int bestJ = 0;
+            double bestDelta = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                int a = tour[i];
+                int next = i == n - 1 ? 0 : i + 1;
+                int prev = i == 0 ? n - 1 : i - 1;
+                for (int c : candidates[a]) {
+                    int j = pos[c];
+                    if (j < 0 || j == next || j == prev) continue;
+                    // Reversing the segment after a up to c, or from c up to the one before a, joins a and c
+                    int from = j > i ? next : j;
+                    int to = j > i ? j : i - 1;
+                    for (int kind = 0; kind < 2; kind++) {
+                        int x = kind == 0 ? next : from;
+                        int y = kind == 0 ? j : to;
+                        double delta = kind == 0 ? TourMoves.swapDelta(matrix, tour, x, y) : TourMoves.twoOptDelta(matrix, tour, x, y);
+                        if (delta <= bestDelta) continue;
+                        boolean tabu = tabuUntil[tour[x]] > iterations || tabuUntil[tour[y]] > iterations;
+                        if (tabu && current + delta <= bestScore + TourMoves.EPSILON) continue;
+                        bestKind = kind;
+                        bestI = x;
+                        bestJ = y;
+                        bestDelta = delta;
+                    }
+                }
+            }
+            if (bestKind < 0) break;    // Every move is tabu
+
+            ++iterations;
+            tabuUntil[tour[bestI]] = iterations + effectiveTenure;
+            tabuUntil[tour[bestJ]] = iterations + effectiveTenure;
+            if (bestKind == 0) {
+                TourMoves.swap(tour, bestI, bestJ);
+                pos[tour[bestI]] = bestI;
+                pos[tour[bestJ]] = bestJ;
+            }
+            else {
+                TourMoves.reverse(tour, bestI, bestJ);
+                for (int k = bestI; k <= bestJ; k++) pos[tour[k]] = k;
+            }
+            current += bestDelta;
+
+            if (current > bestScore + TourMoves.EPSILON) {
+                bestScore = current;
+                System.arraycopy(tour, 0, best, 0, n);
+                control.reportImprovement(bestScore, iterations);
+                stall = 0;
+            }
+            else ++stall;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,159 @@
+package org.domain.algorithms;
+
+/**
+ * TourMoves groups the moves that the local search algorithms apply over a cyclic ordering of product ids.
+ * Each move has a delta method, which returns the change of the cyclic score in O(1) without modifying
+ * the ordering, and an apply method, which performs the move in place.
+ * The deltas rely on the similarity matrix being symmetric.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public final class TourMoves {
+    /**
+     * Minimum gain for a move to be considered an improvement, it avoids cycling on rounding errors.
+     */
+    public static final double EPSILON = 1e-12;
+
+    private TourMoves() {}
+
+    /**
+     * Calculates the change of the cyclic score if the products at positions i and j are swapped.
+     * Only the edges touching the two positions change, so at most four edges are evaluated.
+     * @param matrix The similarity matrix of the products.
+     * @param tour   The ordering of product ids.
+     * @param i      The first position.
+     * @param j      The second position.
+     * @return The new score minus the current score.
+     */
+    public static double swapDelta(SimilarityMatrix matrix, int[] tour, int i, int j) {
+        int n = tour.length;
+        if (i == j || n < 4) return 0;    // Every ordering of 3 products or less has the same cyclic score
+        if (i > j) {
+            int aux = i;
+            i = j;
+            j = aux;
+        }
+        int a = tour[i];
+        int b = tour[j];
+        int prevA = tour[i == 0 ? n - 1 : i - 1];
+        int nextA = tour[i + 1];
+        int prevB = tour[j - 1];
+        int nextB = tour[j == n - 1 ? 0 : j + 1];
+
+        if (j == i + 1) {   // b goes right after a
+            return matrix.get(prevA, b) + matrix.get(a, nextB) - matrix.get(prevA, a) - matrix.get(b, nextB);
+        }
+        if (i == 0 && j == n - 1) {     // a goes right after b, closing the cycle
+            return matrix.get(prevB, a) + matrix.get(b, nextA) - matrix.get(prevB, b) - matrix.get(a, nextA);
+        }
+        return matrix.get(prevA, b) + matrix.get(b, nextA) + matrix.get(prevB, a) + matrix.get(a, nextB)
+                - matrix.get(prevA, a) - matrix.get(a, nextA) - matrix.get(prevB, b) - matrix.get(b, nextB);
+    }
+
+    /**
+     * Swaps the products at positions i and j.
+     * @param tour The ordering of product ids.
+     * @param i    The first position.
+     * @param j    The second position.
+     */
+    public static void swap(int[] tour, int i, int j) {
+        int aux = tour[i];
+        tour[i] = tour[j];
+        tour[j] = aux;
+    }
+
+    /**
+     * Calculates the change of the cyclic score if the segment between positions i and j is reversed (2-opt move).
+     * Only the two edges at the ends of the segment change.
+     * @param matrix The similarity matrix of the products.
+     * @param tour   The ordering of product ids.
+     * @param i      The first position of the segment.
+     * @param j      The last position of the segment, not lower than i.
+     * @return The new score minus the current score.
+     */
+    public static double twoOptDelta(SimilarityMatrix matrix, int[] tour, int i, int j) {
+        int n = tour.length;
+        if (i == j || n < 4 || (i == 0 && j == n - 1)) return 0;
+        int a = tour[i == 0 ? n - 1 : i - 1];
+        int b = tour[i];
+        int c = tour[j];
+        int d = tour[j == n - 1 ? 0 : j + 1];
+        return matrix.get(a, c) + matrix.get(b, d) - matrix.get(a, b) - matrix.get(c, d);
+    }
+
+    /**
+     * Reverses the segment between positions i and j.
+     * @param tour The ordering of product ids.
+     * @param i    The first position of the segment.
+     * @param j    The last position of the segment, not lower than i.
+     */
+    public static void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            swap(tour, i++, j--);
+        }
+    }
+
+    /**
+     * Calculates the change of the cyclic score if the product at position i is moved to position j,
+     * shifting the products in between.
+     * @param matrix The similarity matrix of the products.
+     * @param tour   The ordering of product ids.
+     * @param i      The current position of the product.
+     * @param j      The position of the product after the move.
+     * @return The new score minus the current score.
+     */
+    public static double insertionDelta(SimilarityMatrix matrix, int[] tour, int i, int j) {
+        int n = tour.length;
+        if (i == j || n < 4) return 0;
+        if ((i == 0 && j == n - 1) || (i == n - 1 && j == 0)) return 0;     // It is a rotation of the cycle
+        int x = tour[i];
+        int prev = tour[i == 0 ? n - 1 : i - 1];
+        int next = tour[i == n - 1 ? 0 : i + 1];
+        // The product is placed between u and v, which are consecutive once it is removed
+        int u;
+        int v;
+        if (j > i) {
+            u = tour[j];
+            v = tour[j == n - 1 ? 0 : j + 1];
+        }
+        else {
+            u = tour[j == 0 ? n - 1 : j - 1];
+            v = tour[j];
+        }
+        return matrix.get(prev, next) - matrix.get(prev, x) - matrix.get(x, next)
+                + matrix.get(u, x) + matrix.get(x, v) - matrix.get(u, v);
+    }
+
+    /**
+     * Moves the product at position i to position j, shifting the products in between.
+     * @param tour The ordering of product ids.
+     * @param i    The current position of the product.
+     * @param j    The position of the product after the move.
+     */
+    public static void insert(int[] tour, int i, int j) {
+        int x = tour[i];
+        if (i < j) System.arraycopy(tour, i + 1, tour, i, j - i);
+        else System.arraycopy(tour, j, tour, j + 1, i - j);
+        tour[j] = x;
+    }
+
+    /**
+     * Rewrites an ordering in its canonical form, which has the same cyclic score: it is rotated so that it starts
+     * with its smallest product id and, if the second product is greater than the last one, read backwards.
+     * Every rotation and reflection of an ordering has the same canonical form.
+     * @param tour The ordering of product ids, it is modified in place.
+     */
+    public static void canonicalize(int[] tour) {
+        int n = tour.length;
+        int first = 0;
+        for (int i = 1; i < n; i++) {
+            if (tour[i] < tour[first]) first = i;
+        }
+        if (first > 0) {
+            reverse(tour, 0, first - 1);
+            reverse(tour, first, n - 1);
+            reverse(tour, 0, n - 1);
+        }
+        if (n >= 3 && tour[1] > tour[n - 1]) reverse(tour, 1, n - 1);
+    }
+}
@@ -0,0 +1,80 @@
+package org.domain.algorithms;
+
+import java.util.Map;
+
+/**
+ * TwoOptAlgorithm is an extension of AbstractAlgorithm that arranges a Productlist by building
+ * the greedy ordering and improving it with the 2-opt local search of TwoOptLocalSearch.
+ * It only evaluates the moves towards the most similar products, so it scales to catalog-wide orderings.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class TwoOptAlgorithm extends AbstractAlgorithm {
+    private String name = "2-opt";
+
+    private final int neighbours;
+
+    /**
+     * Constructs a TwoOptAlgorithm with a similarity matrix.
+     * @param similarityMatrix The similarity matrix used to get the similarities between products.
+     */
+    public TwoOptAlgorithm(Map<String, Map<String, Double>> similarityMatrix) {
+        super(similarityMatrix);
+        this.neighbours = TwoOptLocalSearch.DEFAULT_NEIGHBOURS;
+    }
+
+    /**
+     * Constructs a TwoOptAlgorithm with a compiled similarity matrix.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     */
+    public TwoOptAlgorithm(SimilarityMatrix similarityMatrix) {
+        this(similarityMatrix, TwoOptLocalSearch.DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Constructs a TwoOptAlgorithm with a compiled similarity matrix and a number of candidate neighbours.
+     * @param similarityMatrix The compiled similarity matrix of the products to arrange.
+     * @param neighbours       The number of candidate neighbours of each product.
+     */
+    public TwoOptAlgorithm(SimilarityMatrix similarityMatrix, int neighbours) {
+        super(similarityMatrix);
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * Retrieves the name of the algorithm.
+     *
+     * <p>This method returns the name associated with this algorithm, which is
+     * typically used to identify or display the algorithm's name in various contexts.</p>
+     *
+     * @return The name of the algorithm (e.g., "2-opt").
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Indicates that the 2-opt moves can improve a start ordering.
+     * @return True.
+     */
+    @Override
+    public boolean supportsStartOrder() {
+        return true;
+    }
+
+    /**
+     * Arranges the products starting from the start ordering, or from the greedy solution built from the first product
+     * if there is none, and improving it with 2-opt moves.
+     * @param matrix  The similarity matrix of the products to arrange.
+     * @param maxsize The maximum number of products that fit in the distribution.
+     * @param limit   The maximum number of improving moves. If limit is less than 0, the code ignores the limit
+     * @return The ids of the products in the best order found.
+     */
+    @Override
+    protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+        int[] tour = initialOrder(matrix, maxsize, 0);
+        control.reportImprovement(matrix.tourScore(tour), 0);
+        new TwoOptLocalSearch(matrix, neighbours).optimize(tour, limit, control);
+        return tour;
+    }
+}
@@ -0,0 +1,194 @@
+package org.domain.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * TwoOptLocalSearch improves a cyclic ordering of product ids with 2-opt moves (segment reversals).
+ * The moves evaluated from a product are restricted to its k most similar products, and products whose
+ * neighbourhood did not produce an improvement are not looked at again until one of their edges changes
+ * (don't-look bits), so every pass over the ordering is close to linear in its length.
+ * It can be used on its own or to polish the ordering built by any other algorithm.
+ * The search does not keep any state between calls, so a single instance can be shared between threads.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class TwoOptLocalSearch {
+    /**
+     * Number of candidate neighbours of each product used when none is given.
+     */
+    public static final int DEFAULT_NEIGHBOURS = 8;
+
+    /**
+     * Number of products taken from the queue between two checks of the SolverControl.
+     */
+    private static final int CONTROL_INTERVAL = 256;
+
+    private final SimilarityMatrix matrix;
+    private final int[][] neighbours;
+
+    /**
+     * Constructs a TwoOptLocalSearch with the default number of candidate neighbours.
+     * @param matrix The similarity matrix of the products.
+     */
+    public TwoOptLocalSearch(SimilarityMatrix matrix) {
+        this(matrix, DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Constructs a TwoOptLocalSearch.
+     * @param matrix     The similarity matrix of the products.
+     * @param neighbours The number of candidate neighbours of each product. With size - 1 every 2-opt move is considered.
+     */
+    public TwoOptLocalSearch(SimilarityMatrix matrix, int neighbours) {
+        this.matrix = matrix;
+        this.neighbours = matrix.topNeighbours(neighbours);
+    }
+
+    /**
+     * Improves an ordering with 2-opt moves until no candidate move improves it or the limit is reached.
+     * The ordering may contain only part of the products of the matrix.
+     * @param tour     The ordering of product ids, it is modified in place.
+     * @param maxMoves The maximum number of moves to apply. If maxMoves is less than 0, it is ignored.
+     * @return The number of improving moves applied.
+     */
+    public int optimize(int[] tour, int maxMoves) {
+        return optimize(tour, maxMoves, new SolverControl());
+    }
+
+    /**
+     * Improves an ordering with 2-opt moves until no candidate move improves it, the limit is reached
+     * or the control asks to stop. Every applied move is reported to the control.
+     * @param tour     The ordering of product ids, it is modified in place.
+     * @param maxMoves The maximum number of moves to apply. If maxMoves is less than 0, it is ignored.
+     * @param control  The control of the run.
+     * @return The number of improving moves applied.
+     */
+    public int optimize(int[] tour, int maxMoves, SolverControl control) {
+        return optimizeAround(tour, tour, maxMoves, control);
+    }
+
+    /**
+     * Improves an ordering with 2-opt moves starting only from some of its products, the don't-look bits of the rest
+     * are on until one of their edges changes. When an ordering has only been changed locally, starting from the
+     * products around the changes repairs it in time proportional to the changes instead of to the ordering.
+     * @param tour     The ordering of product ids, it is modified in place.
+     * @param products The products of the ordering whose neighbourhoods are looked at first.
+     * @param maxMoves The maximum number of moves to apply. If maxMoves is less than 0, it is ignored.
+     * @param control  The control of the run.
+     * @return The number of improving moves applied.
+     */
+    public int optimizeAround(int[] tour, int[] products, int maxMoves, SolverControl control) {
+        int n = tour.length;
+        if (n < 4) return 0;    // Every ordering of 3 products or less has the same cyclic score
+        int[] pos = new int[matrix.size()];
+        Arrays.fill(pos, -1);
+        for (int i = 0; i < n; i++) pos[tour[i]] = i;
+
+        // Products whose don't-look bit is off, in a circular queue
+        int[] queue = new int[n];
+        boolean[] queued = new boolean[matrix.size()];
+        int head = 0;
+        int count = 0;
+        for (int id : products) {
+            if (queued[id] || pos[id] < 0) continue;
+            queued[id] = true;
+            queue[count++] = id;
+        }
+
+        int moves = 0;
+        long pops = 0;
+        double score = matrix.tourScore(tour);
+        while (count > 0 && (maxMoves < 0 || moves < maxMoves)) {
+            if (pops++ % CONTROL_INTERVAL == 0 && control.shouldStop()) break;
+            int a = queue[head];
+            head = head == n - 1 ? 0 : head + 1;
+            --count;
+            queued[a] = false;
+            int[] changed = improve(tour, pos, a);
+            if (changed == null) continue;
+            ++moves;
+            score += matrix.get(changed[0], changed[2]) + matrix.get(changed[1], changed[3])
+                    - matrix.get(changed[0], changed[1]) - matrix.get(changed[2], changed[3]);
+            control.reportImprovement(score, moves);
+            for (int id : changed) {
+                if (queued[id]) continue;
+                queued[id] = true;
+                queue[(head + count++) % n] = id;
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Looks for an improving 2-opt move that replaces one of the edges of a product by an edge to one of its candidates,
+     * and applies the first one found.
+     * Candidates are sorted by decreasing similarity, so the scan stops as soon as the new edge would not be
+     * better than the removed one.
+     * @param tour The ordering of product ids.
+     * @param pos  The position of each product in the ordering, or -1 if it is not in it.
+     * @param a    The product whose edges are considered.
+     * @return The four products a, b, c and d of the move, which replaced the edges (a, b) and (c, d) by (a, c) and (b, d),
+     *         or null if no improving move was found.
+     */
+    private int[] improve(int[] tour, int[] pos, int a) {
+        int n = tour.length;
+        int i = pos[a];
+        for (int dir = 0; dir < 2; dir++) {
+            boolean forward = dir == 0;
+            int b = tour[forward ? next(i, n) : prev(i, n)];
+            double ab = matrix.get(a, b);
+            for (int c : neighbours[a]) {
+                double ac = matrix.get(a, c);
+                if (ac <= ab + TourMoves.EPSILON) break;
+                int j = pos[c];
+                if (j < 0) continue;
+                int d = tour[forward ? next(j, n) : prev(j, n)];
+                if (d == a) continue;
+                double gain = ac + matrix.get(b, d) - ab - matrix.get(c, d);
+                if (gain <= TourMoves.EPSILON) continue;
+                // Forward: a b ... c d becomes a c ... b d. Backward: b a ... d c becomes b d ... a c
+                if (forward) reverse(tour, pos, next(i, n), j);
+                else reverse(tour, pos, i, prev(j, n));
+                return new int[] {a, b, c, d};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reverses the cyclic segment that goes from position from to position to.
+     * Reversing the rest of the cycle produces the same edges, so the shorter of the two is reversed.
+     * @param tour The ordering of product ids.
+     * @param pos  The position of each product, it is kept up to date.
+     * @param from The first position of the segment.
+     * @param to   The last position of the segment.
+     */
+    static void reverse(int[] tour, int[] pos, int from, int to) {
+        int n = tour.length;
+        int len = (to - from + n) % n + 1;
+        if (2 * len > n) {
+            int aux = from;
+            from = next(to, n);
+            to = prev(aux, n);
+            len = n - len;
+        }
+        for (int s = 0; s < len / 2; s++) {
+            int x = tour[from];
+            int y = tour[to];
+            tour[from] = y;
+            pos[y] = from;
+            tour[to] = x;
+            pos[x] = to;
+            from = next(from, n);
+            to = prev(to, n);
+        }
+    }
+
+    static int next(int i, int n) {
+        return i == n - 1 ? 0 : i + 1;
+    }
+
+    static int prev(int i, int n) {
+        return i == 0 ? n - 1 : i - 1;
+    }
+}
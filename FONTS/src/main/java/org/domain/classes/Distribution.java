@@ -2,6 +2,7 @@ package org.domain.classes;
 
 import org.domain.algorithms.AbstractAlgorithm;
 import org.domain.algorithms.BruteForceAlgorithm;
+import org.domain.algorithms.Objective;
 import org.domain.exceptions.DistributionException;
 import org.domain.types.Pair;
 
@@ -38,6 +39,11 @@ public class Distribution {
      */
     public HashMap<String, Pair<Integer, Integer>> coordinates;
 
+    /**
+     * The score maximized when the distribution is arranged, or null to use the default objective of the algorithm.
+     */
+    private Objective objective;
+
     /**
      * Constructs a Distribution instance with a specified name.
      * @param name The name of the distribution.
@@ -48,6 +54,16 @@ public class Distribution {
         coordinates = new HashMap<>();
     };
 
+    /**
+     * Constructs a Distribution instance with a specified name and objective.
+     * @param name      The name of the distribution.
+     * @param objective The score maximized when the distribution is arranged, or null to use the default objective of the algorithm.
+     */
+    public Distribution(String name, Objective objective){
+        this(name);
+        this.objective = objective;
+    }
+
     /**
      * Retrieves the name of the distribution.
      * @return The name of the distribution.
@@ -56,6 +72,14 @@ public class Distribution {
         return name;
     }
 
+    /**
+     * Retrieves the score maximized by the arrangement of the distribution.
+     * @return The objective, or null if the distribution has not been arranged and uses the default objective of the algorithm.
+     */
+    public Objective getObjective() {
+        return objective;
+    }
+
     /**
      * Retrieves the current distribution layout.
      * @return A matrix representing the product distribution.
@@ -137,6 +161,7 @@ public class Distribution {
 
     /**
      * Arranges the product list using the specified algorithm and capacity.
+     * The algorithm maximizes the objective of the distribution, and the objective it used is kept.
      *
      * @param list  The product list to be arranged.
      * @param algo  The algorithm used for arranging products.
@@ -145,7 +170,9 @@ public class Distribution {
      * @param limit Serves to limit the depth we want to search for the solution.If limit is less than 0, the code ignores the limit
      */
     public void orderList(ProductList list, AbstractAlgorithm algo, int xsize, int ysize, int limit){
+        if (objective != null) algo.setObjective(objective);
         setDistribution(algo.orderProductList(list, xsize, ysize, limit, coordinates));
+        objective = algo.getObjective();
         setModifiedDate(LocalDateTime.now());
     }
 
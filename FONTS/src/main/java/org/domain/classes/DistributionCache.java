@@ -0,0 +1,269 @@
+package org.domain.classes;
+
+import org.domain.algorithms.Objective;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The DistributionCache class stores the layouts computed by the algorithms, so that arranging the same products on a
+ * shelf of the same shape with the same algorithm and limit does not run the algorithm again.
+ * The key includes the version of the similarities, so a change of any similarity makes every stored layout
+ * unreachable, and the sorted names of the products, so a change of the list is a different key.
+ * The cache is bounded: the least recently used layout is evicted when it is full, and layouts older than the
+ * time to live are discarded. It counts its hits, misses and evictions.
+ * @author Max Estrade Pey {max.estrade@estudiantat.upc.edu}
+ * @version 1.0
+ */
+public class DistributionCache {
+    /**
+     * Number of layouts kept when no capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Time to live of a layout in milliseconds when none is given.
+     */
+    public static final long DEFAULT_TTL_MILLIS = 30 * 60 * 1000L;
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /**
+     * Version of the similarities of the keys stored, older versions are discarded when a newer one is seen.
+     */
+    private long version = Long.MIN_VALUE;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a DistributionCache with the default capacity and time to live.
+     */
+    public DistributionCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Constructs a DistributionCache.
+     *
+     * @param capacity  The maximum number of layouts kept, at least 1.
+     * @param ttlMillis The milliseconds a layout is valid after it is stored.
+     */
+    public DistributionCache(int capacity, long ttlMillis) {
+        this.capacity = Math.max(1, capacity);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        // Access order, so the first entry is always the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Creates the key of an arrangement.
+     *
+     * @param products          The products of the list.
+     * @param similarityVersion The version of the similarities used by the algorithm.
+     * @param xsize             The number of columns of the shelf.
+     * @param ysize             The number of rows of the shelf.
+     * @param algorithm         The id of the algorithm.
+     * @param limit             The limit of the algorithm.
+     * @param objective         The objective requested, or null for the default one of the algorithm.
+     * @return The key of the arrangement.
+     */
+    public static Key key(Collection<Product> products, long similarityVersion, int xsize, int ysize, int algorithm, int limit, Objective objective) {
+        List<String> names = new ArrayList<>();
+        for (Product product : products) names.add(product.getName());
+        names.sort(null);
+        return new Key(names, similarityVersion, xsize, ysize, algorithm, limit, objective);
+    }
+
+    /**
+     * Retrieves a copy of the layout stored for a key and counts the hit or the miss.
+     *
+     * @param key The key of the arrangement.
+     * @return The stored layout, or null if there is none or it has expired.
+     */
+    public synchronized Entry get(Key key) {
+        discardOlderVersions(key.similarityVersion);
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.storedAt >= ttlNanos) {
+            entries.remove(key);
+            ++evictions;
+            entry = null;
+        }
+        if (entry == null) {
+            ++misses;
+            return null;
+        }
+        ++hits;
+        return new Entry(copy(entry.layout), entry.objective, entry.storedAt);
+    }
+
+    /**
+     * Stores a copy of the layout of an arrangement, evicting the least recently used one if the cache is full.
+     *
+     * @param key       The key of the arrangement.
+     * @param layout    The layout computed by the algorithm.
+     * @param objective The objective the layout maximizes.
+     */
+    public synchronized void put(Key key, ArrayList<ArrayList<Product>> layout, Objective objective) {
+        discardOlderVersions(key.similarityVersion);
+        if (key.similarityVersion < version) return;
+        entries.put(key, new Entry(copy(layout), objective, System.nanoTime()));
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > capacity) {
+            eldest.next();
+            eldest.remove();
+            ++evictions;
+        }
+    }
+
+    /**
+     * Discards every stored layout, when the state of the shelves is replaced or deleted.
+     * The counters are kept.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+    }
+
+    /**
+     * Retrieves the number of layouts stored.
+     *
+     * @return The number of layouts.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieves the number of lookups that found a layout.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Retrieves the number of lookups that did not find a layout.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Retrieves the number of layouts discarded because the cache was full or they expired.
+     *
+     * @return The number of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Distribution cache: " + entries.size() + " layouts, " + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+    }
+
+    /**
+     * Discards every layout computed with older similarities than the given version.
+     *
+     * @param similarityVersion The version of the similarities of a key.
+     */
+    private void discardOlderVersions(long similarityVersion) {
+        if (similarityVersion <= version) return;
+        entries.clear();
+        version = similarityVersion;
+    }
+
+    /**
+     * Copies a layout, the rows of a distribution are modified in place when products are swapped.
+     *
+     * @param layout The layout.
+     * @return A copy of the layout with the same products.
+     */
+    private static ArrayList<ArrayList<Product>> copy(ArrayList<ArrayList<Product>> layout) {
+        ArrayList<ArrayList<Product>> copy = new ArrayList<>();
+        for (ArrayList<Product> row : layout) copy.add(new ArrayList<>(row));
+        return copy;
+    }
+
+    /**
+     * Identifies an arrangement: the products, the similarities, the shape of the shelf and the algorithm.
+     */
+    public static final class Key {
+        private final List<String> products;
+        private final long similarityVersion;
+        private final int xsize;
+        private final int ysize;
+        private final int algorithm;
+        private final int limit;
+        private final Objective objective;
+
+        private Key(List<String> products, long similarityVersion, int xsize, int ysize, int algorithm, int limit, Objective objective) {
+            this.products = products;
+            this.similarityVersion = similarityVersion;
+            this.xsize = xsize;
+            this.ysize = ysize;
+            this.algorithm = algorithm;
+            this.limit = limit;
+            this.objective = objective;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return similarityVersion == other.similarityVersion && xsize == other.xsize && ysize == other.ysize
+                    && algorithm == other.algorithm && limit == other.limit && objective == other.objective
+                    && products.equals(other.products);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(products, similarityVersion, xsize, ysize, algorithm, limit, objective);
+        }
+    }
+
+    /**
+     * A stored layout with the objective it maximizes.
+     */
+    public static final class Entry {
+        private final ArrayList<ArrayList<Product>> layout;
+        private final Objective objective;
+        private final long storedAt;
+
+        private Entry(ArrayList<ArrayList<Product>> layout, Objective objective, long storedAt) {
+            this.layout = layout;
+            this.objective = objective;
+            this.storedAt = storedAt;
+        }
+
+        /**
+         * Retrieves the layout.
+         *
+         * @return The products of each row of the shelf.
+         */
+        public ArrayList<ArrayList<Product>> getLayout() {
+            return layout;
+        }
+
+        /**
+         * Retrieves the objective the layout maximizes.
+         *
+         * @return The objective.
+         */
+        public Objective getObjective() {
+            return objective;
+        }
+    }
+}
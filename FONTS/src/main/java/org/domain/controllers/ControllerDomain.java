@@ -4,6 +4,10 @@ import org.domain.classes.Product;
 import org.domain.classes.ProductList;
 import org.domain.classes.Shelf;
 import org.domain.classes.Distribution;
+import org.domain.algorithms.AlgorithmDescriptor;
+import org.domain.algorithms.AlgorithmRegistry;
+import org.domain.algorithms.Objective;
+import org.domain.algorithms.SolverControl;
 
 import org.persistence.controllers.ControllerPersistence;
 
@@ -14,6 +18,7 @@ import org.domain.exceptions.DistributionException;
 import org.domain.exceptions.UnauthorizedAccessException;
 import org.domain.exceptions.UserException;
 
+import org.domain.types.AlgorithmLimit;
 import org.domain.types.TupleType;
 import org.domain.types.Pair;
 
@@ -66,6 +71,7 @@ public class ControllerDomain {
         this.distributionManager = DistributionManager.getInstance();
 
         this.shelfManager = ShelfManager.getInstance();
+        this.shelfManager.setNeighbourIndex(productManager.getNeighbourIndex());
         this.operationLog = new TreeMap<>();
 
     }
@@ -814,14 +820,125 @@ public class ControllerDomain {
      * @throws DistributionException if the depth limit is invalid (i.e., zero or negative)
      */
     public void createNewDistribution(int idShelf, String nameDistribution, int algorithm, int limit) throws ShelfException, DistributionException {
+        createNewDistribution(idShelf, nameDistribution, algorithm, limit, new SolverControl());
+    }
+
+    /**
+     * Creates a new distribution for a specified shelf, bounding and observing the algorithm with a control.
+     * <p>
+     * The algorithm stops when the deadline of the control passes or the control is cancelled, and the distribution
+     * is created with the best ordering found until then. Every improvement is notified to the listener of the control.
+     *
+     * @param idShelf the ID of the shelf for which the distribution will be created
+     * @param nameDistribution the name of the new distribution
+     * @param algorithm the algorithm used to arrange the products
+     * @param limit the limit of the algorithm, a negative limit leaves the run bounded only by the control
+     * @param control the deadline, cancellation flag and progress listener of the run
+     *
+     * @throws ShelfException if the specified shelf does not exist
+     * @throws DistributionException if the distribution already exists or the algorithm or the limit are invalid
+     */
+    public void createNewDistribution(int idShelf, String nameDistribution, int algorithm, int limit, SolverControl control) throws ShelfException, DistributionException {
+        createNewDistribution(idShelf, nameDistribution, algorithm, limit, control, null);
+    }
+
+    /**
+     * Creates a new distribution for a specified shelf that maximizes the given objective.
+     * <p>
+     * With the grid objective the similarities between vertically adjacent products are also maximized.
+     *
+     * @param idShelf the ID of the shelf for which the distribution will be created
+     * @param nameDistribution the name of the new distribution
+     * @param algorithm the algorithm used to arrange the products
+     * @param limit the limit of the algorithm, a negative limit leaves the run bounded only by the control
+     * @param control the deadline, cancellation flag and progress listener of the run
+     * @param objective the score to maximize, or null to use the default objective of the algorithm
+     *
+     * @throws ShelfException if the specified shelf does not exist
+     * @throws DistributionException if the distribution already exists or the algorithm or the limit are invalid
+     */
+    public void createNewDistribution(int idShelf, String nameDistribution, int algorithm, int limit, SolverControl control, Objective objective) throws ShelfException, DistributionException {
         Map<String, Map<String, Double>> similarityMatrix = productManager.getSimilarityMap();
         if (distributionManager.exists(nameDistribution)) throw new DistributionException("The distribution with name '" + nameDistribution + "' already exists");
-        Distribution dist =  shelfManager.distributeShelf(idShelf, nameDistribution, algorithm, limit, similarityMatrix);
+        Distribution dist =  shelfManager.distributeShelf(idShelf, nameDistribution, algorithm, limit, similarityMatrix, control, objective, productManager.getSimilarityVersion());
         distributionManager.addDistribution(nameDistribution, dist);
 
         logOperation("A new distribution " +nameDistribution+" has been created at " + idShelf + "with limit " + limit);
     }
 
+    /**
+     * Creates a new distribution for a specified shelf by repairing its last distribution after the list was edited.
+     * <p>
+     * The removed products are deleted from the last arrangement and the added ones are inserted where they fit best,
+     * so the rest of the shelf keeps its places and the edit is arranged in milliseconds.
+     *
+     * @param idShelf the ID of the shelf for which the distribution will be created
+     * @param nameDistribution the name of the new distribution
+     * @param limit the maximum number of improving moves, a negative limit ignores it
+     *
+     * @throws ShelfException if the specified shelf does not exist or has no distribution
+     * @throws DistributionException if the distribution already exists or the limit is invalid
+     */
+    public void repairDistribution(int idShelf, String nameDistribution, int limit) throws ShelfException, DistributionException {
+        Map<String, Map<String, Double>> similarityMatrix = productManager.getSimilarityMap();
+        if (distributionManager.exists(nameDistribution)) throw new DistributionException("The distribution with name '" + nameDistribution + "' already exists");
+        Distribution dist = shelfManager.repairDistribution(idShelf, nameDistribution, limit, similarityMatrix, new SolverControl());
+        distributionManager.addDistribution(nameDistribution, dist);
+
+        logOperation("The distribution " + nameDistribution + " has been repaired at " + idShelf + " with limit " + limit);
+    }
+
+    /**
+     * Retrieves the hit and miss metrics of the cache of distributions.
+     * <p>
+     * Creating a distribution for the same products, similarities, shelf shape, algorithm and limit reuses the cached layout.
+     *
+     * @return a description of the size, hits, misses and evictions of the cache
+     */
+    public String getDistributionCacheStatistics() {
+        return shelfManager.getDistributionCache().toString();
+    }
+
+    /**
+     * Retrieves the names of the algorithms that can arrange a shelf.
+     * <p>
+     * The first name is the automatic selection, followed by every algorithm of the registry from the fastest to the slowest.
+     *
+     * @return the names of the algorithms
+     */
+    public List<String> getAlgorithmNames() {
+        List<String> names = new ArrayList<>();
+        names.add(AlgorithmRegistry.AUTO_NAME);
+        for (AlgorithmDescriptor descriptor : AlgorithmRegistry.getInstance().getAlgorithms()) names.add(descriptor.getName());
+        return names;
+    }
+
+    /**
+     * Retrieves the id of an algorithm, which identifies it when creating a distribution.
+     *
+     * @param name the name of the algorithm, as returned by getAlgorithmNames
+     * @return the id of the algorithm
+     * @throws DistributionException if there is no algorithm with the given name
+     */
+    public int getAlgorithmId(String name) throws DistributionException {
+        return AlgorithmRegistry.getInstance().getId(name);
+    }
+
+    /**
+     * Retrieves what the limit given to an algorithm bounds, so the limit can be asked for accordingly.
+     * <p>
+     * The automatic selection ignores the limit, because the chosen algorithm is not known in advance.
+     *
+     * @param name the name of the algorithm, as returned by getAlgorithmNames
+     * @return what the limit of the algorithm bounds
+     * @throws DistributionException if there is no algorithm with the given name
+     */
+    public AlgorithmLimit getAlgorithmLimit(String name) throws DistributionException {
+        int id = getAlgorithmId(name);
+        if (id == AlgorithmRegistry.AUTO) return AlgorithmLimit.NONE;
+        return AlgorithmRegistry.getInstance().get(id).getLimit();
+    }
+
     /**
      * Marks a specified distribution as the current distribution for a given shelf.
      *
@@ -7,6 +7,7 @@
 
 package org.domain.controllers;
 
+import org.domain.algorithms.NeighbourIndex;
 import org.domain.classes.Product;
 import org.domain.classes.ProductList;
 
@@ -32,6 +33,8 @@ public class ProductManager {
     private Map<String, Product> productMap; // Map of unique products (key: product name)
     private Map<String, ProductList> productLists; // Map of product lists
     private Map<String, Map<String, Double>> similarityMap; // Map of similarities between products
+    private long similarityVersion; // Increased on every change of the similarities
+    private final NeighbourIndex neighbourIndex; // Most similar products of each product, kept up to date with the map
 
     /**
      * Constructs a new ProductManager.
@@ -40,6 +43,7 @@ public class ProductManager {
         this.productMap = new HashMap<>();
         this.productLists = new HashMap<>();
         this.similarityMap = new HashMap<>();
+        this.neighbourIndex = new NeighbourIndex(similarityMap);
     }
 
     /**
@@ -70,6 +74,8 @@ public class ProductManager {
         instance.productMap = catalog;
         instance.productLists = new HashMap<>();
         instance.similarityMap = similarities;
+        instance.neighbourIndex.rebuild(similarities);
+        ++instance.similarityVersion;
         return instance;
     }
 
@@ -404,6 +410,8 @@ public class ProductManager {
         // Add similarity to map
         similarityMap.get(product1).put(product2, similarity);
         similarityMap.get(product2).put(product1, similarity);
+        neighbourIndex.update(product1, product2);
+        ++similarityVersion;
     }
 
     /**
@@ -419,6 +427,8 @@ public class ProductManager {
                     similarityMap.get(key).remove(product1);
                 }
             }
+            neighbourIndex.remove(product1);
+            ++similarityVersion;
         } else {
             throw new ProductException("Product does not exist: " + product1);
         }
@@ -443,6 +453,23 @@ public class ProductManager {
         }
     }
 
+    /**
+     * Gets the version of the similarities, which increases every time a similarity changes.
+     * Results computed from the similarities can be reused while the version does not change.
+     * @return the version of the similarities
+     */
+    public long getSimilarityVersion() {
+        return similarityVersion;
+    }
+
+    /**
+     * Gets the index of the most similar products of each product, which is updated with every change of the similarities.
+     * @return the neighbour index of the similarity map
+     */
+    public NeighbourIndex getNeighbourIndex() {
+        return neighbourIndex;
+    }
+
     /**
      * Gets the similarity between two products.
      * @param product1 the name of the first product
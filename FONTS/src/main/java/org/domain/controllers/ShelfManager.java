@@ -1,9 +1,15 @@
 package org.domain.controllers;
 
 import org.domain.algorithms.AbstractAlgorithm;
-import org.domain.algorithms.BruteForceAlgorithm;
-import org.domain.algorithms.HillClimbingAlgorithm;
+import org.domain.algorithms.AlgorithmDescriptor;
+import org.domain.algorithms.AlgorithmRegistry;
+import org.domain.algorithms.NeighbourIndex;
+import org.domain.algorithms.Objective;
+import org.domain.algorithms.RepairAlgorithm;
+import org.domain.algorithms.SimilarityMatrix;
+import org.domain.algorithms.SolverControl;
 import org.domain.classes.Distribution;
+import org.domain.classes.DistributionCache;
 import org.domain.classes.ProductList;
 import org.domain.classes.Shelf;
 import org.domain.exceptions.DistributionException;
@@ -11,6 +17,7 @@ import org.domain.exceptions.ProductListException;
 import org.domain.exceptions.ShelfException;
 import org.domain.types.TupleType;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
@@ -26,12 +33,15 @@ import java.util.HashSet;
 public class ShelfManager {
 
     private final HashMap<Integer, Shelf> shelfMap; ///< Map of shelves by their IDs.
+    private final DistributionCache distributionCache; ///< Layouts already computed by the algorithms.
+    private NeighbourIndex neighbourIndex; ///< Most similar products of each product, or null if there is none.
 
     /**
      * Constructs a new ShelfManager.
      */
     public ShelfManager() {
         shelfMap = new HashMap<>();
+        distributionCache = new DistributionCache();
     }
 
     /**
@@ -50,6 +60,25 @@ public class ShelfManager {
         private static final ShelfManager INSTANCE = new ShelfManager();
     }
 
+    /**
+     * Retrieves the cache of the layouts computed by the algorithms, with its hit and miss counters.
+     *
+     * @return The distribution cache.
+     */
+    public DistributionCache getDistributionCache() {
+        return distributionCache;
+    }
+
+    /**
+     * Sets the neighbour index used to build the candidate lists of the algorithms.
+     * It is only used with the similarity map it is kept up to date with.
+     *
+     * @param neighbourIndex The neighbour index of the similarity map, or null to compute the lists on every run.
+     */
+    public void setNeighbourIndex(NeighbourIndex neighbourIndex) {
+        this.neighbourIndex = neighbourIndex;
+    }
+
     /**
      * Creates a new shelf with the specified details.
      *
@@ -92,12 +121,14 @@ public class ShelfManager {
 
     /**
      * Sets the shelves in the system.
+     * The layouts stored in the distribution cache belong to the previous state, so they are discarded.
      *
      * @param shelfMap The map of shelves to set.
      */
     public void setShelves(Map<Integer, Shelf> shelfMap) {
         this.shelfMap.clear();
         this.shelfMap.putAll(shelfMap);
+        distributionCache.invalidate();
     }
 
     /**
@@ -250,10 +281,11 @@ public class ShelfManager {
     }
 
     /**
-     * Deletes all shelves from the system.
+     * Deletes all shelves from the system and discards the layouts stored in the distribution cache.
      */
     public void deleteAllShelves() {
         shelfMap.clear();
+        distributionCache.invalidate();
     }
 
     /**
@@ -262,28 +294,151 @@ public class ShelfManager {
      *
      * @param idShelf          The ID of the shelf.
      * @param name             The name of the distribution.
-     * @param algorithm        The algorithm to use (1 for Brute Force, 2 for Hill Climbing).
-     * @param limit            The limit for the algorithm (number of combinations for Brute Force or maximum neighbors visited for Hill Climbing).
+     * @param algorithm        The id of the algorithm in the AlgorithmRegistry (1 for Brute Force, 2 for Hill Climbing, 3 for Held-Karp, 4 for Parallel Brute Force, 5 for Simulated Annealing, 6 for 2-opt, 7 for Multi-start Hill Climbing, 8 for Grid Local Search, 9 for Genetic Algorithm, 10 for Portfolio, 11 for Decomposition, 12 for Tabu Search, 13 for Iterated Local Search, 14 for Beam Search, 15 for Greedy Edge, 16 for Parallel Tempering),
+     *                         or AlgorithmRegistry.AUTO to choose it from the size of the list and the shelf.
+     * @param limit            The limit for the algorithm (maximum search nodes for Brute Force, maximum neighbors visited by each climb of Hill Climbing, maximum improving moves for 2-opt and Grid Local Search and for every cluster of Decomposition, iterations for Tabu Search, kicks for Iterated Local Search, beam width for Beam Search, candidate neighbours for Greedy Edge, generations for Genetic Algorithm or time budget in milliseconds for Simulated Annealing, Parallel Tempering and Portfolio).
      * @param similarityMatrix The similarity matrix for the algorithm.
      * @return The Distribution object ordered by the algorithm.
      * @throws ShelfException If the shelf does not exist.
      * @throws DistributionException If the algorithm is invalid or the limit is zero.
      */
     public Distribution distributeShelf(int idShelf, String name, int algorithm, int limit, Map<String, Map<String, Double>> similarityMatrix) throws ShelfException {
+        return distributeShelf(idShelf, name, algorithm, limit, similarityMatrix, new SolverControl());
+    }
+
+    /**
+     * Distributes the products on the shelf using the specified algorithm under the given control.
+     * The algorithm reports its improvements to the control and, if the deadline of the control passes or it is cancelled,
+     * the distribution is built with the best ordering found so far. The distribution is stored in the distribution history.
+     *
+     * @param idShelf          The ID of the shelf.
+     * @param name             The name of the distribution.
+     * @param algorithm        The algorithm to use, see distributeShelf(int, String, int, int, Map).
+     * @param limit            The limit for the algorithm, a negative limit leaves the run bounded only by the control.
+     * @param similarityMatrix The similarity matrix for the algorithm.
+     * @param control          The deadline, cancellation flag and progress listener of the run.
+     * @return The Distribution object ordered by the algorithm.
+     * @throws ShelfException If the shelf does not exist.
+     * @throws DistributionException If the algorithm is invalid or the limit is zero.
+     */
+    public Distribution distributeShelf(int idShelf, String name, int algorithm, int limit, Map<String, Map<String, Double>> similarityMatrix, SolverControl control) throws ShelfException {
+        return distributeShelf(idShelf, name, algorithm, limit, similarityMatrix, control, null);
+    }
+
+    /**
+     * Distributes the products on the shelf using the specified algorithm under the given control, maximizing an objective.
+     * With the grid objective the similarities between vertically adjacent products are also maximized.
+     * The distribution is stored in the distribution history.
+     *
+     * @param idShelf          The ID of the shelf.
+     * @param name             The name of the distribution.
+     * @param algorithm        The algorithm to use, see distributeShelf(int, String, int, int, Map).
+     * @param limit            The limit for the algorithm, a negative limit leaves the run bounded only by the control.
+     * @param similarityMatrix The similarity matrix for the algorithm.
+     * @param control          The deadline, cancellation flag and progress listener of the run.
+     * @param objective        The score to maximize, or null to use the default objective of the algorithm.
+     * @return The Distribution object ordered by the algorithm.
+     * @throws ShelfException If the shelf does not exist.
+     * @throws DistributionException If the algorithm is invalid or the limit is zero.
+     */
+    public Distribution distributeShelf(int idShelf, String name, int algorithm, int limit, Map<String, Map<String, Double>> similarityMatrix, SolverControl control, Objective objective) throws ShelfException {
+        return distributeShelf(idShelf, name, algorithm, limit, similarityMatrix, control, objective, -1);
+    }
+
+    /**
+     * Distributes the products on the shelf reusing the layout of an identical previous arrangement if there is one.
+     * The layouts are cached by the products of the list, the version of the similarities, the shape of the shelf,
+     * the algorithm, the limit and the objective. Only the runs that were not stopped by the control are cached,
+     * because a stopped run may not return the layout the algorithm would find.
+     * The distribution is stored in the distribution history.
+     *
+     * @param idShelf           The ID of the shelf.
+     * @param name              The name of the distribution.
+     * @param algorithm         The algorithm to use, see distributeShelf(int, String, int, int, Map).
+     * @param limit             The limit for the algorithm, a negative limit leaves the run bounded only by the control.
+     * @param similarityMatrix  The similarity matrix for the algorithm.
+     * @param control           The deadline, cancellation flag and progress listener of the run.
+     * @param objective         The score to maximize, or null to use the default objective of the algorithm.
+     * @param similarityVersion The version of the similarities, see ProductManager.getSimilarityVersion, or a negative
+     *                          number if it is unknown and the cache must not be used.
+     * @return The Distribution object ordered by the algorithm.
+     * @throws ShelfException If the shelf does not exist.
+     * @throws DistributionException If the algorithm is invalid or the limit is zero.
+     */
+    public Distribution distributeShelf(int idShelf, String name, int algorithm, int limit, Map<String, Map<String, Double>> similarityMatrix, SolverControl control, Objective objective, long similarityVersion) throws ShelfException {
         if (limit == 0) throw new DistributionException("Depth can not be  0"); //only if Depth < 0 then limit is not taken into account
         if (!shelfMap.containsKey(idShelf)) throw new ShelfException("The shelf does not exist");
-        AbstractAlgorithm abstractAlgorithm = switch (algorithm) {
-            case 1 -> new BruteForceAlgorithm(similarityMatrix);
-            case 2 -> new HillClimbingAlgorithm(similarityMatrix);
-            default -> throw new DistributionException("Invalid algorithm");
-        };
         Shelf shelf = shelfMap.get(idShelf);
         ProductList productList = shelf.getProductList();
-        Distribution dist = new Distribution(name);
+        DistributionCache.Key key = null;
+        if (similarityVersion >= 0) {
+            key = DistributionCache.key(productList.getProducts(), similarityVersion, shelf.getXsize(), shelf.getYsize(), algorithm, limit, objective);
+            DistributionCache.Entry cached = distributionCache.get(key);
+            if (cached != null) {
+                Distribution dist = new Distribution(name, cached.getObjective());
+                dist.setDistribution(cached.getLayout());
+                dist.setModifiedDate(LocalDateTime.now());
+                shelf.addDistribution(dist);
+                return dist;
+            }
+        }
+        // Compile the similarities of the products of the list once for the whole run
+        SimilarityMatrix matrix = compile(productList, similarityMatrix);
+        AlgorithmDescriptor descriptor = AlgorithmRegistry.getInstance().resolve(algorithm, matrix.size(),
+                shelf.getXsize() * shelf.getYsize(), objective == null ? Objective.SEQUENCE : objective);
+        AbstractAlgorithm abstractAlgorithm = descriptor.create(matrix);
+        abstractAlgorithm.setControl(control);
+        Distribution dist = new Distribution(name, objective);
         dist.orderList(productList, abstractAlgorithm, shelf.getXsize(), shelf.getYsize(), limit);
+        if (key != null && !control.shouldStop()) distributionCache.put(key, dist.getDistribution(), dist.getObjective());
         // Add the distribution to the history
         shelf.addDistribution(dist);
         // Return the distribution object ordered by the algorithm
         return dist;
     }
+
+    /**
+     * Rearranges the products on the shelf starting from its last distribution, after the product list was edited.
+     * The products removed from the list are deleted from the last ordering, the added ones are inserted where they
+     * lose the least similarity, and only the products around the changes are improved, so an edit of a few products
+     * takes milliseconds instead of a full run of an algorithm. With the grid objective the products keep their cells
+     * and the added ones go to the free cells where they gain the most. The distribution is stored in the distribution history.
+     *
+     * @param idShelf          The ID of the shelf.
+     * @param name             The name of the distribution.
+     * @param limit            The maximum number of improving moves, a negative limit leaves the run bounded only by the control.
+     * @param similarityMatrix The similarity matrix for the algorithm.
+     * @param control          The deadline, cancellation flag and progress listener of the run.
+     * @return The repaired Distribution object.
+     * @throws ShelfException If the shelf does not exist or it has no distribution to repair.
+     * @throws DistributionException If the limit is zero or the list is empty.
+     */
+    public Distribution repairDistribution(int idShelf, String name, int limit, Map<String, Map<String, Double>> similarityMatrix, SolverControl control) throws ShelfException {
+        if (limit == 0) throw new DistributionException("Depth can not be  0");
+        if (!shelfMap.containsKey(idShelf)) throw new ShelfException("The shelf does not exist");
+        Shelf shelf = shelfMap.get(idShelf);
+        Distribution last = shelf.getLastDistribution();
+        ProductList productList = shelf.getProductList();
+        SimilarityMatrix matrix = compile(productList, similarityMatrix);
+        AbstractAlgorithm repair = new RepairAlgorithm(matrix, RepairAlgorithm.sequenceOf(last.getDistribution()),
+                RepairAlgorithm.gridOf(last.getDistribution()));
+        repair.setControl(control);
+        Distribution dist = new Distribution(name, last.getObjective());
+        dist.orderList(productList, repair, shelf.getXsize(), shelf.getYsize(), limit);
+        shelf.addDistribution(dist);
+        return dist;
+    }
+
+    /**
+     * Compiles the similarities of the products of a list, reading the candidate lists from the neighbour index
+     * when it is kept up to date with the given similarity map.
+     *
+     * @param productList      The product list.
+     * @param similarityMatrix The similarity map.
+     * @return The similarity matrix of the products of the list.
+     */
+    private SimilarityMatrix compile(ProductList productList, Map<String, Map<String, Double>> similarityMatrix) {
+        NeighbourIndex index = neighbourIndex != null && neighbourIndex.isBuiltFrom(similarityMatrix) ? neighbourIndex : null;
+        return new SimilarityMatrix(new ArrayList<>(productList.getProducts()), similarityMatrix, index);
+    }
 }
\ No newline at end of file
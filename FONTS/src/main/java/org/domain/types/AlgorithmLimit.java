@@ -0,0 +1,28 @@
+package org.domain.types;
+
+/**
+ * The `AlgorithmLimit` enum represents what the limit given to an algorithm bounds when a distribution is generated,
+ * so the views can ask for the right value without knowing the algorithms.
+ */
+public enum AlgorithmLimit {
+    /**
+     * The algorithm ignores the limit.
+     */
+    NONE,
+
+    /**
+     * The limit is the maximum number of nodes of the search tree to visit.
+     */
+    SEARCH_NODES,
+
+    /**
+     * The limit is the maximum number of neighbours to explore.
+     */
+    NEIGHBOURS,
+
+    /**
+     * The limit bounds the search in another way, such as moves, iterations, generations or milliseconds,
+     * as documented by the algorithm.
+     */
+    OTHER
+}
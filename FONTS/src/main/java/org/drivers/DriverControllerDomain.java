@@ -9,6 +9,10 @@ import java.util.Scanner;
 
 import org.domain.exceptions.*;
 
+import org.domain.algorithms.AlgorithmDescriptor;
+import org.domain.algorithms.AlgorithmRegistry;
+import org.domain.algorithms.Objective;
+import org.domain.algorithms.SolverControl;
 import org.domain.controllers.ControllerDomain;
 import org.domain.classes.Product;
 import org.domain.types.Pair;
@@ -228,6 +232,7 @@ public class DriverControllerDomain {
         System.out.println("5. Change the list associated with a shelf");
         System.out.println("6. Create a new shelf distribution");
         System.out.println("7. Modify distribution");
+        System.out.println("8. Repair the last distribution after editing the list");
         System.out.println("0. Exit");
         System.out.print("Select an option: ");
 
@@ -262,6 +267,9 @@ public class DriverControllerDomain {
                 case 7:
                     modifyDistribution();
                     break;
+                case 8:
+                    repairDistribution();
+                    break;
 
                 default:
                     System.out.println("Invalid option");
@@ -457,8 +465,10 @@ public class DriverControllerDomain {
             String nom = scanner.nextLine();
 
             System.out.println("Enter the type of algorithm you want to distribute the shelf with: ");
-            System.out.println("1- Algorithm Brute Force ");
-            System.out.println("2- Algorithm Hill Climbing ");
+            System.out.println("0- Algorithm Auto (chosen from the size of the list and the shelf) ");
+            for (AlgorithmDescriptor descriptor : AlgorithmRegistry.getInstance().getAlgorithms()) {
+                System.out.println(descriptor.getId() + "- Algorithm " + descriptor.getName() + " ");
+            }
             if (!scanner.hasNextInt()) throw new IllegalArgumentException("The algorithm must be of type int");
             int algorithm = scanner.nextInt();
 
@@ -466,7 +476,15 @@ public class DriverControllerDomain {
             if (!scanner.hasNextInt()) throw new IllegalArgumentException("The limit must be of type int");
             int limit = scanner.nextInt();
 
-            controllerDomain.createNewDistribution(id, nom, algorithm, limit);
+            System.out.println("Enter the objective you want to maximize: ");
+            System.out.println("0- Default of the algorithm ");
+            System.out.println("1- Sequence (consecutive products) ");
+            System.out.println("2- Grid (horizontal and vertical neighbours) ");
+            if (!scanner.hasNextInt()) throw new IllegalArgumentException("The objective must be of type int");
+            int objective = scanner.nextInt();
+
+            controllerDomain.createNewDistribution(id, nom, algorithm, limit, new SolverControl(),
+                    objective == 1 ? Objective.SEQUENCE : objective == 2 ? Objective.GRID : null);
 
             System.out.println("Distribution created");
         }
@@ -475,6 +493,35 @@ public class DriverControllerDomain {
     }
 
 
+    /**
+     * Repairs the last distribution of a shelf after its list was edited, interacting with the user through the console.
+     *
+     * This method prompts the user to input the ID of a shelf, the name of the new distribution and the limit of improving moves.
+     * The removed products are deleted from the last distribution and the added ones are inserted where they fit best.
+     *
+     * @throws IllegalArgumentException if the provided shelf ID or limit is not an integer.
+     */
+    public void repairDistribution() {
+        try {
+            System.out.print("Enter the shelf ID");
+            if (!scanner.hasNextInt()) throw new IllegalArgumentException("The shelf ID must be of type int");
+            int id = scanner.nextInt();
+
+            System.out.print("Enter the name of the distribution");
+            String nom = scanner.nextLine();
+
+            System.out.print("Enter the maximum number of improving moves (-1 for no limit) ");
+            if (!scanner.hasNextInt()) throw new IllegalArgumentException("The limit must be of type int");
+            int limit = scanner.nextInt();
+
+            controllerDomain.repairDistribution(id, nom, limit);
+
+            System.out.println("Distribution repaired");
+        }
+        catch (ShelfException | DistributionException e) { System.out.println(e.getMessage()); }
+    }
+
+
     /**
      * Removes a product list from the system.
      * <p>
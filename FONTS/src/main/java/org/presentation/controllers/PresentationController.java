@@ -1,6 +1,7 @@
 package org.presentation.controllers;
 
 import org.domain.controllers.ControllerDomain;
+import org.domain.types.AlgorithmLimit;
 import org.domain.types.Pair;
 import org.domain.types.TupleType;
 import org.presentation.views.*;
@@ -8,6 +9,7 @@ import org.presentation.views.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import org.domain.exceptions.*;
 
@@ -518,19 +520,34 @@ public class PresentationController {
      * Generates a new distribution for a specific shelf using the specified algorithm.
      *
      * @param idShelf   the identifier of the shelf where the distribution will be generated.
-     * @param algorithm the algorithm used for generating the distribution (not currently used in the method,
-     *                  but can be considered for future extensions).
-     * @param limit     the maximum limit for the distribution.
+     * @param algorithm the name of the algorithm used for generating the distribution, one of getAlgorithmNames.
+     * @param limit     the maximum limit for the distribution, its meaning depends on the algorithm.
      * @param nameDist  the name of the new distribution.
      * @throws DistributionException if there is an error creating the distribution.
      * @throws ShelfException        if there is an issue with the specified shelf (e.g., it does not exist or is invalid).
      */
     public void generateDistribution(int idShelf, String algorithm, int limit, String nameDist) throws DistributionException, ShelfException {
-        if (algorithm.equals("Brute Force")) {
-            controllerDomain.createNewDistribution(idShelf, nameDist, 1, limit);
-        } else {
-            controllerDomain.createNewDistribution(idShelf, nameDist, 2, limit);
-        }
+        controllerDomain.createNewDistribution(idShelf, nameDist, controllerDomain.getAlgorithmId(algorithm), limit);
+    }
+
+    /**
+     * Retrieves the names of the algorithms that can generate a distribution, starting with the automatic selection.
+     *
+     * @return the names of the algorithms.
+     */
+    public List<String> getAlgorithmNames() {
+        return controllerDomain.getAlgorithmNames();
+    }
+
+    /**
+     * Retrieves what the limit given to an algorithm bounds.
+     *
+     * @param algorithm the name of the algorithm, as returned by getAlgorithmNames.
+     * @return what the limit of the algorithm bounds.
+     * @throws DistributionException if there is no algorithm with the given name.
+     */
+    public AlgorithmLimit getAlgorithmLimit(String algorithm) throws DistributionException {
+        return controllerDomain.getAlgorithmLimit(algorithm);
     }
 
     /**
@@ -2,6 +2,7 @@ package org.presentation.views;
 
 import org.domain.exceptions.DistributionException;
 import org.domain.exceptions.ShelfException;
+import org.domain.types.AlgorithmLimit;
 import org.domain.types.TupleType;
 import org.presentation.controllers.PresentationController;
 import org.presentation.utils.DesignUtils;
@@ -21,8 +22,9 @@ public class GenerateDistributionView extends JFrame {
 
     private final TupleType shelf;
     private final JComboBox<String> algorithmComboBox;
-    private final JSpinner combinationsSpinner;
+    private final JSpinner nodesSpinner;
     private final JSpinner neighboursSpinner;
+    private final JSpinner limitSpinner;
     private final JTextField distributionNameField;
 
     /**
@@ -33,14 +35,15 @@ public class GenerateDistributionView extends JFrame {
     public GenerateDistributionView(int idShelf) {
         shelf = getShelf(idShelf);
         neighboursSpinner = new JSpinner(new SpinnerNumberModel(0, -1, Integer.MAX_VALUE, 1));
-        combinationsSpinner = new JSpinner(new SpinnerNumberModel(0, -1, Integer.MAX_VALUE, 1));
-        algorithmComboBox = new JComboBox<>(new String[]{"Brute Force", "Hill Climbing"});
+        nodesSpinner = new JSpinner(new SpinnerNumberModel(-1, -1, Integer.MAX_VALUE, 1000));
+        limitSpinner = new JSpinner(new SpinnerNumberModel(-1, -1, Integer.MAX_VALUE, 100));
+        algorithmComboBox = new JComboBox<>(PresentationController.getInstance().getAlgorithmNames().toArray(new String[0]));
         distributionNameField = new JTextField(20);
 
         // Create the frame
         setTitle("Generate Distribution");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(570, 390);
+        setSize(570, 430);
         setLayout(new BorderLayout());
         setLocationRelativeTo(null);
         setResizable(false);
@@ -86,23 +89,25 @@ public class GenerateDistributionView extends JFrame {
 
         algorithmComboBox.addActionListener(new AlgorithmListener());
         DesignUtils.configureComboBox(algorithmComboBox);
-        if (shelf.get(2).equals("Hill Climbing")) algorithmComboBox.setSelectedIndex(1);
-        else algorithmComboBox.setSelectedIndex(0);
+        // The automatic selection, which comes first, never launches an exact algorithm on a list too large for it
+        algorithmComboBox.setSelectedIndex(0);
+        // Keeps the algorithm of the shelf selected if it is still available
+        algorithmComboBox.setSelectedItem(shelf.get(2));
         gbc.gridx = 1;
         gbc.gridy = 2;
         panel.add(algorithmComboBox, gbc);
 
-        // Depth Label and Spinner
-        JLabel combinationsLabel = new JLabel("Num. combinations (Brute Force):");
-        DesignUtils.configureLabel(combinationsLabel);
+        // Search Nodes Label and Spinner
+        JLabel nodesLabel = new JLabel("Max. search nodes (Brute Force):");
+        DesignUtils.configureLabel(nodesLabel);
         gbc.gridx = 0;
         gbc.gridy = 3;
-        panel.add(combinationsLabel, gbc);
+        panel.add(nodesLabel, gbc);
 
-        DesignUtils.configureSpinner(combinationsSpinner);
+        DesignUtils.configureSpinner(nodesSpinner);
         gbc.gridx = 1;
         gbc.gridy = 3;
-        panel.add(combinationsSpinner, gbc);
+        panel.add(nodesSpinner, gbc);
 
         // Max Neighbours Label and Spinner
         JLabel neighboursLabel = new JLabel("Maximum neighbours (Hill Climbing):");
@@ -116,13 +121,25 @@ public class GenerateDistributionView extends JFrame {
         gbc.gridy = 4;
         panel.add(neighboursSpinner, gbc);
 
+        // Limit Label and Spinner
+        JLabel limitLabel = new JLabel("Limit (other algorithms):");
+        DesignUtils.configureLabel(limitLabel);
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        panel.add(limitLabel, gbc);
+
+        DesignUtils.configureSpinner(limitSpinner);
+        gbc.gridx = 1;
+        gbc.gridy = 5;
+        panel.add(limitSpinner, gbc);
+
         // Information Label
         JLabel infoLabel = new JLabel("If the fields are left at -1, the algorithm will not take into account the limit.");
         DesignUtils.configureLabel(infoLabel);
         infoLabel.setForeground(Color.BLACK);
         infoLabel.setFont(infoLabel.getFont().deriveFont(infoLabel.getFont().getSize() - 2f));
         gbc.gridx = 0;
-        gbc.gridy = 5;
+        gbc.gridy = 6;
         gbc.gridwidth = 2;
         panel.add(infoLabel, gbc);
 
@@ -130,12 +147,12 @@ public class GenerateDistributionView extends JFrame {
         JLabel distributionNameLabel = new JLabel("Distribution Name:");
         DesignUtils.configureLabel(distributionNameLabel);
         gbc.gridx = 0;
-        gbc.gridy = 6;
+        gbc.gridy = 7;
         panel.add(distributionNameLabel, gbc);
 
         DesignUtils.configureTextField(distributionNameField);
         gbc.gridx = 1;
-        gbc.gridy = 6;
+        gbc.gridy = 7;
         panel.add(distributionNameField, gbc);
 
         // Buttons
@@ -143,7 +160,7 @@ public class GenerateDistributionView extends JFrame {
         generateButton.addActionListener(new GenerateListener());
         DesignUtils.configureButton(generateButton);
         gbc.gridx = 0;
-        gbc.gridy = 7;
+        gbc.gridy = 8;
         gbc.gridwidth = 1;
         panel.add(generateButton, gbc);
 
@@ -151,7 +168,7 @@ public class GenerateDistributionView extends JFrame {
         cancelButton.addActionListener(new CancelListener());
         DesignUtils.configureButton(cancelButton);
         gbc.gridx = 1;
-        gbc.gridy = 7;
+        gbc.gridy = 8;
         panel.add(cancelButton, gbc);
 
         // Add panel to frame
@@ -224,14 +241,19 @@ public class GenerateDistributionView extends JFrame {
      * Updates the enabled state of the spinners based on the selected algorithm.
      */
     private void updateSpinners() {
-        String algorithm = (String) algorithmComboBox.getSelectedItem();
-        if (algorithm.equals("Brute Force")) {
-            combinationsSpinner.setEnabled(true);
-            neighboursSpinner.setEnabled(false);
-        } else {
-            combinationsSpinner.setEnabled(false);
-            neighboursSpinner.setEnabled(true);
-        }
+        AlgorithmLimit limit = getSelectedLimit();
+        nodesSpinner.setEnabled(limit == AlgorithmLimit.SEARCH_NODES);
+        neighboursSpinner.setEnabled(limit == AlgorithmLimit.NEIGHBOURS);
+        limitSpinner.setEnabled(limit == AlgorithmLimit.OTHER);
+    }
+
+    /**
+     * Retrieves what the limit of the selected algorithm bounds.
+     *
+     * @return the kind of limit of the selected algorithm
+     */
+    private AlgorithmLimit getSelectedLimit() {
+        return PresentationController.getInstance().getAlgorithmLimit((String) algorithmComboBox.getSelectedItem());
     }
 
     /**
@@ -255,9 +277,12 @@ public class GenerateDistributionView extends JFrame {
             int response = JOptionPane.showConfirmDialog(dialog, "Are you sure you want to generate the distribution with these parameters?", "Confirmation", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
             if (response == JOptionPane.YES_OPTION) {
                 PresentationController presentationController = PresentationController.getInstance();
+                AlgorithmLimit kind = getSelectedLimit();
                 int limit;
-                if (algorithmComboBox.getSelectedItem().equals("Brute Force")) limit = (int) combinationsSpinner.getValue();
-                else limit = (int) neighboursSpinner.getValue();
+                if (kind == AlgorithmLimit.SEARCH_NODES) limit = (int) nodesSpinner.getValue();
+                else if (kind == AlgorithmLimit.NEIGHBOURS) limit = (int) neighboursSpinner.getValue();
+                else if (kind == AlgorithmLimit.OTHER) limit = (int) limitSpinner.getValue();
+                else limit = -1;
                 String distributionName = distributionNameField.getText();
 
                 try {
@@ -0,0 +1,89 @@
+package org.domain.algorithms;
+
+import org.domain.exceptions.DistributionException;
+import org.domain.types.AlgorithmLimit;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AlgorithmRegistryTest {
+
+    private AlgorithmRegistry registry;
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        registry = AlgorithmRegistry.getInstance();
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            for (int j = i + 1; j < 6; j++) {
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), (i + j) / 10.0);
+            }
+        }
+        matrix = new SimilarityMatrix(similarities);
+    }
+
+    @Test
+    public void getAlgorithms_BuiltIns_CreateAlgorithmsWithTheirName() {
+        List<AlgorithmDescriptor> algorithms = registry.getAlgorithms();
+        assertTrue(algorithms.size() >= 10);
+        for (AlgorithmDescriptor descriptor : algorithms) {
+            assertEquals(descriptor.getName(), descriptor.create(matrix).getName());
+            assertEquals(descriptor.getId(), registry.getId(descriptor.getName()));
+        }
+    }
+
+    @Test
+    public void select_SmallListThatFits_ReturnsExactAlgorithm() {
+        assertEquals("Brute Force", registry.select(8, 20, Objective.SEQUENCE).getName());
+        assertEquals("Held-Karp", registry.select(15, 20, Objective.SEQUENCE).getName());
+    }
+
+    @Test
+    public void select_LargeOrPartialList_ReturnsHeuristic() {
+        assertFalse(registry.select(40, 50, Objective.SEQUENCE).isExact());
+        assertFalse(registry.select(8, 4, Objective.SEQUENCE).isExact());
+        assertEquals("Grid Local Search", registry.select(8, 20, Objective.GRID).getName());
+    }
+
+    @Test
+    public void resolve_AutoOrId_ReturnsDescriptor() {
+        assertEquals(registry.select(30, 30, Objective.SEQUENCE), registry.resolve(AlgorithmRegistry.AUTO, 30, 30, Objective.SEQUENCE));
+        assertEquals("Hill Climbing", registry.resolve(2, 30, 30, Objective.SEQUENCE).getName());
+        assertEquals(AlgorithmRegistry.AUTO, registry.getId(AlgorithmRegistry.AUTO_NAME));
+    }
+
+    @Test
+    public void getLimit_BuiltIns_DescribeWhatTheLimitBounds() {
+        assertEquals(AlgorithmLimit.SEARCH_NODES, registry.get(registry.getId("Brute Force")).getLimit());
+        assertEquals(AlgorithmLimit.NEIGHBOURS, registry.get(registry.getId("Multi-start Hill Climbing")).getLimit());
+        assertEquals(AlgorithmLimit.NONE, registry.get(registry.getId("Held-Karp")).getLimit());
+        assertEquals(AlgorithmLimit.OTHER, registry.get(registry.getId("Simulated Annealing")).getLimit());
+    }
+
+    @Test
+    public void get_UnknownAlgorithm_ThrowsDistributionException() {
+        assertThrows(DistributionException.class, () -> registry.get(-5));
+        assertThrows(DistributionException.class, () -> registry.getId("Unknown"));
+    }
+
+    @Test
+    public void constructor_PluginProvider_IsRegisteredAfterBuiltIns() {
+        AlgorithmProvider plugin = () -> List.of(new AlgorithmDescriptor(100, "Plugin", true, 30, EnumSet.of(Objective.SEQUENCE), HeldKarpAlgorithm::new));
+        AlgorithmRegistry custom = new AlgorithmRegistry(List.of(new BuiltInAlgorithms(), plugin));
+        assertEquals(100, custom.getId("Plugin"));
+        assertEquals("Plugin", custom.select(18, 20, Objective.SEQUENCE).getName());
+    }
+
+    @Test
+    public void constructor_DuplicatedId_ThrowsDistributionException() {
+        AlgorithmProvider duplicated = () -> List.of(new AlgorithmDescriptor(1, "Other", false, 10, EnumSet.of(Objective.SEQUENCE), TwoOptAlgorithm::new));
+        assertThrows(DistributionException.class, () -> new AlgorithmRegistry(List.of(new BuiltInAlgorithms(), duplicated)));
+    }
+}
@@ -0,0 +1,62 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class BeamSearchAlgorithmTest {
+
+    private static final int SIZE = 80;
+
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.random(SIZE, 23);
+    }
+
+    @Test
+    public void order_BeamKeepsEveryOrdering_ReturnsOptimalOrdering() {
+        SimilarityMatrix small = matrix.restrictTo(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        double optimal = small.tourScore(new HeldKarpAlgorithm(small).order(small, 11, -1));
+        int[] tour = new BeamSearchAlgorithm(small, 20000, 10).order(small, 11, -1);
+        assertEquals(optimal, small.tourScore(tour), 1e-9);
+    }
+
+    @Test
+    public void order_DefaultWidth_ImprovesGreedyOrdering() {
+        BeamSearchAlgorithm algorithm = new BeamSearchAlgorithm(matrix);
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(matrix.tourScore(tour) > matrix.tourScore(algorithm.greedyOrder(matrix, SIZE, 0)));
+    }
+
+    @Test
+    public void order_LimitOverridesWidth() {
+        int[] narrow = new BeamSearchAlgorithm(matrix, 2, TwoOptLocalSearch.DEFAULT_NEIGHBOURS).order(matrix, SIZE, -1);
+        assertArrayEquals(narrow, new BeamSearchAlgorithm(matrix).order(matrix, SIZE, 2));
+    }
+
+    @Test
+    public void order_SameInputs_ReturnsSameOrdering() {
+        int[] first = new BeamSearchAlgorithm(matrix, 64, 6).order(matrix, SIZE, -1);
+        int[] second = new BeamSearchAlgorithm(matrix, 64, 6).order(matrix, SIZE, -1);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void order_SmallerShelf_ReturnsMaxsizeProducts() {
+        assertPermutation(matrix, new BeamSearchAlgorithm(matrix).order(matrix, 25, -1), 25);
+    }
+
+    @Test
+    public void order_CancelledControl_CompletesGreedily() {
+        BeamSearchAlgorithm algorithm = new BeamSearchAlgorithm(matrix);
+        SolverControl control = new SolverControl();
+        control.cancel();
+        algorithm.setControl(control);
+        assertArrayEquals(algorithm.greedyOrder(matrix, SIZE, 0), algorithm.order(matrix, SIZE, -1));
+    }
+}
@@ -33,7 +33,7 @@ public class BruteForceAlgorithmTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         similarityMatrix = new HashMap<>();
-        algorithm = new BruteForceAlgorithm(similarityMatrix);
+        coordinates = new HashMap<>();
         mockProducts = new ArrayList<>();
         for (int i = 0; i < 10; i++) {
             Product mockProduct = mock(Product.class);
@@ -54,6 +54,8 @@ public class BruteForceAlgorithmTest {
                 }
             }
         }
+        // The algorithm compiles the similarities when it is built, so it is built once they are filled
+        algorithm = new BruteForceAlgorithm(similarityMatrix);
     }
 
     @Test
@@ -63,17 +65,21 @@ public class BruteForceAlgorithmTest {
     }
 
     @Test
-    public void orderProductList_LimitZero_ReturnsEmptyList() {
+    public void orderProductList_LimitZero_PlacesGreedyOrdering() {
         when(mockProductList.getProducts()).thenReturn(new HashSet<>(mockProducts));
         ArrayList<ArrayList<Product>> result = algorithm.orderProductList(mockProductList, 10, 10, 0, coordinates);
-        assertTrue(result.isEmpty());
+        assertEquals(10, result.size());
+        assertEquals(mockProducts.size(), coordinates.size());
+        assertFalse(algorithm.isOptimal());
     }
 
     @Test
-    public void orderProductList_LimitPositive_ReturnsLimitedCombinations() {
+    public void orderProductList_LimitPositive_StopsAtNodeBudget() {
         when(mockProductList.getProducts()).thenReturn(new HashSet<>(mockProducts));
-        ArrayList<ArrayList<Product>> result = algorithm.orderProductList(mockProductList, 10, 10, 5, coordinates);
-        assertEquals(5, result.size());
+        algorithm.orderProductList(mockProductList, 10, 10, 5, coordinates);
+        assertEquals(5, algorithm.getExploredNodes());
+        assertFalse(algorithm.isOptimal());
+        assertEquals(mockProducts.size(), coordinates.size());
     }
 
     @Test
@@ -82,4 +88,122 @@ public class BruteForceAlgorithmTest {
         ArrayList<ArrayList<Product>> result = algorithm.orderProductList(mockProductList, 10, 10, -1, coordinates);
         assertTrue(result.size() > 5);
     }
+
+    @Test
+    public void order_UnlimitedSearch_MatchesExhaustiveEnumeration() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(mockProducts.subList(0, 8));
+        int[] best = algorithm.order(matrix, 100, -1);
+        assertTrue(algorithm.isOptimal());
+        assertEquals(8, best.length);
+        assertEquals(exhaustiveBest(matrix, new int[8], new boolean[8], 0), matrix.tourScore(best), 1e-9);
+    }
+
+    @Test
+    public void order_NodeBudgetExhausted_ReturnsIncumbentNotOptimal() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(mockProducts);
+        int[] best = algorithm.order(matrix, 100, 5);
+        assertFalse(algorithm.isOptimal());
+        assertEquals(5, algorithm.getExploredNodes());
+        assertEquals(mockProducts.size(), best.length);
+    }
+
+    @Test
+    public void order_ParallelSearch_MatchesSerialSearch() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(mockProducts);
+        int[] serial = new BruteForceAlgorithm(matrix).order(matrix, 100, -1);
+        BruteForceAlgorithm parallel = new BruteForceAlgorithm(matrix, true);
+        assertArrayEquals(serial, parallel.order(matrix, 100, -1));
+        assertTrue(parallel.isOptimal());
+    }
+
+    @Test
+    public void order_ParallelSearchWithTies_MatchesSerialSearch() {
+        // Only two similarity values, so many orderings share the best score
+        Map<String, Map<String, Double>> ties = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = i + 1; j < 10; j++) {
+                double similarity = (i * 7 + j * 3) % 4 == 0 ? 0.5 : 0.25;
+                ties.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), similarity);
+            }
+        }
+        SimilarityMatrix matrix = new SimilarityMatrix(ties);
+        int[] serial = new BruteForceAlgorithm(matrix).order(matrix, 100, -1);
+        assertArrayEquals(serial, new BruteForceAlgorithm(matrix, true).order(matrix, 100, -1));
+    }
+
+    @Test
+    public void order_CancelledControl_ReturnsGreedyIncumbent() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(mockProducts);
+        SolverControl control = new SolverControl();
+        control.cancel();
+        algorithm.setControl(control);
+        int[] greedy = algorithm.greedyOrder(matrix, 100, 0);
+        TourMoves.canonicalize(greedy);
+        assertArrayEquals(greedy, algorithm.order(matrix, 100, -1));
+        assertFalse(algorithm.isOptimal());
+
+        BruteForceAlgorithm parallel = new BruteForceAlgorithm(matrix, true);
+        parallel.setControl(control);
+        assertArrayEquals(greedy, parallel.order(matrix, 100, -1));
+        assertFalse(parallel.isOptimal());
+    }
+
+    @Test
+    public void order_TiedScores_ReturnsFirstCanonicalOptimum() {
+        Map<String, Map<String, Double>> ties = new HashMap<>();
+        for (int i = 0; i < 7; i++) {
+            for (int j = i + 1; j < 7; j++) {
+                double similarity = (i + j) % 3 == 0 ? 0.5 : 0.25;
+                ties.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), similarity);
+            }
+        }
+        SimilarityMatrix matrix = new SimilarityMatrix(ties);
+        int[] best = algorithm.order(matrix, 100, -1);
+        // The first optimal canonical ordering, filling the positions first, second, last and then the ones in between
+        int[][] first = new int[1][];
+        int[] slots = {0, 1, 6, 2, 3, 4, 5};
+        double optimum = exhaustiveBest(matrix, new int[7], new boolean[7], 0);
+        firstOptimal(matrix, optimum, slots, new int[7], new boolean[7], 0, first);
+        assertArrayEquals(first[0], best);
+    }
+
+    @Test
+    public void order_ValidInputs_ReturnsCanonicalOrdering() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(mockProducts);
+        int[] serial = algorithm.order(matrix, 100, -1);
+        int[] parallel = new BruteForceAlgorithm(matrix, true).order(matrix, 100, -1);
+        for (int[] best : new int[][] {serial, parallel}) {
+            assertEquals(0, best[0]);
+            assertTrue(best[1] < best[best.length - 1]);
+        }
+    }
+
+    private void firstOptimal(SimilarityMatrix matrix, double optimum, int[] slots, int[] path, boolean[] used, int depth, int[][] first) {
+        if (first[0] != null) return;
+        if (depth == path.length) {
+            boolean canonical = path[0] == 0 && path[1] < path[path.length - 1];
+            if (canonical && matrix.tourScore(path) == optimum) first[0] = path.clone();
+            return;
+        }
+        for (int v = 0; v < path.length; v++) {
+            if (used[v]) continue;
+            used[v] = true;
+            path[slots[depth]] = v;
+            firstOptimal(matrix, optimum, slots, path, used, depth + 1, first);
+            used[v] = false;
+        }
+    }
+
+    private double exhaustiveBest(SimilarityMatrix matrix, int[] path, boolean[] used, int depth) {
+        if (depth == path.length) return matrix.tourScore(path);
+        double best = 0;
+        for (int i = 0; i < path.length; i++) {
+            if (used[i]) continue;
+            used[i] = true;
+            path[depth] = i;
+            best = Math.max(best, exhaustiveBest(matrix, path, used, depth + 1));
+            used[i] = false;
+        }
+        return best;
+    }
 }
\ No newline at end of file
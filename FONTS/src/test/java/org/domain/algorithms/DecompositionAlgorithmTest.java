@@ -0,0 +1,85 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class DecompositionAlgorithmTest {
+
+    private static final int SIZE = 120;
+
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        Random rand = new Random(9);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = i + 1; j < SIZE; j++) {
+                // Groups of 10 consecutive products are much more similar between them
+                double similarity = (i / 10 == j / 10 ? 0.5 : 0.0) + rand.nextDouble() * 0.5;
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), similarity);
+            }
+        }
+        matrix = new SimilarityMatrix(similarities);
+    }
+
+    @Test
+    public void cluster_LargeList_CoversEveryProductWithinClusterSize() {
+        DecompositionAlgorithm algorithm = new DecompositionAlgorithm(matrix, 25, 4, TwoOptAlgorithm::new);
+        int[][] clusters = algorithm.cluster(matrix);
+        assertTrue(clusters.length > 1);
+        int total = 0;
+        for (int[] cluster : clusters) {
+            assertTrue(cluster.length <= 25);
+            total += cluster.length;
+        }
+        assertEquals(SIZE, total);
+    }
+
+    @Test
+    public void cluster_Categories_JoinsSameCategoryFirst() {
+        Map<String, String> categories = new HashMap<>();
+        // Each group of similar products is split into two categories, which similarity alone would mix
+        for (int i = 0; i < SIZE; i++) categories.put(String.valueOf(i), "c" + (i / 10) + (i % 10 < 5 ? "a" : "b"));
+        DecompositionAlgorithm algorithm = new DecompositionAlgorithm(matrix, 5, 4, TwoOptAlgorithm::new);
+        algorithm.setCategories(categories);
+        for (int[] cluster : algorithm.cluster(matrix)) {
+            for (int id : cluster) assertEquals(categories.get(matrix.getName(cluster[0])), categories.get(matrix.getName(id)));
+        }
+    }
+
+    @Test
+    public void order_LargeList_ReturnsPermutationBetterThanGreedy() {
+        DecompositionAlgorithm algorithm = new DecompositionAlgorithm(matrix, 25, 4, TwoOptAlgorithm::new);
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(matrix.tourScore(tour) > matrix.tourScore(algorithm.greedyOrder(matrix, SIZE, 0)));
+    }
+
+    @Test
+    public void order_SmallerShelf_ReturnsMaxsizeProducts() {
+        int[] tour = new DecompositionAlgorithm(matrix, 25, 2, TwoOptAlgorithm::new).order(matrix, 70, -1);
+        assertPermutation(matrix, tour, 70);
+    }
+
+    @Test
+    public void order_SmallerShelf_BetterThanCuttingFullOrdering() {
+        int[] tour = new DecompositionAlgorithm(matrix, 25, 2, TwoOptAlgorithm::new).order(matrix, 70, -1);
+        int[] full = new DecompositionAlgorithm(matrix, 25, 2, TwoOptAlgorithm::new).order(matrix, SIZE, -1);
+        assertTrue(matrix.tourScore(tour) > matrix.tourScore(Arrays.copyOf(full, 70)));
+    }
+
+    @Test
+    public void order_ListInOneCluster_OrdersWithClusterAlgorithm() {
+        int[] tour = new DecompositionAlgorithm(matrix, SIZE, 2, TwoOptAlgorithm::new).order(matrix, SIZE, -1);
+        assertArrayEquals(new TwoOptAlgorithm(matrix).order(matrix, SIZE, -1), tour);
+    }
+}
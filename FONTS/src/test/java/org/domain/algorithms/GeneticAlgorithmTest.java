@@ -0,0 +1,87 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.classes.ProductList;
+import org.domain.exceptions.DistributionException;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GeneticAlgorithmTest {
+
+    private GeneticAlgorithm algorithm;
+    private SimilarityMatrix matrix;
+
+    @Mock
+    private ProductList mockProductList;
+    private List<Product> products;
+
+    @Before
+    public void setUp() throws ProductException {
+        MockitoAnnotations.openMocks(this);
+        Map<String, Map<String, Double>> similarityMatrix = new HashMap<>();
+        products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String s = String.valueOf(i);
+            products.add(new Product(s, s, 0, 10, 100));
+        }
+        Random rand = new Random(21);
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                double similarity = rand.nextDouble();
+                similarityMatrix.computeIfAbsent(products.get(i).getName(), k -> new HashMap<>())
+                                .put(products.get(j).getName(), similarity);
+            }
+        }
+        matrix = new SimilarityMatrix(products, similarityMatrix);
+        algorithm = new GeneticAlgorithm(matrix, 32, 2, 42);
+    }
+
+    @Test
+    public void order_ReturnsPermutation() {
+        int[] tour = algorithm.order(matrix, 100, 50);
+        assertPermutation(matrix, tour, products.size());
+        assertEquals(50, algorithm.getGenerations());
+    }
+
+    @Test
+    public void order_SmallerDistribution_ReturnsDistinctProducts() {
+        int[] tour = algorithm.order(matrix, 10, 50);
+        assertPermutation(matrix, tour, 10);
+    }
+
+    @Test
+    public void order_SameSeed_ReturnsSameOrdering() {
+        int[] first = algorithm.order(matrix, 100, 30);
+        int[] second = new GeneticAlgorithm(matrix, 32, 2, 42).order(matrix, 100, 30);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void order_Elitism_NeverLosesBestIndividual() {
+        List<Double> scores = new ArrayList<>();
+        algorithm.setControl(new SolverControl(-1, progress -> scores.add(progress.getScore())));
+        int[] tour = algorithm.order(matrix, 100, 100);
+        assertEquals(scores.get(scores.size() - 1), matrix.tourScore(tour), 1e-9);
+        assertTrue(matrix.tourScore(tour) >= scores.get(0));
+    }
+
+    @Test
+    public void orderProductList_EmptyProductList_ThrowsDistributionException() {
+        when(mockProductList.getProducts()).thenReturn(new HashSet<>());
+        assertThrows(DistributionException.class, () -> algorithm.orderProductList(mockProductList, 10, 10, 10, new HashMap<>()));
+    }
+}
@@ -0,0 +1,79 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class GreedyEdgeAlgorithmTest {
+
+    private static final int SIZE = 120;
+
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.planar(SIZE, 24);
+    }
+
+    @Test
+    public void order_ValidInputs_ImprovesGreedyOrdering() {
+        GreedyEdgeAlgorithm algorithm = new GreedyEdgeAlgorithm(matrix);
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(matrix.tourScore(tour) > matrix.tourScore(algorithm.greedyOrder(matrix, SIZE, 0)));
+    }
+
+    @Test
+    public void order_ChainOfProducts_FollowsTheChain() {
+        // Consecutive products are the most similar, so the best ordering is the chain itself
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        int[] shuffled = {3, 7, 0, 5, 1, 9, 4, 8, 2, 6};
+        for (int i = 0; i < shuffled.length; i++) {
+            for (int j = i + 1; j < shuffled.length; j++) {
+                similarities.computeIfAbsent(String.valueOf(shuffled[i]), k -> new HashMap<>())
+                        .put(String.valueOf(shuffled[j]), 1.0 / (j - i));
+            }
+        }
+        SimilarityMatrix chain = new SimilarityMatrix(similarities);
+        int[] expected = new int[shuffled.length];
+        for (int i = 0; i < shuffled.length; i++) expected[i] = chain.indexOf(String.valueOf(shuffled[i]));
+        int[] tour = new GreedyEdgeAlgorithm(chain).order(chain, shuffled.length, -1);
+        TourMoves.canonicalize(expected);
+        TourMoves.canonicalize(tour);
+        assertArrayEquals(expected, tour);
+    }
+
+    @Test
+    public void order_SameInputs_ReturnsSameOrdering() {
+        assertArrayEquals(new GreedyEdgeAlgorithm(matrix).order(matrix, SIZE, -1), new GreedyEdgeAlgorithm(matrix).order(matrix, SIZE, -1));
+    }
+
+    @Test
+    public void order_NoCandidates_ReturnsPermutation() {
+        assertPermutation(matrix, new GreedyEdgeAlgorithm(matrix).order(matrix, SIZE, 0), SIZE);
+    }
+
+    @Test
+    public void order_SmallerShelf_KeepsBestConsecutiveProducts() {
+        GreedyEdgeAlgorithm algorithm = new GreedyEdgeAlgorithm(matrix);
+        int[] full = algorithm.order(matrix, SIZE, -1);
+        int[] window = algorithm.order(matrix, 30, -1);
+        assertPermutation(matrix, window, 30);
+        for (int s = 0; s < SIZE; s++) {
+            int[] other = new int[30];
+            for (int i = 0; i < 30; i++) other[i] = full[(s + i) % SIZE];
+            assertTrue(matrix.tourScore(window) >= matrix.tourScore(other) - 1e-9);
+        }
+    }
+
+    @Test
+    public void order_FewProducts_ReturnsPermutation() {
+        SimilarityMatrix small = matrix.restrictTo(new int[] {4, 9});
+        assertPermutation(small, new GreedyEdgeAlgorithm(small).order(small, 2, -1), 2);
+    }
+}
@@ -0,0 +1,85 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.classes.ProductList;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GridLocalSearchAlgorithmTest {
+
+    private GridLocalSearchAlgorithm algorithm;
+
+    @Mock
+    private ProductList mockProductList;
+    private List<Product> products;
+    private Map<String, Map<String, Double>> similarityMatrix;
+
+    @Before
+    public void setUp() throws ProductException {
+        MockitoAnnotations.openMocks(this);
+        similarityMatrix = new HashMap<>();
+        products = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String s = String.valueOf(i);
+            products.add(new Product(s, s, 0, 10, 100));
+        }
+        Random rand = new Random(9);
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                double similarity = rand.nextDouble();
+                similarityMatrix.computeIfAbsent(products.get(i).getName(), k -> new HashMap<>())
+                                .put(products.get(j).getName(), similarity);
+            }
+        }
+        algorithm = new GridLocalSearchAlgorithm(similarityMatrix);
+        when(mockProductList.getProducts()).thenReturn(new HashSet<>(products));
+    }
+
+    @Test
+    public void orderProductList_GridObjective_PlacesEveryProduct() {
+        ArrayList<ArrayList<Product>> result = algorithm.orderProductList(mockProductList, 4, 3, -1, new HashMap<>());
+        assertEquals(Objective.GRID, algorithm.getObjective());
+        assertEquals(3, result.size());
+        Set<Product> placed = new HashSet<>();
+        for (ArrayList<Product> row : result) {
+            assertEquals(4, row.size());
+            placed.addAll(row);
+        }
+        assertEquals(new HashSet<>(products), placed);
+    }
+
+    @Test
+    public void orderGrid_NotWorseThanFoldedGreedy() {
+        SimilarityMatrix matrix = new SimilarityMatrix(products, similarityMatrix);
+        int[] folded = GridObjective.fromSequence(algorithm.greedyOrder(matrix, 12, 0), 4, 3);
+        int[] cells = algorithm.orderGrid(matrix, 4, 3, -1);
+        assertTrue(GridObjective.score(matrix, cells, 4, 3) >= GridObjective.score(matrix, folded, 4, 3));
+    }
+
+    @Test
+    public void orderProductList_OtherAlgorithmGridObjective_PolishesOrdering() {
+        HillClimbingAlgorithm hillClimbing = new HillClimbingAlgorithm(similarityMatrix);
+        hillClimbing.setObjective(Objective.GRID);
+        ArrayList<ArrayList<Product>> result = hillClimbing.orderProductList(mockProductList, 3, 5, -1, new HashMap<>());
+        assertEquals(5, result.size());
+        int empty = 0;
+        for (ArrayList<Product> row : result) {
+            for (Product p : row) if (p == null) ++empty;
+        }
+        assertEquals(3, empty);
+    }
+}
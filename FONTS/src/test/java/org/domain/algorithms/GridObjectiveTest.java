@@ -0,0 +1,111 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GridObjectiveTest {
+
+    private static final int XSIZE = 5;
+    private static final int YSIZE = 4;
+    private static final int PRODUCTS = 17;
+
+    private SimilarityMatrix matrix;
+    private int[] cells;
+
+    @Before
+    public void setUp() {
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        Random rand = new Random(5);
+        for (int i = 0; i < PRODUCTS; i++) {
+            for (int j = i + 1; j < PRODUCTS; j++) {
+                double similarity = rand.nextDouble();
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), similarity);
+            }
+        }
+        matrix = new SimilarityMatrix(similarities);
+        int[] sequence = new int[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) sequence[i] = i;
+        cells = GridObjective.fromSequence(sequence, XSIZE, YSIZE);
+    }
+
+    @Test
+    public void fromSequence_OddRowsReversed() {
+        assertEquals(0, cells[0]);
+        assertEquals(4, cells[4]);
+        assertEquals(5, cells[9]);
+        assertEquals(9, cells[5]);
+        // The last row is odd, so products 15 and 16 are on its right and the rest is empty
+        assertEquals(15, cells[19]);
+        assertEquals(16, cells[18]);
+        assertEquals(GridObjective.EMPTY, cells[15]);
+    }
+
+    @Test
+    public void swapDelta_EveryPair_MatchesFullRecalculation() {
+        double before = GridObjective.score(matrix, cells, XSIZE, YSIZE);
+        for (int a = 0; a < cells.length; a++) {
+            for (int b = 0; b < cells.length; b++) {
+                double delta = GridObjective.swapDelta(matrix, cells, XSIZE, YSIZE, a, b);
+                GridObjective.swap(cells, a, b);
+                assertEquals(GridObjective.score(matrix, cells, XSIZE, YSIZE) - before, delta, 1e-9);
+                GridObjective.swap(cells, a, b);
+            }
+        }
+    }
+
+    @Test
+    public void optimize_ReachesSwapLocalOptimum() {
+        double before = GridObjective.score(matrix, cells, XSIZE, YSIZE);
+        int moves = new GridLocalSearch(matrix).optimize(cells, XSIZE, YSIZE, -1, new SolverControl());
+        assertTrue(moves > 0);
+        assertTrue(GridObjective.score(matrix, cells, XSIZE, YSIZE) > before);
+        for (int a = 0; a < cells.length; a++) {
+            for (int b = a + 1; b < cells.length; b++) {
+                assertTrue(GridObjective.swapDelta(matrix, cells, XSIZE, YSIZE, a, b) <= 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void optimize_MoveLimit_StopsAfterLimit() {
+        assertEquals(2, new GridLocalSearch(matrix).optimize(cells, XSIZE, YSIZE, 2, new SolverControl()));
+    }
+
+    @Test
+    public void optimizeAround_EveryCell_ReachesSwapLocalOptimum() {
+        int[] around = new int[cells.length];
+        for (int cell = 0; cell < around.length; cell++) around[cell] = cell;
+        assertTrue(new GridLocalSearch(matrix).optimizeAround(cells, XSIZE, YSIZE, around, -1, new SolverControl()) > 0);
+        for (int a = 0; a < cells.length; a++) {
+            for (int b = a + 1; b < cells.length; b++) {
+                assertTrue(GridObjective.swapDelta(matrix, cells, XSIZE, YSIZE, a, b) <= 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void optimizeAround_NoCell_KeepsGrid() {
+        int[] before = cells.clone();
+        assertEquals(0, new GridLocalSearch(matrix).optimizeAround(cells, XSIZE, YSIZE, new int[0], -1, new SolverControl()));
+        assertArrayEquals(before, cells);
+    }
+
+    @Test
+    public void orderGrid_Listener_ReceivesOnlyGridScores() {
+        List<Double> scores = new ArrayList<>();
+        TwoOptAlgorithm algorithm = new TwoOptAlgorithm(matrix);
+        algorithm.setControl(new SolverControl(-1, progress -> scores.add(progress.getScore())));
+        int[] grid = algorithm.orderGrid(matrix, XSIZE, YSIZE, -1);
+        int[] folded = GridObjective.fromSequence(new TwoOptAlgorithm(matrix).order(matrix, XSIZE * YSIZE, -1), XSIZE, YSIZE);
+        assertEquals(GridObjective.score(matrix, folded, XSIZE, YSIZE), scores.get(0), 1e-9);
+        assertEquals(GridObjective.score(matrix, grid, XSIZE, YSIZE), scores.get(scores.size() - 1), 1e-9);
+    }
+}
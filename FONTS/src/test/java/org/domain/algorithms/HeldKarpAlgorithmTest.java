@@ -0,0 +1,107 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.classes.ProductList;
+import org.domain.exceptions.DistributionException;
+import org.domain.exceptions.ProductException;
+import org.domain.types.Pair;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class HeldKarpAlgorithmTest {
+
+    private HeldKarpAlgorithm algorithm;
+
+    @Mock
+    private ProductList mockProductList;
+    private List<Product> products;
+    private Map<String, Map<String, Double>> similarityMatrix;
+
+    @Before
+    public void setUp() throws ProductException {
+        MockitoAnnotations.openMocks(this);
+        similarityMatrix = new HashMap<>();
+        products = new ArrayList<>();
+        for (int i = 0; i < 22; i++) {
+            String s = String.valueOf(i);
+            products.add(new Product(s, s, 0, 10, 100));
+        }
+
+        // Fill the similarityMatrix with random values between 0 and 1
+        Random rand = new Random(3);
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                double similarity = rand.nextDouble();
+                similarityMatrix.computeIfAbsent(products.get(i).getName(), k -> new HashMap<>())
+                                .put(products.get(j).getName(), similarity);
+                similarityMatrix.computeIfAbsent(products.get(j).getName(), k -> new HashMap<>())
+                                .put(products.get(i).getName(), similarity);
+            }
+        }
+        algorithm = new HeldKarpAlgorithm(similarityMatrix);
+    }
+
+    @Test
+    public void order_SmallList_MatchesBranchAndBound() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(products.subList(0, 9));
+        int[] tour = algorithm.order(matrix, 100, -1);
+        int[] exact = new BruteForceAlgorithm(matrix).order(matrix, 100, -1);
+        assertEquals(9, tour.length);
+        assertEquals(matrix.tourScore(exact), matrix.tourScore(tour), 1e-9);
+    }
+
+    @Test
+    public void order_ReturnsPermutation() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(products.subList(0, 14));
+        int[] tour = algorithm.order(matrix, 100, -1);
+        boolean[] seen = new boolean[14];
+        for (int id : tour) {
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+
+    @Test
+    public void order_SmallerShelf_MatchesBranchAndBoundSubset() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarityMatrix).restrictTo(products.subList(0, 9));
+        for (int maxsize = 2; maxsize < 9; maxsize++) {
+            int[] tour = algorithm.order(matrix, maxsize, -1);
+            int[] exact = new BruteForceAlgorithm(matrix).order(matrix, maxsize, -1);
+            assertEquals(maxsize, tour.length);
+            assertEquals(matrix.tourScore(exact), matrix.tourScore(tour), 1e-9);
+        }
+    }
+
+    @Test
+    public void orderProductList_CapacityBelowListSize_PlacesBestSubset() {
+        when(mockProductList.getProducts()).thenReturn(new HashSet<>(products.subList(0, 9)));
+        HashMap<String, Pair<Integer, Integer>> coordinates = new HashMap<>();
+        ArrayList<ArrayList<Product>> distribution = algorithm.orderProductList(mockProductList, 2, 2, -1, coordinates);
+        assertEquals(2, distribution.size());
+        assertEquals(4, coordinates.size());
+    }
+
+    @Test
+    public void orderProductList_TooManyProducts_ThrowsDistributionException() {
+        when(mockProductList.getProducts()).thenReturn(new HashSet<>(products));
+        assertThrows(DistributionException.class, () -> algorithm.orderProductList(mockProductList, 10, 10, -1, new HashMap<>()));
+    }
+
+    @Test
+    public void orderProductList_EmptyProductList_ThrowsDistributionException() {
+        when(mockProductList.getProducts()).thenReturn(new HashSet<>());
+        assertThrows(DistributionException.class, () -> algorithm.orderProductList(mockProductList, 10, 10, -1, new HashMap<>()));
+    }
+}
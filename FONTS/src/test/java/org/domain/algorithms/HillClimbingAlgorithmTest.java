@@ -105,4 +105,33 @@ public class HillClimbingAlgorithmTest {
         when(mockProductList.getProducts()).thenReturn(new HashSet<>(mockProducts));
         assertThrows(DistributionException.class, () -> algorithm.orderProductList(mockProductList, 10, -1, 10, new HashMap<>()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void order_MultiStartSameSeed_ReturnsSameOrdering() {
+        SimilarityMatrix matrix = new SimilarityMatrix(mockProducts, similarityMatrix);
+        int[] first = new HillClimbingAlgorithm(matrix, 4, 42, -1).order(matrix, 100, -1);
+        int[] second = new HillClimbingAlgorithm(matrix, 4, 42, -1).order(matrix, 100, -1);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void order_MultiStart_NotWorseThanItsGreedyStarts() {
+        SimilarityMatrix matrix = new SimilarityMatrix(mockProducts, similarityMatrix);
+        double multi = matrix.tourScore(new HillClimbingAlgorithm(matrix, 16, 42, -1).order(matrix, 100, -1));
+        // With an expired budget every climb returns its greedy ordering, which the climbs can only improve
+        int[] tour = new HillClimbingAlgorithm(matrix, 16, 42, 0).order(matrix, 100, -1);
+        assertTrue(multi >= matrix.tourScore(tour) - 1e-9);
+    }
+
+    @Test
+    public void order_MultiStartExpiredBudget_ReturnsPermutation() {
+        SimilarityMatrix matrix = new SimilarityMatrix(mockProducts, similarityMatrix);
+        int[] tour = new HillClimbingAlgorithm(matrix, 4, 42, 0).order(matrix, 100, -1);
+        assertEquals(mockProducts.size(), tour.length);
+        boolean[] seen = new boolean[mockProducts.size()];
+        for (int id : tour) {
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+}
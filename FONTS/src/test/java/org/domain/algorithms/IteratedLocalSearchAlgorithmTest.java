@@ -0,0 +1,78 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class IteratedLocalSearchAlgorithmTest {
+
+    private static final int SIZE = 60;
+
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.random(SIZE, 13);
+    }
+
+    @Test
+    public void order_ValidInputs_BeatsTwoOpt() {
+        IteratedLocalSearchAlgorithm algorithm = new IteratedLocalSearchAlgorithm(matrix, IteratedLocalSearchAlgorithm.Acceptance.BETTER, -1, 7);
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        double twoOpt = matrix.tourScore(new TwoOptAlgorithm(matrix).order(matrix, SIZE, -1));
+        assertTrue(matrix.tourScore(tour) > twoOpt);
+    }
+
+    @Test
+    public void order_SameSeed_ReturnsSameOrdering() {
+        int[] first = new IteratedLocalSearchAlgorithm(matrix, IteratedLocalSearchAlgorithm.Acceptance.EQUAL_OR_BETTER, -1, 3).order(matrix, SIZE, 500);
+        int[] second = new IteratedLocalSearchAlgorithm(matrix, IteratedLocalSearchAlgorithm.Acceptance.EQUAL_OR_BETTER, -1, 3).order(matrix, SIZE, 500);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void order_IterationLimit_StopsAfterLimit() {
+        IteratedLocalSearchAlgorithm algorithm = new IteratedLocalSearchAlgorithm(matrix);
+        algorithm.order(matrix, SIZE, 100);
+        assertEquals(100, algorithm.getIterations());
+    }
+
+    @Test
+    public void order_RandomWalk_ReturnsBestOrdering() {
+        IteratedLocalSearchAlgorithm algorithm = new IteratedLocalSearchAlgorithm(matrix, IteratedLocalSearchAlgorithm.Acceptance.RANDOM_WALK, -1, 11);
+        double[] best = {Double.NEGATIVE_INFINITY};
+        algorithm.setControl(new SolverControl(-1, progress -> best[0] = Math.max(best[0], progress.getScore())));
+        int[] tour = algorithm.order(matrix, SIZE, 2000);
+        assertPermutation(matrix, tour, SIZE);
+        assertEquals(best[0], matrix.tourScore(tour), 1e-9);
+    }
+
+    @Test
+    public void order_TimeBudget_StopsWithinBudget() {
+        IteratedLocalSearchAlgorithm algorithm = new IteratedLocalSearchAlgorithm(matrix, IteratedLocalSearchAlgorithm.Acceptance.BETTER, 100, 5);
+        long start = System.currentTimeMillis();
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(algorithm.getIterations() > 0);
+    }
+
+    @Test
+    public void order_SmallerShelf_ReturnsMaxsizeProducts() {
+        int[] tour = new IteratedLocalSearchAlgorithm(matrix).order(matrix, 20, 200);
+        assertPermutation(matrix, tour, 20);
+    }
+
+    @Test
+    public void order_CancelledControl_ReturnsPermutation() {
+        IteratedLocalSearchAlgorithm algorithm = new IteratedLocalSearchAlgorithm(matrix);
+        SolverControl control = new SolverControl();
+        control.cancel();
+        algorithm.setControl(control);
+        assertPermutation(matrix, algorithm.order(matrix, SIZE, -1), SIZE);
+        assertEquals(0, algorithm.getIterations());
+    }
+}
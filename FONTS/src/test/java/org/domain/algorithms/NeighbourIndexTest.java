@@ -0,0 +1,84 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NeighbourIndexTest {
+
+    private Map<String, Map<String, Double>> similarities;
+
+    private void set(String a, String b, double score) {
+        similarities.computeIfAbsent(a, k -> new HashMap<>()).put(b, score);
+        similarities.computeIfAbsent(b, k -> new HashMap<>()).put(a, score);
+    }
+
+    @Before
+    public void setUp() {
+        similarities = new HashMap<>();
+        set("a", "b", 0.9);
+        set("a", "c", 0.5);
+        set("a", "d", 0.3);
+        set("b", "c", 0.1);
+    }
+
+    @Test
+    public void neighbours_BuiltFromMap_SortedByDecreasingSimilarity() {
+        NeighbourIndex index = new NeighbourIndex(similarities, 2);
+        assertEquals(List.of("b", "c"), index.neighbours("a"));
+        assertEquals(List.of("a", "c"), index.neighbours("b"));
+        assertEquals(List.of("a"), index.neighbours("d"));
+        assertTrue(index.neighbours("unknown").isEmpty());
+    }
+
+    @Test
+    public void update_HigherSimilarity_EntersList() {
+        NeighbourIndex index = new NeighbourIndex(similarities, 2);
+        set("a", "d", 0.95);
+        index.update("a", "d");
+        assertEquals(List.of("d", "b"), index.neighbours("a"));
+    }
+
+    @Test
+    public void update_LoweredSimilarity_IsReplacedByNextMostSimilar() {
+        NeighbourIndex index = new NeighbourIndex(similarities, 2);
+        set("a", "b", 0.2);
+        index.update("a", "b");
+        assertEquals(List.of("c", "d"), index.neighbours("a"));
+    }
+
+    @Test
+    public void remove_Product_IsReplacedByNextMostSimilar() {
+        NeighbourIndex index = new NeighbourIndex(similarities, 2);
+        similarities.remove("b");
+        for (Map<String, Double> row : similarities.values()) row.remove("b");
+        index.remove("b");
+        assertEquals(List.of("c", "d"), index.neighbours("a"));
+        assertTrue(index.neighbours("b").isEmpty());
+    }
+
+    @Test
+    public void topNeighbours_WithIndex_SameListsAsWithout() throws ProductException {
+        similarities = new HashMap<>();
+        Random rand = new Random(3);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < i; j++) set(String.valueOf(i), String.valueOf(j), rand.nextDouble());
+            if (i % 2 == 0) products.add(new Product(String.valueOf(i), "c", 1, 1, 1));
+        }
+        NeighbourIndex index = new NeighbourIndex(similarities);
+        SimilarityMatrix indexed = new SimilarityMatrix(products, similarities, index);
+        SimilarityMatrix scanned = new SimilarityMatrix(products, similarities);
+        assertArrayEquals(scanned.topNeighbours(8), indexed.topNeighbours(8));
+        assertArrayEquals(scanned.topNeighbours(19), indexed.topNeighbours(19));
+    }
+}
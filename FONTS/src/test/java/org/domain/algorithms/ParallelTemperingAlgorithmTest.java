@@ -0,0 +1,72 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class ParallelTemperingAlgorithmTest {
+
+    private static final int SIZE = 120;
+
+    private SimilarityMatrix matrix;
+    private ParallelTemperingAlgorithm algorithm;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.planar(SIZE, 25);
+        algorithm = new ParallelTemperingAlgorithm(matrix, 4, ParallelTemperingAlgorithm.DEFAULT_MIN_TEMPERATURE,
+                ParallelTemperingAlgorithm.DEFAULT_MAX_TEMPERATURE, 25);
+    }
+
+    @Test
+    public void order_ValidInputs_ImprovesGreedyOrdering() {
+        int[] tour = algorithm.order(matrix, SIZE, 200);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(matrix.tourScore(tour) > matrix.tourScore(algorithm.greedyOrder(matrix, SIZE, 0)));
+        assertTrue(algorithm.getRounds() > 0);
+        assertTrue(algorithm.getExchanges() > 0);
+    }
+
+    @Test
+    public void order_Listener_ReceivesScoreOfResult() {
+        List<Double> scores = new ArrayList<>();
+        algorithm.setControl(new SolverControl(-1, progress -> scores.add(progress.getScore())));
+        int[] tour = algorithm.order(matrix, SIZE, 100);
+        assertFalse(scores.isEmpty());
+        for (int i = 1; i < scores.size(); i++) assertTrue(scores.get(i) > scores.get(i - 1));
+        assertEquals(matrix.tourScore(tour), scores.get(scores.size() - 1), 1e-6);
+    }
+
+    @Test
+    public void order_ControlDeadline_StopsBeforeLimit() {
+        algorithm.setControl(new SolverControl(50, null));
+        long start = System.nanoTime();
+        algorithm.order(matrix, SIZE, 10000);
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    @Test
+    public void order_CancelledControl_StopsAfterFirstRound() {
+        SolverControl control = new SolverControl();
+        control.cancel();
+        algorithm.setControl(control);
+        assertPermutation(matrix, algorithm.order(matrix, SIZE, 10000), SIZE);
+        assertEquals(1, algorithm.getRounds());
+    }
+
+    @Test
+    public void order_SmallerShelf_ReturnsMaxsizeProducts() {
+        assertPermutation(matrix, algorithm.order(matrix, 30, 50), 30);
+    }
+
+    @Test
+    public void order_FewProducts_ReturnsPermutation() {
+        SimilarityMatrix small = matrix.restrictTo(new int[] {4, 9, 13});
+        assertPermutation(small, new ParallelTemperingAlgorithm(small).order(small, 3, 50), 3);
+    }
+}
@@ -0,0 +1,138 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.exceptions.DistributionException;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class PortfolioAlgorithmTest {
+
+    private PortfolioAlgorithm algorithm;
+    private SimilarityMatrix matrix;
+    private List<Product> products;
+
+    @Before
+    public void setUp() throws ProductException {
+        Map<String, Map<String, Double>> similarityMatrix = new HashMap<>();
+        products = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String s = String.valueOf(i);
+            products.add(new Product(s, s, 0, 10, 100));
+        }
+        Random rand = new Random(5);
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                double similarity = rand.nextDouble();
+                similarityMatrix.computeIfAbsent(products.get(i).getName(), k -> new HashMap<>())
+                                .put(products.get(j).getName(), similarity);
+            }
+        }
+        matrix = new SimilarityMatrix(products, similarityMatrix);
+        algorithm = new PortfolioAlgorithm(matrix);
+    }
+
+    @Test
+    public void order_DefaultMembers_ReturnsBestOrderingOfTheRace() {
+        int[] tour = algorithm.order(matrix, 100, 200);
+        assertPermutation(matrix, tour, products.size());
+        List<PortfolioStatistics> statistics = algorithm.getStatistics();
+        assertEquals(3, statistics.size());
+        int winners = 0;
+        for (PortfolioStatistics member : statistics) {
+            assertTrue(member.getScore() <= matrix.tourScore(tour));
+            if (member.isWinner()) {
+                ++winners;
+                assertEquals(matrix.tourScore(tour), member.getScore(), 1e-9);
+            }
+        }
+        assertEquals(1, winners);
+    }
+
+    @Test
+    public void order_CancelledControl_StopsEveryMember() {
+        SolverControl control = new SolverControl();
+        control.cancel();
+        algorithm.setControl(control);
+        long start = System.nanoTime();
+        assertPermutation(matrix, algorithm.order(matrix, 100, 60000), products.size());
+        assertTrue(System.nanoTime() - start < 30_000_000_000L);
+    }
+
+    @Test
+    public void order_FailingMember_OtherMemberWins() {
+        AbstractAlgorithm failing = new TwoOptAlgorithm(matrix) {
+            @Override
+            protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+                throw new IllegalStateException("failure");
+            }
+        };
+        List<AbstractAlgorithm> members = new ArrayList<>();
+        members.add(failing);
+        members.add(new TwoOptAlgorithm(matrix));
+        PortfolioAlgorithm portfolio = new PortfolioAlgorithm(matrix, members);
+        assertPermutation(matrix, portfolio.order(matrix, 100, 200), products.size());
+        assertTrue(Double.isNaN(portfolio.getStatistics().get(0).getScore()));
+        assertTrue(portfolio.getStatistics().get(1).isWinner());
+    }
+
+    @Test
+    public void order_SharedIncumbent_RestartsMembersFromIt() {
+        int[] optimized = new TwoOptAlgorithm(matrix).order(matrix, 100, -1);
+        AbstractAlgorithm fixed = new TwoOptAlgorithm(matrix) {
+            @Override
+            public boolean supportsStartOrder() {
+                return false;
+            }
+
+            @Override
+            protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+                return optimized.clone();
+            }
+        };
+        List<int[]> starts = new ArrayList<>();
+        AbstractAlgorithm recording = new TwoOptAlgorithm(matrix) {
+            @Override
+            protected int[] order(SimilarityMatrix matrix, int maxsize, int limit) {
+                synchronized (starts) {
+                    starts.add(startOrder);
+                }
+                return initialOrder(matrix, maxsize, 0);
+            }
+        };
+        List<AbstractAlgorithm> members = new ArrayList<>();
+        members.add(recording);
+        members.add(fixed);
+        PortfolioAlgorithm portfolio = new PortfolioAlgorithm(matrix, members);
+        int[] tour = portfolio.order(matrix, 100, 5000);
+        assertArrayEquals(optimized, tour);
+        boolean restarted = false;
+        for (int[] start : starts) restarted |= Arrays.equals(optimized, start);
+        assertTrue(restarted);
+    }
+
+    @Test
+    public void order_Listener_ReceivesIncreasingScores() {
+        List<Double> scores = new ArrayList<>();
+        algorithm.setControl(new SolverControl(-1, progress -> scores.add(progress.getScore())));
+        int[] tour = algorithm.order(matrix, 100, 200);
+        assertFalse(scores.isEmpty());
+        for (int i = 1; i < scores.size(); i++) assertTrue(scores.get(i) > scores.get(i - 1));
+        assertEquals(scores.get(scores.size() - 1), matrix.tourScore(tour), 1e-9);
+    }
+
+    @Test
+    public void constructor_NoMembers_ThrowsDistributionException() {
+        assertThrows(DistributionException.class, () -> new PortfolioAlgorithm(matrix, new ArrayList<>()));
+    }
+}
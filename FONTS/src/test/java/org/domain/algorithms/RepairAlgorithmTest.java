@@ -0,0 +1,138 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class RepairAlgorithmTest {
+
+    private static final int SIZE = 30;
+    private static final int XSIZE = 6;
+    private static final int YSIZE = 5;
+
+    private SimilarityMatrix matrix;
+    private List<String> previous;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.random(SIZE, 5);
+        int[] tour = new TwoOptAlgorithm(matrix).order(matrix, SIZE, -1);
+        previous = new ArrayList<>();
+        for (int id : tour) previous.add(matrix.getName(id));
+    }
+
+    private List<String> names(int[] tour) {
+        List<String> names = new ArrayList<>();
+        for (int id : tour) names.add(matrix.getName(id));
+        return names;
+    }
+
+    @Test
+    public void order_UnchangedList_KeepsPreviousOrdering() {
+        int[] tour = new RepairAlgorithm(matrix, previous).order(matrix, SIZE, -1);
+        assertEquals(previous, names(tour));
+    }
+
+    @Test
+    public void order_EditedList_ReturnsEveryCurrentProduct() {
+        List<String> edited = new ArrayList<>(previous);
+        edited.remove("3");
+        edited.remove("17");
+        edited.add(5, "removed");
+        int[] tour = new RepairAlgorithm(matrix, edited).order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(names(tour).contains("3"));
+        assertTrue(names(tour).contains("17"));
+    }
+
+    @Test
+    public void order_EditedList_NotWorseThanInsertionWithoutSearch() {
+        List<String> edited = new ArrayList<>(previous.subList(0, SIZE - 4));
+        double unrepaired = matrix.tourScore(new RepairAlgorithm(matrix, edited).order(matrix, SIZE, 1));
+        double repaired = matrix.tourScore(new RepairAlgorithm(matrix, edited).order(matrix, SIZE, -1));
+        assertTrue(repaired >= unrepaired - 1e-9);
+    }
+
+    @Test
+    public void order_SmallerShelf_RemovesProductsUntilItFits() {
+        int[] tour = new RepairAlgorithm(matrix, previous).order(matrix, 20, -1);
+        assertPermutation(matrix, tour, 20);
+    }
+
+    private List<List<String>> grid(int[] cells) {
+        List<List<String>> grid = new ArrayList<>();
+        for (int row = 0; row < YSIZE; row++) {
+            List<String> names = new ArrayList<>();
+            for (int column = 0; column < XSIZE; column++) {
+                int id = cells[row * XSIZE + column];
+                names.add(id == GridObjective.EMPTY ? null : matrix.getName(id));
+            }
+            grid.add(names);
+        }
+        return grid;
+    }
+
+    @Test
+    public void orderGrid_UnchangedGrid_KeepsPreviousCells() {
+        int[] cells = new GridLocalSearchAlgorithm(matrix).orderGrid(matrix, XSIZE, YSIZE, -1);
+        int[] repaired = new RepairAlgorithm(matrix, previous, grid(cells)).orderGrid(matrix, XSIZE, YSIZE, -1);
+        assertArrayEquals(cells, repaired);
+    }
+
+    @Test
+    public void orderGrid_EditedGrid_KeepsCellsAndPlacesEveryProduct() {
+        int[] cells = new GridLocalSearchAlgorithm(matrix).orderGrid(matrix, XSIZE, YSIZE, -1);
+        List<List<String>> edited = grid(cells);
+        edited.get(0).set(0, null);
+        edited.get(1).set(1, null);
+        edited.get(3).set(3, "removed");
+        int[] repaired = new RepairAlgorithm(matrix, previous, edited).orderGrid(matrix, XSIZE, YSIZE, 0);
+        int[] placed = new int[SIZE];
+        for (int cell = 0; cell < repaired.length; cell++) {
+            if (repaired[cell] == GridObjective.EMPTY) continue;
+            ++placed[repaired[cell]];
+            String before = edited.get(cell / XSIZE).get(cell % XSIZE);
+            if (before != null && !before.equals("removed")) assertEquals(before, matrix.getName(repaired[cell]));
+        }
+        for (int count : placed) assertEquals(1, count);
+    }
+
+    @Test
+    public void orderGrid_EditedGrid_NotWorseThanPlacementWithoutSearch() {
+        int[] cells = new GridLocalSearchAlgorithm(matrix).orderGrid(matrix, XSIZE, YSIZE, -1);
+        List<List<String>> edited = grid(cells);
+        edited.get(0).set(0, null);
+        edited.get(4).set(5, null);
+        double unrepaired = GridObjective.score(matrix, new RepairAlgorithm(matrix, previous, edited).orderGrid(matrix, XSIZE, YSIZE, 0), XSIZE, YSIZE);
+        double repaired = GridObjective.score(matrix, new RepairAlgorithm(matrix, previous, edited).orderGrid(matrix, XSIZE, YSIZE, -1), XSIZE, YSIZE);
+        assertTrue(repaired >= unrepaired - 1e-9);
+    }
+
+    @Test
+    public void orderGrid_FullGrid_LeavesOutProductsThatFitNoCell() {
+        int[] repaired = new RepairAlgorithm(matrix, previous).orderGrid(matrix, 5, 4, -1);
+        boolean[] seen = new boolean[SIZE];
+        for (int id : repaired) {
+            assertNotEquals(GridObjective.EMPTY, id);
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+
+    @Test
+    public void sequenceOf_FoldedLayout_ReturnsOrderingOfTheProducts() throws ProductException {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 7; i++) products.add(new Product(String.valueOf(i), "c", 1, 1, 1));
+        RepairAlgorithm repair = new RepairAlgorithm(matrix, previous);
+        ArrayList<ArrayList<Product>> layout = repair.adaptToShelf(products, 3, 3, new HashMap<>());
+        assertEquals(List.of("0", "1", "2", "3", "4", "5", "6"), RepairAlgorithm.sequenceOf(layout));
+    }
+}
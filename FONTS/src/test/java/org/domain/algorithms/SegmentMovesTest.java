@@ -0,0 +1,131 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SegmentMovesTest {
+
+    private static final int SIZE = 10;
+
+    private SimilarityMatrix matrix;
+    private int[] tour;
+
+    @Before
+    public void setUp() {
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        Random rand = new Random(22);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = i + 1; j < SIZE; j++) {
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), rand.nextDouble());
+            }
+        }
+        matrix = new SimilarityMatrix(similarities);
+        tour = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) tour[i] = i;
+    }
+
+    private int[] positions(int[] order) {
+        int[] pos = new int[matrix.size()];
+        for (int i = 0; i < order.length; i++) pos[order[i]] = i;
+        return pos;
+    }
+
+    private void assertPositions(int[] order, int[] pos) {
+        for (int i = 0; i < order.length; i++) assertEquals(i, pos[order[i]]);
+    }
+
+    private void assertSameCycle(int[] expected, int[] actual) {
+        int[] a = expected.clone();
+        int[] b = actual.clone();
+        TourMoves.canonicalize(a);
+        TourMoves.canonicalize(b);
+        assertArrayEquals(a, b);
+    }
+
+    @Test
+    public void orOpt_EveryMove_MatchesDeltaAndExpectedOrdering() {
+        double before = matrix.tourScore(tour);
+        for (int len = 1; len <= SegmentMoves.MAX_SEGMENT; len++) {
+            for (int i = 0; i < SIZE; i++) {
+                for (int offset = len; offset < SIZE - 1; offset++) {
+                    int j = (i + offset) % SIZE;
+                    for (int r = 0; r < 2; r++) {
+                        boolean reversed = r == 1;
+                        // Expected: the products after the segment up to j, then the segment, then the rest
+                        int[] expected = new int[SIZE];
+                        int count = 0;
+                        for (int k = len; k <= offset; k++) expected[count++] = tour[(i + k) % SIZE];
+                        for (int k = 0; k < len; k++) expected[count++] = tour[(i + (reversed ? len - 1 - k : k)) % SIZE];
+                        for (int k = offset + 1; k < SIZE; k++) expected[count++] = tour[(i + k) % SIZE];
+
+                        int[] moved = tour.clone();
+                        int[] pos = positions(moved);
+                        double delta = SegmentMoves.orOptDelta(matrix, moved, i, len, j, reversed);
+                        SegmentMoves.orOpt(moved, pos, i, len, j, reversed);
+                        assertPositions(moved, pos);
+                        assertSameCycle(expected, moved);
+                        assertEquals(matrix.tourScore(moved) - before, delta, 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void orOptDelta_TargetInsideSegment_ReturnsZero() {
+        assertEquals(0.0, SegmentMoves.orOptDelta(matrix, tour, 2, 3, 3, false), 0.0);
+        assertEquals(0.0, SegmentMoves.orOptDelta(matrix, tour, 2, 3, 1, true), 0.0);
+    }
+
+    @Test
+    public void exchange_EveryMove_MatchesDeltaAndExpectedOrdering() {
+        double before = matrix.tourScore(tour);
+        for (int j = 1; j < SIZE - 1; j++) {
+            for (int k = j + 1; k < SIZE; k++) {
+                // Expected: 0, then the products from j + 1 to k, then the ones from 1 to j, then the rest
+                int[] expected = new int[SIZE];
+                int count = 0;
+                expected[count++] = tour[0];
+                for (int x = j + 1; x <= k; x++) expected[count++] = tour[x];
+                for (int x = 1; x <= j; x++) expected[count++] = tour[x];
+                for (int x = k + 1; x < SIZE; x++) expected[count++] = tour[x];
+
+                int[] moved = tour.clone();
+                int[] pos = positions(moved);
+                double delta = SegmentMoves.threeOptDelta(matrix, moved, 0, j, k);
+                SegmentMoves.exchange(moved, pos, 0, j, k);
+                assertPositions(moved, pos);
+                assertSameCycle(expected, moved);
+                assertEquals(matrix.tourScore(moved) - before, delta, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void improve_RandomOrderings_GainMatchesScore() {
+        SegmentMoves moves = new SegmentMoves(matrix, 4);
+        Random rand = new Random(3);
+        int[] changed = new int[SegmentMoves.CHANGED];
+        int applied = 0;
+        for (int round = 0; round < 200; round++) {
+            int[] order = tour.clone();
+            for (int i = SIZE - 1; i > 0; i--) TourMoves.swap(order, i, rand.nextInt(i + 1));
+            int[] pos = positions(order);
+            for (int a = 0; a < SIZE; a++) {
+                double before = matrix.tourScore(order);
+                double gain = moves.improve(order, pos, a, changed);
+                assertTrue(gain >= 0);
+                assertEquals(before + gain, matrix.tourScore(order), 1e-9);
+                assertPositions(order, pos);
+                if (gain > 0) ++applied;
+            }
+        }
+        assertTrue(applied > 0);
+    }
+}
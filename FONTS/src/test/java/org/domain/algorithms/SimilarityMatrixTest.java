@@ -0,0 +1,73 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SimilarityMatrixTest {
+
+    private List<Product> products;
+    private Map<String, Map<String, Double>> similarities;
+
+    @Before
+    public void setUp() throws ProductException {
+        products = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String s = String.valueOf(i);
+            products.add(new Product(s, s, 0, 10, 100));
+        }
+        similarities = new HashMap<>();
+        similarities.computeIfAbsent("0", k -> new HashMap<>()).put("1", 0.5);
+        similarities.computeIfAbsent("1", k -> new HashMap<>()).put("0", 0.5);
+        // Only one direction stored
+        similarities.computeIfAbsent("2", k -> new HashMap<>()).put("3", 0.25);
+    }
+
+    @Test
+    public void get_StoredSimilarity_ReturnsScore() {
+        SimilarityMatrix matrix = new SimilarityMatrix(products, similarities);
+        assertEquals(4, matrix.size());
+        assertEquals(0.5, matrix.get(0, 1), 1e-9);
+        assertEquals(0.5, matrix.get("1", "0"), 1e-9);
+    }
+
+    @Test
+    public void get_OneDirectionStored_IsSymmetric() {
+        SimilarityMatrix matrix = new SimilarityMatrix(products, similarities);
+        assertEquals(0.25, matrix.get(2, 3), 1e-9);
+        assertEquals(0.25, matrix.get(3, 2), 1e-9);
+    }
+
+    @Test
+    public void get_MissingSimilarity_ReturnsZero() {
+        SimilarityMatrix matrix = new SimilarityMatrix(products, similarities);
+        assertEquals(0.0, matrix.get(0, 3), 1e-9);
+        assertEquals(0.0, matrix.get("0", "unknown"), 1e-9);
+        assertEquals(-1, matrix.indexOf("unknown"));
+    }
+
+    @Test
+    public void restrictTo_ReorderedList_IndexesByPosition() {
+        SimilarityMatrix matrix = new SimilarityMatrix(similarities);
+        List<Product> reordered = List.of(products.get(3), products.get(1), products.get(2), products.get(0));
+        SimilarityMatrix local = matrix.restrictTo(reordered);
+        assertEquals("3", local.getName(0));
+        assertEquals(0.25, local.get(0, 2), 1e-9);
+        assertEquals(0.5, local.get(1, 3), 1e-9);
+    }
+
+    @Test
+    public void tourScore_CyclicOrdering_AddsClosingEdge() {
+        SimilarityMatrix matrix = new SimilarityMatrix(products, similarities);
+        assertEquals(0.5 + 0.25, matrix.tourScore(new int[]{0, 1, 2, 3}), 1e-9);
+        assertEquals(0.0, matrix.tourScore(new int[]{0, 2, 1, 3}), 1e-9);
+    }
+}
@@ -0,0 +1,104 @@
+package org.domain.algorithms;
+
+import org.domain.classes.Product;
+import org.domain.classes.ProductList;
+import org.domain.exceptions.DistributionException;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SimulatedAnnealingAlgorithmTest {
+
+    private SimulatedAnnealingAlgorithm algorithm;
+    private SimilarityMatrix matrix;
+
+    @Mock
+    private ProductList mockProductList;
+    private List<Product> products;
+
+    @Before
+    public void setUp() throws ProductException {
+        MockitoAnnotations.openMocks(this);
+        Map<String, Map<String, Double>> similarityMatrix = new HashMap<>();
+        products = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String s = String.valueOf(i);
+            products.add(new Product(s, s, 0, 10, 100));
+        }
+
+        // Fill the similarityMatrix with random values between 0 and 1
+        Random rand = new Random(5);
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                double similarity = rand.nextDouble();
+                similarityMatrix.computeIfAbsent(products.get(i).getName(), k -> new HashMap<>())
+                                .put(products.get(j).getName(), similarity);
+            }
+        }
+        matrix = new SimilarityMatrix(products, similarityMatrix);
+        algorithm = new SimulatedAnnealingAlgorithm(matrix, 0.1, 0.0001, 42);
+    }
+
+    @Test
+    public void order_ReturnsPermutation() {
+        int[] tour = algorithm.order(matrix, 100, 100);
+        assertEquals(products.size(), tour.length);
+        boolean[] seen = new boolean[tour.length];
+        for (int id : tour) {
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+
+    @Test
+    public void order_TraceEndsWithScoreOfResult() {
+        int[] tour = algorithm.order(matrix, 100, 100);
+        double[] trace = algorithm.getTrace();
+        assertTrue(algorithm.getIterations() > 0);
+        for (int i = 1; i < trace.length; i++) assertTrue(trace[i] > trace[i - 1]);
+        assertEquals(matrix.tourScore(tour), trace[trace.length - 1], 1e-6);
+    }
+
+    @Test
+    public void order_BeatsGreedyOrdering() {
+        int[] tour = algorithm.order(matrix, 100, 200);
+        assertTrue(matrix.tourScore(tour) >= algorithm.getTrace()[0]);
+        assertTrue(algorithm.getTrace().length > 1);
+    }
+
+    @Test
+    public void order_Listener_ReceivesIncreasingImprovements() {
+        List<Double> scores = new ArrayList<>();
+        algorithm.setControl(new SolverControl(-1, progress -> scores.add(progress.getScore())));
+        int[] tour = algorithm.order(matrix, 100, 100);
+        assertFalse(scores.isEmpty());
+        for (int i = 1; i < scores.size(); i++) assertTrue(scores.get(i) > scores.get(i - 1));
+        assertEquals(matrix.tourScore(tour), scores.get(scores.size() - 1), 1e-6);
+    }
+
+    @Test
+    public void order_ControlDeadline_StopsBeforeLimit() {
+        algorithm.setControl(new SolverControl(50, null));
+        long start = System.nanoTime();
+        algorithm.order(matrix, 100, 10000);
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    @Test
+    public void orderProductList_EmptyProductList_ThrowsDistributionException() {
+        when(mockProductList.getProducts()).thenReturn(new HashSet<>());
+        assertThrows(DistributionException.class, () -> algorithm.orderProductList(mockProductList, 10, 10, 10, new HashMap<>()));
+    }
+}
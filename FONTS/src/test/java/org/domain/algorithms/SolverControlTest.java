@@ -0,0 +1,52 @@
+package org.domain.algorithms;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SolverControlTest {
+
+    @Test
+    public void shouldStop_NoDeadline_OnlyAfterCancel() {
+        SolverControl control = new SolverControl();
+        assertFalse(control.shouldStop());
+        assertEquals(Long.MAX_VALUE, control.getRemainingMillis());
+        control.cancel();
+        assertTrue(control.isCancelled());
+        assertTrue(control.shouldStop());
+    }
+
+    @Test
+    public void shouldStop_ExpiredDeadline_ReturnsTrue() {
+        SolverControl control = new SolverControl(0, null);
+        assertTrue(control.shouldStop());
+        assertEquals(0, control.getRemainingMillis());
+    }
+
+    @Test
+    public void shouldStop_CancelledParent_StopsNestedControl() {
+        SolverControl parent = new SolverControl(60000, null);
+        SolverControl nested = new SolverControl(parent, -1, null);
+        assertFalse(nested.shouldStop());
+        assertTrue(nested.getRemainingMillis() <= 60000);
+        parent.cancel();
+        assertTrue(nested.isCancelled());
+        assertTrue(nested.shouldStop());
+    }
+
+    @Test
+    public void reportImprovement_OnlyHigherScoresReachListener() {
+        List<SolverProgress> events = new ArrayList<>();
+        SolverControl control = new SolverControl(-1, events::add);
+        control.reportImprovement(1.0, 1);
+        control.reportImprovement(0.5, 2);
+        control.reportImprovement(1.0, 3);
+        control.reportImprovement(2.0, 4);
+        assertEquals(2, events.size());
+        assertEquals(1.0, events.get(0).getScore(), 0.0);
+        assertEquals(4, events.get(1).getIteration());
+    }
+}
@@ -0,0 +1,58 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class TabuSearchAlgorithmTest {
+
+    private static final int SIZE = 40;
+
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.random(SIZE, 21);
+    }
+
+    @Test
+    public void order_ValidInputs_ImprovesGreedyOrdering() {
+        TabuSearchAlgorithm algorithm = new TabuSearchAlgorithm(matrix);
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(matrix.tourScore(tour) > matrix.tourScore(algorithm.greedyOrder(matrix, SIZE, 0)));
+    }
+
+    @Test
+    public void order_SameInputs_ReturnsSameOrdering() {
+        int[] first = new TabuSearchAlgorithm(matrix).order(matrix, SIZE, 300);
+        int[] second = new TabuSearchAlgorithm(matrix).order(matrix, SIZE, 300);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void order_IterationLimit_StopsAfterLimit() {
+        TabuSearchAlgorithm algorithm = new TabuSearchAlgorithm(matrix);
+        algorithm.order(matrix, SIZE, 25);
+        assertEquals(25, algorithm.getIterations());
+    }
+
+    @Test
+    public void order_MoreIterations_NotWorse() {
+        double few = matrix.tourScore(new TabuSearchAlgorithm(matrix).order(matrix, SIZE, 10));
+        double many = matrix.tourScore(new TabuSearchAlgorithm(matrix).order(matrix, SIZE, 1000));
+        assertTrue(many >= few - 1e-9);
+    }
+
+    @Test
+    public void order_CancelledControl_ReturnsGreedyOrdering() {
+        TabuSearchAlgorithm algorithm = new TabuSearchAlgorithm(matrix);
+        SolverControl control = new SolverControl();
+        control.cancel();
+        algorithm.setControl(control);
+        assertArrayEquals(algorithm.greedyOrder(matrix, SIZE, 0), algorithm.order(matrix, SIZE, -1));
+        assertEquals(0, algorithm.getIterations());
+    }
+}
@@ -0,0 +1,74 @@
+package org.domain.algorithms;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Similarity matrices and assertions shared by the tests of the algorithms.
+ */
+final class TestMatrices {
+
+    private TestMatrices() {
+    }
+
+    /**
+     * Builds a matrix of products named "0" to size - 1 with uniform random similarities between 0 and 1.
+     * @param size The number of products.
+     * @param seed The seed of the similarities.
+     * @return The compiled matrix.
+     */
+    static SimilarityMatrix random(int size, long seed) {
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        Random rand = new Random(seed);
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double similarity = rand.nextDouble();
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), similarity);
+                similarities.computeIfAbsent(String.valueOf(j), k -> new HashMap<>()).put(String.valueOf(i), similarity);
+            }
+        }
+        return new SimilarityMatrix(similarities);
+    }
+
+    /**
+     * Builds a matrix of products named "0" to size - 1 placed at random on the unit square, whose similarity is one
+     * minus their distance, so good orderings follow the neighbours on the plane.
+     * @param size The number of products.
+     * @param seed The seed of the positions.
+     * @return The compiled matrix.
+     */
+    static SimilarityMatrix planar(int size, long seed) {
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        Random rand = new Random(seed);
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = rand.nextDouble();
+            y[i] = rand.nextDouble();
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), 1 - Math.hypot(x[i] - x[j], y[i] - y[j]));
+            }
+        }
+        return new SimilarityMatrix(similarities);
+    }
+
+    /**
+     * Asserts that an ordering has the expected length and no repeated products of a matrix.
+     * @param matrix The matrix of the products.
+     * @param tour   The ordering.
+     * @param size   The expected number of products.
+     */
+    static void assertPermutation(SimilarityMatrix matrix, int[] tour, int size) {
+        assertEquals(size, tour.length);
+        boolean[] seen = new boolean[matrix.size()];
+        for (int id : tour) {
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TourMovesTest {
+
+    private static final int SIZE = 9;
+
+    private SimilarityMatrix matrix;
+    private int[] tour;
+
+    @Before
+    public void setUp() {
+        Map<String, Map<String, Double>> similarities = new HashMap<>();
+        Random rand = new Random(7);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = i + 1; j < SIZE; j++) {
+                double similarity = rand.nextDouble();
+                similarities.computeIfAbsent(String.valueOf(i), k -> new HashMap<>()).put(String.valueOf(j), similarity);
+                similarities.computeIfAbsent(String.valueOf(j), k -> new HashMap<>()).put(String.valueOf(i), similarity);
+            }
+        }
+        matrix = new SimilarityMatrix(similarities);
+        tour = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) tour[i] = i;
+    }
+
+    @Test
+    public void swapDelta_EveryPair_MatchesFullRecalculation() {
+        double before = matrix.tourScore(tour);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                double delta = TourMoves.swapDelta(matrix, tour, i, j);
+                TourMoves.swap(tour, i, j);
+                assertEquals(matrix.tourScore(tour) - before, delta, 1e-9);
+                TourMoves.swap(tour, i, j);
+            }
+        }
+    }
+
+    @Test
+    public void swapDelta_ThreeProducts_ReturnsZero() {
+        int[] small = {0, 1, 2};
+        assertEquals(0.0, TourMoves.swapDelta(matrix, small, 0, 2), 0.0);
+    }
+
+    @Test
+    public void twoOptDelta_EverySegment_MatchesFullRecalculation() {
+        double before = matrix.tourScore(tour);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = i; j < SIZE; j++) {
+                double delta = TourMoves.twoOptDelta(matrix, tour, i, j);
+                TourMoves.reverse(tour, i, j);
+                assertEquals(matrix.tourScore(tour) - before, delta, 1e-9);
+                TourMoves.reverse(tour, i, j);
+            }
+        }
+    }
+
+    @Test
+    public void insertionDelta_EveryMove_MatchesFullRecalculation() {
+        double before = matrix.tourScore(tour);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                int[] moved = tour.clone();
+                double delta = TourMoves.insertionDelta(matrix, moved, i, j);
+                TourMoves.insert(moved, i, j);
+                assertEquals(tour[i], moved[j]);
+                assertEquals(matrix.tourScore(moved) - before, delta, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void canonicalize_RotatedAndReflected_ReturnsSameOrdering() {
+        int[] rotated = {5, 4, 3, 2, 1, 0, 8, 7, 6};
+        TourMoves.canonicalize(rotated);
+        assertArrayEquals(tour, rotated);
+        int[] shifted = {3, 4, 5, 6, 7, 8, 0, 1, 2};
+        TourMoves.canonicalize(shifted);
+        assertArrayEquals(tour, shifted);
+    }
+}
@@ -0,0 +1,97 @@
+package org.domain.algorithms;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.domain.algorithms.TestMatrices.assertPermutation;
+import static org.junit.Assert.*;
+
+public class TwoOptLocalSearchTest {
+
+    private static final int SIZE = 60;
+
+    private SimilarityMatrix matrix;
+
+    @Before
+    public void setUp() {
+        matrix = TestMatrices.random(SIZE, 11);
+    }
+
+    private int[] identity(int size) {
+        int[] tour = new int[size];
+        for (int i = 0; i < size; i++) tour[i] = i;
+        return tour;
+    }
+
+    @Test
+    public void topNeighbours_SortedByDecreasingSimilarity() {
+        int[][] neighbours = matrix.topNeighbours(5);
+        for (int u = 0; u < SIZE; u++) {
+            assertEquals(5, neighbours[u].length);
+            double worst = Double.MAX_VALUE;
+            for (int v : neighbours[u]) {
+                assertNotEquals(u, v);
+                assertTrue(matrix.get(u, v) <= worst);
+                worst = matrix.get(u, v);
+            }
+            // No product outside the list is more similar than the last one
+            int listed = 0;
+            for (int v = 0; v < SIZE; v++) {
+                if (v != u && matrix.get(u, v) > worst) ++listed;
+            }
+            assertTrue(listed < 5);
+        }
+    }
+
+    @Test
+    public void optimize_ImprovesScoreAndKeepsPermutation() {
+        int[] tour = identity(SIZE);
+        double before = matrix.tourScore(tour);
+        int moves = new TwoOptLocalSearch(matrix).optimize(tour, -1);
+        assertTrue(moves > 0);
+        assertTrue(matrix.tourScore(tour) > before);
+        assertPermutation(matrix, tour, SIZE);
+    }
+
+    @Test
+    public void optimize_AllNeighbours_ReachesTwoOptLocalOptimum() {
+        int[] tour = identity(SIZE);
+        new TwoOptLocalSearch(matrix, SIZE - 1).optimize(tour, -1);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = i; j < SIZE; j++) {
+                assertTrue(TourMoves.twoOptDelta(matrix, tour, i, j) <= 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void optimize_PartialTour_OnlyMovesItsProducts() {
+        int[] tour = identity(20);
+        new TwoOptLocalSearch(matrix).optimize(tour, -1);
+        assertPermutation(matrix, tour, 20);
+        for (int id : tour) assertTrue(id < 20);
+    }
+
+    @Test
+    public void optimize_MoveLimit_StopsAfterLimit() {
+        int[] tour = identity(SIZE);
+        assertEquals(3, new TwoOptLocalSearch(matrix).optimize(tour, 3));
+    }
+
+    @Test
+    public void optimizeAround_NoProducts_AppliesNoMoves() {
+        int[] tour = identity(SIZE);
+        assertEquals(0, new TwoOptLocalSearch(matrix).optimizeAround(tour, new int[0], -1, new SolverControl()));
+        assertTrue(new TwoOptLocalSearch(matrix).optimizeAround(tour, new int[] {0, 1}, -1, new SolverControl()) > 0);
+        assertPermutation(matrix, tour, SIZE);
+    }
+
+    @Test
+    public void order_TwoOptAlgorithm_NotWorseThanGreedy() {
+        TwoOptAlgorithm algorithm = new TwoOptAlgorithm(matrix);
+        int[] greedy = algorithm.greedyOrder(matrix, SIZE, 0);
+        int[] tour = algorithm.order(matrix, SIZE, -1);
+        assertPermutation(matrix, tour, SIZE);
+        assertTrue(matrix.tourScore(tour) >= matrix.tourScore(greedy) - 1e-9);
+    }
+}
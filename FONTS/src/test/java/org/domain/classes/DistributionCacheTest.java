@@ -0,0 +1,99 @@
+package org.domain.classes;
+
+import org.domain.algorithms.Objective;
+import org.domain.exceptions.ProductException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DistributionCacheTest {
+
+    private DistributionCache cache;
+    private List<Product> products;
+    private ArrayList<ArrayList<Product>> layout;
+
+    @Before
+    public void setUp() throws ProductException {
+        cache = new DistributionCache(2, 60000);
+        products = new ArrayList<>();
+        for (int i = 0; i < 4; i++) products.add(new Product("p" + i, "c", 1, 1, 1));
+        layout = new ArrayList<>();
+        layout.add(new ArrayList<>(products.subList(0, 2)));
+        layout.add(new ArrayList<>(products.subList(2, 4)));
+    }
+
+    @Test
+    public void get_StoredLayout_CountsHitAndMiss() {
+        DistributionCache.Key key = DistributionCache.key(products, 1, 2, 2, 1, -1, null);
+        assertNull(cache.get(key));
+        cache.put(key, layout, Objective.SEQUENCE);
+        DistributionCache.Entry entry = cache.get(key);
+        assertEquals(layout, entry.getLayout());
+        assertEquals(Objective.SEQUENCE, entry.getObjective());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void key_ProductsInAnotherOrder_IsEqual() {
+        List<Product> reversed = new ArrayList<>(products);
+        Collections.reverse(reversed);
+        assertEquals(DistributionCache.key(products, 1, 2, 2, 1, -1, null), DistributionCache.key(reversed, 1, 2, 2, 1, -1, null));
+        assertNotEquals(DistributionCache.key(products, 1, 2, 2, 1, -1, null), DistributionCache.key(products.subList(0, 3), 1, 2, 2, 1, -1, null));
+        assertNotEquals(DistributionCache.key(products, 1, 2, 2, 1, -1, null), DistributionCache.key(products, 1, 4, 1, 1, -1, null));
+    }
+
+    @Test
+    public void get_ModifiedCopy_DoesNotChangeStoredLayout() {
+        DistributionCache.Key key = DistributionCache.key(products, 1, 2, 2, 1, -1, null);
+        cache.put(key, layout, Objective.SEQUENCE);
+        cache.get(key).getLayout().get(0).set(0, null);
+        layout.get(1).set(0, null);
+        assertEquals(products.get(0), cache.get(key).getLayout().get(0).get(0));
+        assertEquals(products.get(2), cache.get(key).getLayout().get(1).get(0));
+    }
+
+    @Test
+    public void get_NewerSimilarityVersion_DiscardsOlderLayouts() {
+        cache.put(DistributionCache.key(products, 1, 2, 2, 1, -1, null), layout, Objective.SEQUENCE);
+        assertNull(cache.get(DistributionCache.key(products, 2, 2, 2, 1, -1, null)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_FullCache_EvictsLeastRecentlyUsed() {
+        DistributionCache.Key first = DistributionCache.key(products, 1, 2, 2, 1, -1, null);
+        DistributionCache.Key second = DistributionCache.key(products, 1, 2, 2, 2, -1, null);
+        DistributionCache.Key third = DistributionCache.key(products, 1, 2, 2, 3, -1, null);
+        cache.put(first, layout, Objective.SEQUENCE);
+        cache.put(second, layout, Objective.SEQUENCE);
+        cache.get(first);
+        cache.put(third, layout, Objective.SEQUENCE);
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void get_ExpiredLayout_ReturnsNull() {
+        DistributionCache expiring = new DistributionCache(2, 0);
+        DistributionCache.Key key = DistributionCache.key(products, 1, 2, 2, 1, -1, null);
+        expiring.put(key, layout, Objective.SEQUENCE);
+        assertNull(expiring.get(key));
+        assertEquals(0, expiring.size());
+    }
+
+    @Test
+    public void invalidate_StoredLayouts_DiscardsEveryLayout() {
+        DistributionCache.Key key = DistributionCache.key(products, 1, 2, 2, 1, -1, null);
+        cache.put(key, layout, Objective.SEQUENCE);
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(key));
+    }
+}
\ No newline at end of file